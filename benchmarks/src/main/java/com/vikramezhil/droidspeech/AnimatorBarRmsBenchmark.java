@@ -0,0 +1,71 @@
+package com.vikramezhil.droidspeech;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Droid Speech Animator Bar Rms Benchmark
+ *
+ * Animates a progress bar with the rms levels one frame at a time. A loud and a quiet level take
+ * turns every few frames, as the recognizer reports them, so the bar keeps going up and down
+ *
+ * @author Vikram Ezhil
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AnimatorBarRmsBenchmark
+{
+    private static final long FRAME_NANOS = 16 * Clocks.NANOS_PER_MILLI;
+    private static final int RMS_FRAMES = 3;
+    private static final int RMS_LEVELS = 10;
+
+    private final VirtualClock clock = new VirtualClock();
+    private final RecognitionBarView bar = new RecognitionBarView(400, 150, 26, 160, 13);
+    private final AnimatorBarRms animatorBarRms = new AnimatorBarRms(bar);
+    private int frame;
+
+    @Setup
+    public void setUp()
+    {
+        Clocks.setClock(clock);
+
+        animatorBarRms.start();
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        Clocks.setClock(null);
+    }
+
+    @Benchmark
+    public int update()
+    {
+        clock.advanceByNanos(FRAME_NANOS);
+
+        if(++frame % RMS_FRAMES == 0)
+        {
+            animatorBarRms.onRmsChanged(frame % (RMS_FRAMES * RMS_LEVELS) < RMS_FRAMES * RMS_LEVELS / 2 ? 8f : 1f);
+        }
+
+        animatorBarRms.animate();
+
+        return bar.getHeight();
+    }
+}
@@ -0,0 +1,71 @@
+package com.vikramezhil.droidspeech;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Droid Speech Animator Idle Benchmark
+ *
+ * Floats the five progress bars one frame at a time, the virtual clock moves a frame per op so the
+ * idle cycle wraps as it does on screen
+ *
+ * @author Vikram Ezhil
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AnimatorIdleBenchmark
+{
+    private static final long FRAME_NANOS = 16 * Clocks.NANOS_PER_MILLI;
+
+    private final VirtualClock clock = new VirtualClock();
+    private final List<RecognitionBarView> bars = new ArrayList<>();
+    private AnimatorIdle animatorIdle;
+
+    @Setup
+    public void setUp()
+    {
+        Clocks.setClock(clock);
+
+        // The bars as laid out by the progress view on a 420 dpi screen
+        for(int i = 0; i < RecognitionProgressView.BARS_COUNT; i++)
+        {
+            bars.add(new RecognitionBarView(400 + 54 * i, 150, 26, 160, 13));
+        }
+
+        animatorIdle = new AnimatorIdle(bars, 7);
+        animatorIdle.start();
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        Clocks.setClock(null);
+    }
+
+    @Benchmark
+    public int update()
+    {
+        clock.advanceByNanos(FRAME_NANOS);
+        animatorIdle.update(bars);
+
+        return bars.get(0).getY();
+    }
+}
@@ -0,0 +1,71 @@
+package com.vikramezhil.droidspeech;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Droid Speech Animator Rotating Benchmark
+ *
+ * Rotates the five progress bars around the view center one frame at a time, covering both the
+ * accelerating and the decelerating part of the rotation
+ *
+ * @author Vikram Ezhil
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AnimatorRotatingBenchmark
+{
+    private static final long FRAME_NANOS = 16 * Clocks.NANOS_PER_MILLI;
+
+    private final VirtualClock clock = new VirtualClock();
+    private final List<RecognitionBarView> bars = new ArrayList<>();
+    private AnimatorRotating animatorRotating;
+
+    @Setup
+    public void setUp()
+    {
+        Clocks.setClock(clock);
+
+        // The bars as placed on the rotation circle by the transform animation
+        for(int i = 0; i < RecognitionProgressView.BARS_COUNT; i++)
+        {
+            bars.add(new RecognitionBarView(474 + 65 * i, 150, 26, 160, 13));
+        }
+
+        animatorRotating = new AnimatorRotating(bars, 540, 150);
+        animatorRotating.start();
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        Clocks.setClock(null);
+    }
+
+    @Benchmark
+    public int animate()
+    {
+        clock.advanceByNanos(FRAME_NANOS);
+        animatorRotating.animate();
+
+        return bars.get(0).getX();
+    }
+}
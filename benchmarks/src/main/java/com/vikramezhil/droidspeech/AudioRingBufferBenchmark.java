@@ -0,0 +1,86 @@
+package com.vikramezhil.droidspeech;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Droid Speech Audio Ring Buffer Benchmark
+ *
+ * Writes capture frames into the ring, positions a reused view on the latest frame as the capture
+ * delivery does and reads the latest audio back as the pre-roll hand over does
+ *
+ * @author Vikram Ezhil
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AudioRingBufferBenchmark
+{
+    private static final int FRAME_COUNT = 50;
+    private static final int READ_FRAMES = 10;
+
+    private final AudioRingBuffer audioRingBuffer = new AudioRingBuffer(Extensions.CAPTURE_FRAME_SIZE, FRAME_COUNT);
+    private final byte[] audio = new byte[Extensions.CAPTURE_FRAME_SIZE];
+    private final ByteBuffer destination = ByteBuffer.allocateDirect(READ_FRAMES * Extensions.CAPTURE_FRAME_SIZE);
+    private final ByteBuffer view = audioRingBuffer.newView();
+
+    @Setup
+    public void setUp()
+    {
+        for(int i = 0; i < audio.length; i++)
+        {
+            audio[i] = (byte) i;
+        }
+
+        // Filling the ring, so the reads always find audio
+        for(int i = 0; i < FRAME_COUNT; i++)
+        {
+            writeFrame();
+        }
+    }
+
+    @Benchmark
+    public void writeFrame()
+    {
+        ByteBuffer frame = audioRingBuffer.nextFrame();
+        frame.put(audio);
+        audioRingBuffer.commitFrame(audio.length);
+    }
+
+    @Benchmark
+    public void writeBytes()
+    {
+        audioRingBuffer.write(audio, 0, audio.length);
+    }
+
+    @Benchmark
+    public int viewLatestFrame()
+    {
+        audioRingBuffer.view(audioRingBuffer.getWritePosition() - Extensions.CAPTURE_FRAME_SIZE, Extensions.CAPTURE_FRAME_SIZE, view);
+
+        return view.remaining();
+    }
+
+    @Benchmark
+    public int readLatest()
+    {
+        destination.clear();
+
+        return audioRingBuffer.read(audioRingBuffer.getWritePosition() - destination.capacity(), destination);
+    }
+}
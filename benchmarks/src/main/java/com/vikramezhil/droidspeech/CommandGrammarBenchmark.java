@@ -0,0 +1,79 @@
+package com.vikramezhil.droidspeech;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Droid Speech Command Grammar Benchmark
+ *
+ * Matches a live and a final hypothesis against grammars of growing size, the matching cost should
+ * follow the hypothesis length rather than the number of commands
+ *
+ * @author Vikram Ezhil
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CommandGrammarBenchmark
+{
+    private static final String[] VERBS = {"open", "close", "start", "stop", "show", "hide", "play", "pause",
+            "call", "text", "find", "set", "turn", "switch", "add", "remove", "read", "send", "check", "book"};
+
+    private static final String[] OBJECTS = {"lights", "music", "timer", "alarm", "camera", "settings", "notes",
+            "calendar", "messages", "weather", "news", "podcast", "radio", "map", "photos", "contacts", "email",
+            "reminder", "door", "heating", "fan", "tv", "speaker", "playlist", "list"};
+
+    @Param({"10", "100", "500"})
+    public int commands;
+
+    private final CommandGrammar commandGrammar = new CommandGrammar();
+
+    @Setup
+    public void setUp()
+    {
+        // Every verb and object pair, half of them with a slot
+        for(int i = 0; i < commands; i++)
+        {
+            String verb = VERBS[i % VERBS.length];
+            String object = OBJECTS[(i / VERBS.length) % OBJECTS.length];
+            String phrase = i % 2 == 0 ? verb + " the " + object : verb + " {target} " + object;
+
+            commandGrammar.add("command" + i, phrase);
+        }
+
+        commandGrammar.add("speaker", "call {name} on speaker");
+    }
+
+    @Benchmark
+    public DroidSpeechCommand matchLive()
+    {
+        return commandGrammar.match("call the office manager on speaker", false);
+    }
+
+    @Benchmark
+    public DroidSpeechCommand matchFinal()
+    {
+        return commandGrammar.match("call the office manager on speaker", true);
+    }
+
+    @Benchmark
+    public DroidSpeechCommand matchNone()
+    {
+        return commandGrammar.match("what is the weather going to be like tomorrow", true);
+    }
+}
@@ -0,0 +1,62 @@
+package com.vikramezhil.droidspeech;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Droid Speech Latency Histogram Benchmark
+ *
+ * Records latencies and reads the percentiles the latency metrics report
+ *
+ * @author Vikram Ezhil
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LatencyHistogramBenchmark
+{
+    private static final int LATENCY_MASK = 1023;
+
+    private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+    private final long[] latencies = new long[LATENCY_MASK + 1];
+    private int next;
+
+    @Setup
+    public void setUp()
+    {
+        // Mostly a few hundred milliseconds with a long tail, as the restart gaps and result latencies are
+        Random random = new Random(1);
+        for(int i = 0; i < latencies.length; i++)
+        {
+            latencies[i] = (long) Math.exp(5 + random.nextGaussian());
+            latencyHistogram.record(latencies[i]);
+        }
+    }
+
+    @Benchmark
+    public void record()
+    {
+        latencyHistogram.record(latencies[next++ & LATENCY_MASK]);
+    }
+
+    @Benchmark
+    public long percentile()
+    {
+        return latencyHistogram.getPercentile(95);
+    }
+}
@@ -0,0 +1,71 @@
+package com.vikramezhil.droidspeech;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Droid Speech Partial Differ Benchmark
+ *
+ * Diffs the growing live results of a session, one op is one live result
+ *
+ * @author Vikram Ezhil
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PartialDifferBenchmark
+{
+    private static final String SPEECH = "remind me to call the plumber about the kitchen sink tomorrow " +
+            "morning before I leave for work and also pick up the dry cleaning";
+
+    private static final int PARTIALS = 22;
+
+    private final PartialDiffer partialDiffer = new PartialDiffer();
+    private String[] partials;
+
+    @Setup
+    public void setUp()
+    {
+        // The recognizer grows the hypothesis a word at a time and revises the last word now and then
+        String[] words = SPEECH.split(" ");
+        partials = new String[PARTIALS];
+        StringBuilder hypothesis = new StringBuilder();
+        for(int i = 0; i < PARTIALS; i++)
+        {
+            if(i > 0) hypothesis.append(' ');
+            hypothesis.append(words[i]);
+
+            partials[i] = i % 4 == 3 ? hypothesis + "s" : hypothesis.toString();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PARTIALS + 1)
+    public void session(Blackhole blackhole)
+    {
+        partialDiffer.reset();
+
+        for(String partial : partials)
+        {
+            blackhole.consume(partialDiffer.diff(partial, false));
+        }
+
+        blackhole.consume(partialDiffer.diff(SPEECH, true));
+    }
+}
@@ -0,0 +1,82 @@
+package com.vikramezhil.droidspeech;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import android.content.Context;
+import android.graphics.Canvas;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Droid Speech Recognition Progress View Benchmark
+ *
+ * Draws the laid out progress view one frame at a time while it animates, idle or with the rms
+ * levels. The canvas is a stub so only the animation and the bar layout math are measured
+ *
+ * @author Vikram Ezhil
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RecognitionProgressViewBenchmark
+{
+    private static final long FRAME_NANOS = 16 * Clocks.NANOS_PER_MILLI;
+    private static final int RMS_FRAMES = 3;
+
+    @Param({"idle", "rms"})
+    public String mode;
+
+    private final VirtualClock clock = new VirtualClock();
+    private final Canvas canvas = new Canvas();
+    private RecognitionProgressView recognitionProgressView;
+    private int frame;
+
+    @Setup
+    public void setUp()
+    {
+        Clocks.setClock(clock);
+
+        // A 420 dpi screen, the view spanning its width as in the droid speech dialog
+        Context context = new Context();
+        context.getResources().getDisplayMetrics().density = 2.625f;
+
+        recognitionProgressView = new RecognitionProgressView(context);
+        recognitionProgressView.measure(1080, 300);
+        recognitionProgressView.layout(0, 0, 1080, 300);
+        recognitionProgressView.play();
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        Clocks.setClock(null);
+    }
+
+    @Benchmark
+    public void onDraw()
+    {
+        clock.advanceByNanos(FRAME_NANOS);
+
+        if("rms".equals(mode) && ++frame % RMS_FRAMES == 0)
+        {
+            recognitionProgressView.rmsValue(frame % 2 == 0 ? 8f : 4f);
+        }
+
+        recognitionProgressView.onDraw(canvas);
+    }
+}
@@ -0,0 +1,65 @@
+package com.vikramezhil.droidspeech;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import android.os.Bundle;
+import android.speech.SpeechRecognizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Droid Speech Result Parsing Benchmark
+ *
+ * Parses the recognizer bundles as onResults and onPartialResults do, a final result with five
+ * scored alternatives and a partial result with a single unscored one
+ *
+ * @author Vikram Ezhil
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ResultParsingBenchmark
+{
+    private final Bundle results = new Bundle();
+    private final Bundle partialResults = new Bundle();
+
+    @Setup
+    public void setUp()
+    {
+        results.putStringArrayList(SpeechRecognizer.RESULTS_RECOGNITION, new ArrayList<>(Arrays.asList(
+                "turn on the kitchen lights", "turn on the kitchen light", "turn on the kitchen lites",
+                "turn on a kitchen lights", "turn of the kitchen lights")));
+        results.putFloatArray(SpeechRecognizer.CONFIDENCE_SCORES, new float[] { 0.92f, 0.71f, 0.43f, 0.38f, 0.12f });
+
+        partialResults.putStringArrayList(SpeechRecognizer.RESULTS_RECOGNITION,
+                new ArrayList<>(Arrays.asList("turn on the kitchen")));
+    }
+
+    @Benchmark
+    public Object onResults()
+    {
+        return DroidSpeechResult.fromBundle(results);
+    }
+
+    @Benchmark
+    public Object onPartialResults()
+    {
+        return DroidSpeechResult.fromBundle(partialResults);
+    }
+}
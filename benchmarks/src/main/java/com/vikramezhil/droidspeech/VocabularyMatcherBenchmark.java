@@ -0,0 +1,89 @@
+package com.vikramezhil.droidspeech;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Droid Speech Vocabulary Matcher Benchmark
+ *
+ * Matches a misheard entry and an unknown text against vocabularies of growing size
+ *
+ * @author Vikram Ezhil
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VocabularyMatcherBenchmark
+{
+    private static final String SYLLABLES = "ka ri mo ne ta su lo vi pe da ho mi ra zu be no";
+
+    @Param({"100", "1000", "10000"})
+    public int entries;
+
+    private final VocabularyMatcher vocabularyMatcher = new VocabularyMatcher();
+    private String misheard;
+
+    @Setup
+    public void setUp()
+    {
+        // Seeded, so every run matches against the same made up names
+        Random random = new Random(entries);
+        String[] syllables = SYLLABLES.split(" ");
+        String entry = null;
+
+        for(int i = 0; i < entries; i++)
+        {
+            entry = name(random, syllables) + " " + name(random, syllables);
+            vocabularyMatcher.add(entry);
+        }
+
+        // The last entry with one letter misheard
+        misheard = entry.substring(0, 2) + "x" + entry.substring(3);
+    }
+
+    @Benchmark
+    public String matchMisheard()
+    {
+        vocabularyMatcher.reset();
+        vocabularyMatcher.match(misheard, 2);
+
+        return vocabularyMatcher.getBestEntry();
+    }
+
+    @Benchmark
+    public String matchUnknown()
+    {
+        vocabularyMatcher.reset();
+        vocabularyMatcher.match("what time is it", 2);
+
+        return vocabularyMatcher.getBestEntry();
+    }
+
+    private static String name(Random random, String[] syllables)
+    {
+        StringBuilder name = new StringBuilder();
+        int count = 2 + random.nextInt(2);
+        for(int i = 0; i < count; i++)
+        {
+            name.append(syllables[random.nextInt(syllables.length)]);
+        }
+
+        return name.toString();
+    }
+}
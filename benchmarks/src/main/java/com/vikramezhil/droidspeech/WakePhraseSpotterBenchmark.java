@@ -0,0 +1,70 @@
+package com.vikramezhil.droidspeech;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Droid Speech Wake Phrase Spotter Benchmark
+ *
+ * Spots a wake phrase in a live result, anchored and anywhere, with a growing number of wake phrases
+ *
+ * @author Vikram Ezhil
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WakePhraseSpotterBenchmark
+{
+    @Param({"1", "10", "100"})
+    public int phrases;
+
+    private final WakePhraseSpotter wakePhraseSpotter = new WakePhraseSpotter();
+
+    @Setup
+    public void setUp()
+    {
+        List<String> wakePhrases = new ArrayList<>();
+        for(int i = 1; i < phrases; i++)
+        {
+            wakePhrases.add("hey assistant number " + i);
+        }
+
+        wakePhrases.add("hey droid");
+        wakePhraseSpotter.setPhrases(wakePhrases);
+    }
+
+    @Benchmark
+    public int spotAnchored()
+    {
+        return wakePhraseSpotter.spot("hey droid turn on the lights in the living room", true);
+    }
+
+    @Benchmark
+    public int spotAnywhere()
+    {
+        return wakePhraseSpotter.spot("so I said hey droid turn on the lights in the living room", false);
+    }
+
+    @Benchmark
+    public int spotNone()
+    {
+        return wakePhraseSpotter.spot("turn on the lights in the living room and then play some music", false);
+    }
+}
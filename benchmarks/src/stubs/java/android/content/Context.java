@@ -0,0 +1,19 @@
+package android.content;
+
+import android.content.res.Resources;
+
+/**
+ * Android Context stub for the benchmarks, only the resources are provided
+ *
+ * @author Vikram Ezhil
+ */
+
+public class Context
+{
+    private final Resources resources = new Resources();
+
+    public Resources getResources()
+    {
+        return resources;
+    }
+}
@@ -0,0 +1,19 @@
+package android.content.res;
+
+import android.util.DisplayMetrics;
+
+/**
+ * Android Resources stub for the benchmarks, only the display metrics are provided
+ *
+ * @author Vikram Ezhil
+ */
+
+public class Resources
+{
+    private final DisplayMetrics displayMetrics = new DisplayMetrics();
+
+    public DisplayMetrics getDisplayMetrics()
+    {
+        return displayMetrics;
+    }
+}
@@ -0,0 +1,15 @@
+package android.graphics;
+
+/**
+ * Android Canvas stub for the benchmarks, the drawing is left out so only the droid speech side of
+ * the draw is measured
+ *
+ * @author Vikram Ezhil
+ */
+
+public class Canvas
+{
+    public void drawRoundRect(RectF rect, float rx, float ry, Paint paint)
+    {
+    }
+}
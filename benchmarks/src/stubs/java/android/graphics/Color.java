@@ -0,0 +1,16 @@
+package android.graphics;
+
+/**
+ * Android Color stub for the benchmarks, the color constants used by droid speech
+ *
+ * @author Vikram Ezhil
+ */
+
+public class Color
+{
+    public static final int GRAY = 0xFF888888;
+    public static final int RED = 0xFFFF0000;
+    public static final int GREEN = 0xFF00FF00;
+    public static final int BLUE = 0xFF0000FF;
+    public static final int YELLOW = 0xFFFFFF00;
+}
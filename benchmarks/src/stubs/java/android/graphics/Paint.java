@@ -0,0 +1,35 @@
+package android.graphics;
+
+/**
+ * Android Paint stub for the benchmarks, keeping the flags and the color
+ *
+ * @author Vikram Ezhil
+ */
+
+public class Paint
+{
+    public static final int ANTI_ALIAS_FLAG = 0x01;
+
+    private int flags;
+    private int color;
+
+    public void setFlags(int flags)
+    {
+        this.flags = flags;
+    }
+
+    public int getFlags()
+    {
+        return flags;
+    }
+
+    public void setColor(int color)
+    {
+        this.color = color;
+    }
+
+    public int getColor()
+    {
+        return color;
+    }
+}
@@ -0,0 +1,28 @@
+package android.graphics;
+
+/**
+ * Android Point stub for the benchmarks
+ *
+ * @author Vikram Ezhil
+ */
+
+public class Point
+{
+    public int x;
+    public int y;
+
+    public Point()
+    {
+    }
+
+    public Point(int x, int y)
+    {
+        this.x = x;
+        this.y = y;
+    }
+
+    public Point(Point src)
+    {
+        this(src.x, src.y);
+    }
+}
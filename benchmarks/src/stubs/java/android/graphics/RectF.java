@@ -0,0 +1,28 @@
+package android.graphics;
+
+/**
+ * Android RectF stub for the benchmarks
+ *
+ * @author Vikram Ezhil
+ */
+
+public class RectF
+{
+    public float left;
+    public float top;
+    public float right;
+    public float bottom;
+
+    public RectF(float left, float top, float right, float bottom)
+    {
+        set(left, top, right, bottom);
+    }
+
+    public void set(float left, float top, float right, float bottom)
+    {
+        this.left = left;
+        this.top = top;
+        this.right = right;
+        this.bottom = bottom;
+    }
+}
@@ -0,0 +1,20 @@
+package android.os;
+
+/**
+ * Android Build stub for the benchmarks, reporting API 26 (overridable with -Dandroid.sdk)
+ *
+ * @author Vikram Ezhil
+ */
+
+public class Build
+{
+    public static class VERSION
+    {
+        public static final int SDK_INT = Integer.getInteger("android.sdk", 26);
+    }
+
+    public static class VERSION_CODES
+    {
+        public static final int JELLY_BEAN_MR2 = 18;
+    }
+}
@@ -0,0 +1,41 @@
+package android.os;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Android Bundle stub for the benchmarks, a map of the values as the unparcelled platform bundle.
+ * A value of the wrong type reads as null like on the platform
+ *
+ * @author Vikram Ezhil
+ */
+
+public class Bundle
+{
+    private final HashMap<String, Object> map = new HashMap<>();
+
+    public void putStringArrayList(String key, ArrayList<String> value)
+    {
+        map.put(key, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ArrayList<String> getStringArrayList(String key)
+    {
+        Object value = map.get(key);
+
+        return value instanceof ArrayList ? (ArrayList<String>) value : null;
+    }
+
+    public void putFloatArray(String key, float[] value)
+    {
+        map.put(key, value);
+    }
+
+    public float[] getFloatArray(String key)
+    {
+        Object value = map.get(key);
+
+        return value instanceof float[] ? (float[]) value : null;
+    }
+}
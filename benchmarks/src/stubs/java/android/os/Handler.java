@@ -0,0 +1,25 @@
+package android.os;
+
+/**
+ * Android Handler stub for the benchmarks, the benchmarks schedule on the virtual clock instead
+ *
+ * @author Vikram Ezhil
+ */
+
+public class Handler
+{
+    public Handler(Looper looper)
+    {
+        throw new RuntimeException("Stub!");
+    }
+
+    public final boolean postDelayed(Runnable r, long delayMillis)
+    {
+        throw new RuntimeException("Stub!");
+    }
+
+    public final void removeCallbacks(Runnable r)
+    {
+        throw new RuntimeException("Stub!");
+    }
+}
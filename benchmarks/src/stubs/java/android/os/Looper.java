@@ -0,0 +1,19 @@
+package android.os;
+
+/**
+ * Android Looper stub for the benchmarks, there is no main looper on the plain JVM
+ *
+ * @author Vikram Ezhil
+ */
+
+public final class Looper
+{
+    private Looper()
+    {
+    }
+
+    public static Looper getMainLooper()
+    {
+        throw new RuntimeException("Stub!");
+    }
+}
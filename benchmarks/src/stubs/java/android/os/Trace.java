@@ -0,0 +1,22 @@
+package android.os;
+
+/**
+ * Android Trace stub for the benchmarks, the sections are dropped
+ *
+ * @author Vikram Ezhil
+ */
+
+public final class Trace
+{
+    private Trace()
+    {
+    }
+
+    public static void beginSection(String sectionName)
+    {
+    }
+
+    public static void endSection()
+    {
+    }
+}
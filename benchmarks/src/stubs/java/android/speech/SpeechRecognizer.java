@@ -0,0 +1,17 @@
+package android.speech;
+
+/**
+ * Android SpeechRecognizer stub for the benchmarks, the results bundle keys
+ *
+ * @author Vikram Ezhil
+ */
+
+public class SpeechRecognizer
+{
+    public static final String RESULTS_RECOGNITION = "results_recognition";
+    public static final String CONFIDENCE_SCORES = "confidence_scores";
+
+    private SpeechRecognizer()
+    {
+    }
+}
@@ -0,0 +1,11 @@
+package android.util;
+
+/**
+ * Android AttributeSet stub for the benchmarks
+ *
+ * @author Vikram Ezhil
+ */
+
+public interface AttributeSet
+{
+}
@@ -0,0 +1,12 @@
+package android.util;
+
+/**
+ * Android DisplayMetrics stub for the benchmarks
+ *
+ * @author Vikram Ezhil
+ */
+
+public class DisplayMetrics
+{
+    public float density = 1f;
+}
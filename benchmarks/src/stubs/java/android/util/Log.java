@@ -0,0 +1,34 @@
+package android.util;
+
+/**
+ * Android Log stub for the benchmarks, the messages are dropped
+ *
+ * @author Vikram Ezhil
+ */
+
+public final class Log
+{
+    private Log()
+    {
+    }
+
+    public static int w(String tag, String msg)
+    {
+        return 0;
+    }
+
+    public static int w(String tag, String msg, Throwable tr)
+    {
+        return 0;
+    }
+
+    public static int e(String tag, String msg)
+    {
+        return 0;
+    }
+
+    public static int e(String tag, String msg, Throwable tr)
+    {
+        return 0;
+    }
+}
@@ -0,0 +1,94 @@
+package android.view;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Canvas;
+import android.util.AttributeSet;
+
+/**
+ * Android View stub for the benchmarks, keeping the measured size and the frame set by measure()
+ * and layout(). The measure specs are taken as exact sizes
+ *
+ * @author Vikram Ezhil
+ */
+
+public class View
+{
+    private final Context context;
+    private int measuredWidth;
+    private int measuredHeight;
+    private int left;
+    private int top;
+    private int right;
+    private int bottom;
+
+    public View(Context context)
+    {
+        this.context = context;
+    }
+
+    public View(Context context, AttributeSet attrs)
+    {
+        this(context);
+    }
+
+    public View(Context context, AttributeSet attrs, int defStyleAttr)
+    {
+        this(context);
+    }
+
+    public Resources getResources()
+    {
+        return context.getResources();
+    }
+
+    public final void measure(int widthMeasureSpec, int heightMeasureSpec)
+    {
+        measuredWidth = widthMeasureSpec;
+        measuredHeight = heightMeasureSpec;
+    }
+
+    public void layout(int l, int t, int r, int b)
+    {
+        boolean changed = left != l || top != t || right != r || bottom != b;
+
+        left = l;
+        top = t;
+        right = r;
+        bottom = b;
+
+        onLayout(changed, l, t, r, b);
+    }
+
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom)
+    {
+    }
+
+    protected void onDraw(Canvas canvas)
+    {
+    }
+
+    public void invalidate()
+    {
+    }
+
+    public final int getMeasuredWidth()
+    {
+        return measuredWidth;
+    }
+
+    public final int getMeasuredHeight()
+    {
+        return measuredHeight;
+    }
+
+    public final int getWidth()
+    {
+        return right - left;
+    }
+
+    public final int getHeight()
+    {
+        return bottom - top;
+    }
+}
@@ -0,0 +1,15 @@
+package android.view.animation;
+
+/**
+ * Android AccelerateDecelerateInterpolator stub for the benchmarks, the platform curve
+ *
+ * @author Vikram Ezhil
+ */
+
+public class AccelerateDecelerateInterpolator
+{
+    public float getInterpolation(float input)
+    {
+        return (float) (Math.cos((input + 1) * Math.PI) / 2.0f) + 0.5f;
+    }
+}
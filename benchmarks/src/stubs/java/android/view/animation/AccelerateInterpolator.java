@@ -0,0 +1,15 @@
+package android.view.animation;
+
+/**
+ * Android AccelerateInterpolator stub for the benchmarks, the platform curve with the default factor
+ *
+ * @author Vikram Ezhil
+ */
+
+public class AccelerateInterpolator
+{
+    public float getInterpolation(float input)
+    {
+        return input * input;
+    }
+}
@@ -0,0 +1,15 @@
+package android.view.animation;
+
+/**
+ * Android DecelerateInterpolator stub for the benchmarks, the platform curve with the default factor
+ *
+ * @author Vikram Ezhil
+ */
+
+public class DecelerateInterpolator
+{
+    public float getInterpolation(float input)
+    {
+        return 1.0f - (1.0f - input) * (1.0f - input);
+    }
+}
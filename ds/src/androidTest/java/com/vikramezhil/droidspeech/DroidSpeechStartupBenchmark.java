@@ -0,0 +1,122 @@
+package com.vikramezhil.droidspeech;
+
+import android.content.Context;
+import android.os.Debug;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.view.ContextThemeWrapper;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+/**
+ * Droid Speech Startup Benchmark
+ *
+ * Constructs droid speech on the main thread lazily as it is now, and eagerly with the recognition
+ * progress dialog inflated as the constructor used to. The median time and the mean allocations per
+ * construction are logged, run with:
+ * ./gradlew :ds:connectedAndroidTest -Pandroid.testInstrumentationRunnerArguments.class=com.vikramezhil.droidspeech.DroidSpeechStartupBenchmark
+ * and read with: adb logcat -s DroidSpeechStartup
+ *
+ * @author Vikram Ezhil
+ */
+
+@RunWith(AndroidJUnit4.class)
+public class DroidSpeechStartupBenchmark
+{
+    private static final String TAG = "DroidSpeechStartup";
+
+    private static final int WARMUP_RUNS = 10;
+    private static final int MEASURED_RUNS = 50;
+
+    @Test
+    public void constructor()
+    {
+        // Themed as an activity context, the dialog layout resolves its styles from the theme
+        final Context context = new ContextThemeWrapper(InstrumentationRegistry.getTargetContext(),
+                android.R.style.Theme_DeviceDefault_Light);
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+
+                // Warming up both paths, so the class loading and the first layout parsing aren't measured
+                for(int i = 0; i < WARMUP_RUNS; i++)
+                {
+                    construct(context, false).closeDroidSpeechOperations();
+                    construct(context, true).closeDroidSpeechOperations();
+                }
+
+                measure(context, false);
+                measure(context, true);
+            }
+        });
+    }
+
+    /**
+     * Measures the construction, the allocations are counted in separate runs so the counting
+     * doesn't add to the measured time. Closing droid speech after each run isn't measured
+     *
+     * @param context The context instance
+     *
+     * @param eager The recognition progress dialog inflation status
+     */
+    @SuppressWarnings("deprecation")
+    private static void measure(Context context, boolean eager)
+    {
+        long[] times = new long[MEASURED_RUNS];
+        for(int i = 0; i < MEASURED_RUNS; i++)
+        {
+            long startTime = System.nanoTime();
+            DroidSpeech droidSpeech = construct(context, eager);
+            times[i] = System.nanoTime() - startTime;
+
+            droidSpeech.closeDroidSpeechOperations();
+        }
+
+        Arrays.sort(times);
+
+        long allocCount = 0;
+        long allocSize = 0;
+        for(int i = 0; i < MEASURED_RUNS; i++)
+        {
+            Debug.resetThreadAllocCount();
+            Debug.resetThreadAllocSize();
+            Debug.startAllocCounting();
+
+            DroidSpeech droidSpeech = construct(context, eager);
+
+            Debug.stopAllocCounting();
+            allocCount += Debug.getThreadAllocCount();
+            allocSize += Debug.getThreadAllocSize();
+
+            droidSpeech.closeDroidSpeechOperations();
+        }
+
+        Log.i(TAG, (eager ? "eager" : "lazy") + ": " + times[MEASURED_RUNS / 2] + " ns/op, "
+                + allocCount / MEASURED_RUNS + " allocations/op, " + allocSize / MEASURED_RUNS + " B/op");
+    }
+
+    /**
+     * Constructs droid speech, inflating the recognition progress dialog if eager
+     *
+     * @param context The context instance
+     *
+     * @param eager The recognition progress dialog inflation status
+     *
+     * @return The droid speech instance
+     */
+    private static DroidSpeech construct(Context context, boolean eager)
+    {
+        DroidSpeech droidSpeech = new DroidSpeech(context, null);
+        if(eager)
+        {
+            droidSpeech.initRecognitionProgressView();
+        }
+
+        return droidSpeech;
+    }
+}
@@ -16,8 +16,15 @@ class AnimatorBarRms implements OnBarParamsAnimListener
     private static final float QUIT_RMSDB_MAX = 2f;
     private static final float MEDIUM_RMSDB_MAX = 5.5f;
 
-    private static final long BAR_ANIMATION_UP_DURATION = 130;
-    private static final long BAR_ANIMATION_DOWN_DURATION = 500;
+    // Durations in nanoseconds, the animation runs on the droid speech clock
+    private static final long BAR_ANIMATION_UP_DURATION = 130 * Clocks.NANOS_PER_MILLI;
+    private static final long BAR_ANIMATION_DOWN_DURATION = 500 * Clocks.NANOS_PER_MILLI;
+
+    // Shared across the bars, the interpolators are stateless and the random is only used on the main thread
+    private static final Random RANDOM = new Random();
+    private static final AccelerateInterpolator UP_INTERPOLATOR = new AccelerateInterpolator();
+    private static final DecelerateInterpolator DOWN_INTERPOLATOR = new DecelerateInterpolator();
+
     final private RecognitionBarView bar;
     private float fromHeightPart;
     private float toHeightPart;
@@ -58,10 +65,10 @@ class AnimatorBarRms implements OnBarParamsAnimListener
         if (rmsdB < QUIT_RMSDB_MAX) {
             newHeightPart = 0.2f;
         } else if (rmsdB >= QUIT_RMSDB_MAX && rmsdB <= MEDIUM_RMSDB_MAX) {
-            newHeightPart = 0.3f + new Random().nextFloat();
+            newHeightPart = 0.3f + RANDOM.nextFloat();
             if (newHeightPart > 0.6f) newHeightPart = 0.6f;
         } else {
-            newHeightPart = 0.7f + new Random().nextFloat();
+            newHeightPart = 0.7f + RANDOM.nextFloat();
             if (newHeightPart > 1f) newHeightPart = 1f;
 
         }
@@ -73,7 +80,7 @@ class AnimatorBarRms implements OnBarParamsAnimListener
         fromHeightPart = (float) bar.getHeight() / bar.getMaxHeight();
         toHeightPart = newHeightPart;
 
-        startTimestamp = System.currentTimeMillis();
+        startTimestamp = Clocks.nanoTime();
         isUpAnimation = true;
         isPlaying = true;
     }
@@ -85,7 +92,7 @@ class AnimatorBarRms implements OnBarParamsAnimListener
 
     private void update()
     {
-        long currTimestamp = System.currentTimeMillis();
+        long currTimestamp = Clocks.nanoTime();
         long delta = currTimestamp - startTimestamp;
 
         if (isUpAnimation) {
@@ -103,8 +110,7 @@ class AnimatorBarRms implements OnBarParamsAnimListener
 
         float timePart = (float) delta / BAR_ANIMATION_UP_DURATION;
 
-        AccelerateInterpolator interpolator = new AccelerateInterpolator();
-        int height = minHeight + (int) (interpolator.getInterpolation(timePart) * (toHeight - minHeight));
+        int height = minHeight + (int) (UP_INTERPOLATOR.getInterpolation(timePart) * (toHeight - minHeight));
 
         if (height < bar.getHeight()) {
             return;
@@ -120,7 +126,7 @@ class AnimatorBarRms implements OnBarParamsAnimListener
 
         if (finished) {
             isUpAnimation = false;
-            startTimestamp = System.currentTimeMillis();
+            startTimestamp = Clocks.nanoTime();
         }
     }
 
@@ -131,8 +137,7 @@ class AnimatorBarRms implements OnBarParamsAnimListener
 
         float timePart = (float) delta / BAR_ANIMATION_DOWN_DURATION;
 
-        DecelerateInterpolator interpolator = new DecelerateInterpolator();
-        int height = minHeight + (int) ((1f - interpolator.getInterpolation(timePart)) * (fromHeight - minHeight));
+        int height = minHeight + (int) ((1f - DOWN_INTERPOLATOR.getInterpolation(timePart)) * (fromHeight - minHeight));
 
         if (height > bar.getHeight()) {
             return;
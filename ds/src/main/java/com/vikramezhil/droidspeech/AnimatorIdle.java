@@ -10,7 +10,7 @@ import java.util.List;
 
 class AnimatorIdle implements OnBarParamsAnimListener
 {
-    private static final long IDLE_DURATION = 1500;
+    private static final long IDLE_DURATION = 1500 * Clocks.NANOS_PER_MILLI;
 
     private long startTimestamp;
     private boolean isPlaying;
@@ -28,7 +28,7 @@ class AnimatorIdle implements OnBarParamsAnimListener
     public void start()
     {
         isPlaying = true;
-        startTimestamp = System.currentTimeMillis();
+        startTimestamp = Clocks.nanoTime();
     }
 
     @Override
@@ -42,25 +42,27 @@ class AnimatorIdle implements OnBarParamsAnimListener
     {
         if (isPlaying)
         {
+            DroidSpeechTrace.beginSection("DroidSpeech:AnimatorIdle.animate");
             update(bars);
+            DroidSpeechTrace.endSection();
         }
     }
 
     void update(List<RecognitionBarView> bars)
     {
 
-        long currTimestamp = System.currentTimeMillis();
+        long currTimestamp = Clocks.nanoTime();
         if (currTimestamp - startTimestamp > IDLE_DURATION)
         {
             startTimestamp += IDLE_DURATION;
         }
 
         long delta = currTimestamp - startTimestamp;
-        int i = 0;
-        for (RecognitionBarView bar : bars)
+
+        // Indexed loop, no iterator is allocated per frame
+        for (int i = 0; i < bars.size(); i++)
         {
-            updateCirclePosition(bar, delta, i);
-            i++;
+            updateCirclePosition(bars.get(i), delta, i);
         }
     }
 
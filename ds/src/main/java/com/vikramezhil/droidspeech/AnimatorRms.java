@@ -44,17 +44,22 @@ class AnimatorRms implements OnBarParamsAnimListener
     @Override
     public void animate()
     {
-        for(AnimatorBarRms barAnimator : barAnimators)
+        DroidSpeechTrace.beginSection("DroidSpeech:AnimatorRms.animate");
+
+        // Indexed loop, no iterator is allocated per frame
+        for(int i = 0; i < barAnimators.size(); i++)
         {
-            barAnimator.animate();
+            barAnimators.get(i).animate();
         }
+
+        DroidSpeechTrace.endSection();
     }
 
     public void onRmsChanged(float rmsDB)
     {
-        for (AnimatorBarRms barAnimator : barAnimators)
+        for (int i = 0; i < barAnimators.size(); i++)
         {
-            barAnimator.onRmsChanged(rmsDB);
+            barAnimators.get(i).onRmsChanged(rmsDB);
         }
     }
 }
\ No newline at end of file
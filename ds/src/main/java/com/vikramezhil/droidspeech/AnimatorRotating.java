@@ -14,12 +14,14 @@ import java.util.List;
 
 class AnimatorRotating implements OnBarParamsAnimListener
 {
-    private static final long DURATION = 2000;
-    private static final long ACCELERATE_ROTATION_DURATION = 1000;
-    private static final long DECELERATE_ROTATION_DURATION = 1000;
+    private static final long DURATION = 2000 * Clocks.NANOS_PER_MILLI;
+    private static final long ACCELERATE_ROTATION_DURATION = 1000 * Clocks.NANOS_PER_MILLI;
+    private static final long DECELERATE_ROTATION_DURATION = 1000 * Clocks.NANOS_PER_MILLI;
     private static final float ROTATION_DEGREES = 720f;
     private static final float ACCELERATION_ROTATION_DEGREES = 40f;
 
+    private final AccelerateDecelerateInterpolator interpolator = new AccelerateDecelerateInterpolator();
+
     private long startTimestamp;
     private boolean isPlaying;
 
@@ -43,7 +45,7 @@ class AnimatorRotating implements OnBarParamsAnimListener
     public void start()
     {
         isPlaying = true;
-        startTimestamp = System.currentTimeMillis();
+        startTimestamp = Clocks.nanoTime();
     }
 
     @Override
@@ -57,7 +59,9 @@ class AnimatorRotating implements OnBarParamsAnimListener
     {
         if (!isPlaying) return;
 
-        long currTimestamp = System.currentTimeMillis();
+        DroidSpeechTrace.beginSection("DroidSpeech:AnimatorRotating.animate");
+
+        long currTimestamp = Clocks.nanoTime();
         if (currTimestamp - startTimestamp > DURATION) {
             startTimestamp += DURATION;
         }
@@ -68,8 +72,8 @@ class AnimatorRotating implements OnBarParamsAnimListener
 
         float angle = interpolatedTime * ROTATION_DEGREES;
 
-        int i = 0;
-        for (RecognitionBarView bar : bars)
+        // Indexed loop, no iterator is allocated per frame
+        for (int i = 0; i < bars.size(); i++)
         {
             float finalAngle = angle;
             if (i > 0 && delta > ACCELERATE_ROTATION_DURATION)
@@ -80,15 +84,15 @@ class AnimatorRotating implements OnBarParamsAnimListener
             {
                 finalAngle += accelerate(delta, bars.size() - i);
             }
-            rotate(bar, finalAngle, startPositions.get(i));
-            i++;
+            rotate(bars.get(i), finalAngle, startPositions.get(i));
         }
+
+        DroidSpeechTrace.endSection();
     }
 
     private float decelerate(long delta, int scale)
     {
         long accelerationDelta = delta - ACCELERATE_ROTATION_DURATION;
-        AccelerateDecelerateInterpolator interpolator = new AccelerateDecelerateInterpolator();
         float interpolatedTime = interpolator.getInterpolation((float) accelerationDelta / DECELERATE_ROTATION_DURATION);
         float decelerationAngle = -interpolatedTime * (ACCELERATION_ROTATION_DEGREES * scale);
         return ACCELERATION_ROTATION_DEGREES * scale + decelerationAngle;
@@ -96,7 +100,6 @@ class AnimatorRotating implements OnBarParamsAnimListener
 
     private float accelerate(long delta, int scale)
     {
-        AccelerateDecelerateInterpolator interpolator = new AccelerateDecelerateInterpolator();
         float interpolatedTime = interpolator.getInterpolation((float) delta / ACCELERATE_ROTATION_DURATION);
 
         return interpolatedTime * (ACCELERATION_ROTATION_DEGREES * scale);
@@ -109,12 +112,14 @@ class AnimatorRotating implements OnBarParamsAnimListener
     private void rotate(RecognitionBarView bar, double degrees, Point startPosition)
     {
         double angle = Math.toRadians(degrees);
+        double cos = Math.cos(angle);
+        double sin = Math.sin(angle);
 
-        int x = centerX + (int) ((startPosition.x - centerX) * Math.cos(angle) -
-                (startPosition.y - centerY) * Math.sin(angle));
+        int x = centerX + (int) ((startPosition.x - centerX) * cos -
+                (startPosition.y - centerY) * sin);
 
-        int y = centerY + (int) ((startPosition.x - centerX) * Math.sin(angle) +
-                (startPosition.y - centerY) * Math.cos(angle));
+        int y = centerY + (int) ((startPosition.x - centerX) * sin +
+                (startPosition.y - centerY) * cos);
 
         bar.setX(x);
         bar.setY(y);
@@ -13,7 +13,7 @@ import java.util.List;
 
 class AnimatorTransform implements OnBarParamsAnimListener
 {
-    private static final long DURATION = 300;
+    private static final long DURATION = 300 * Clocks.NANOS_PER_MILLI;
 
     private long startTimestamp;
     private boolean isPlaying;
@@ -37,7 +37,7 @@ class AnimatorTransform implements OnBarParamsAnimListener
     public void start()
     {
         isPlaying = true;
-        startTimestamp = System.currentTimeMillis();
+        startTimestamp = Clocks.nanoTime();
         initFinalPositions();
     }
 
@@ -56,19 +56,24 @@ class AnimatorTransform implements OnBarParamsAnimListener
     {
         if (!isPlaying) return;
 
-        long currTimestamp = System.currentTimeMillis();
+        DroidSpeechTrace.beginSection("DroidSpeech:AnimatorTransform.animate");
+
+        long currTimestamp = Clocks.nanoTime();
         long delta = currTimestamp - startTimestamp;
         if (delta > DURATION)
         {
             delta = DURATION;
         }
 
+        float timePart = (float) delta / DURATION;
+
         for (int i = 0; i < bars.size(); i++)
         {
             RecognitionBarView bar = bars.get(i);
+            Point finalPosition = finalPositions.get(i);
 
-            int x = bar.getStartX() + (int) ((finalPositions.get(i).x - bar.getStartX()) * ((float) delta / DURATION));
-            int y = bar.getStartY() + (int) ((finalPositions.get(i).y - bar.getStartY()) * ((float) delta / DURATION));
+            int x = bar.getStartX() + (int) ((finalPosition.x - bar.getStartX()) * timePart);
+            int y = bar.getStartY() + (int) ((finalPosition.y - bar.getStartY()) * timePart);
 
             bar.setX(x);
             bar.setY(y);
@@ -80,6 +85,8 @@ class AnimatorTransform implements OnBarParamsAnimListener
         {
             stop();
         }
+
+        DroidSpeechTrace.endSection();
     }
 
     private void initFinalPositions()
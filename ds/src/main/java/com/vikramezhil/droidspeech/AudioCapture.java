@@ -0,0 +1,318 @@
+package com.vikramezhil.droidspeech;
+
+import android.media.AudioFormat;
+import android.media.AudioRecord;
+import android.media.MediaRecorder;
+import android.os.Process;
+import android.util.Log;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Droid Speech Audio Capture
+ *
+ * Optional capture stage writing raw PCM audio into a preallocated ring buffer, either from the
+ * recognizer's audio buffers or straight from the microphone on a dedicated capture thread
+ *
+ * @author Vikram Ezhil
+ */
+
+class AudioCapture
+{
+    private final String TAG = "AudioCapture";
+
+    private final int frameCount;
+    private AudioCaptureSource source = AudioCaptureSource.NONE;
+    private AudioRingBuffer ringBuffer;
+    private ByteBuffer deliverView;
+    private volatile Thread captureThread;
+    private volatile OnDSAudioListener audioListener;
+
+    // The callback to run once the stopping capture thread released the microphone
+    private Thread releasingThread;
+    private Runnable onReleased;
+
+    AudioCapture()
+    {
+        this(Extensions.CAPTURE_FRAME_COUNT);
+    }
+
+    /**
+     * Audio Capture Constructor
+     *
+     * @param frameCount The number of frames held by the ring buffer
+     */
+    AudioCapture(int frameCount)
+    {
+        this.frameCount = Math.max(1, frameCount);
+    }
+
+    /**
+     * Sets the audio capture source, a running microphone capture is stopped when the source changes
+     *
+     * @param source The audio capture source
+     */
+    void setSource(AudioCaptureSource source)
+    {
+        if(source == null || this.source == source) return;
+
+        stop();
+
+        this.source = source;
+
+        if(source != AudioCaptureSource.NONE && ringBuffer == null)
+        {
+            ringBuffer = new AudioRingBuffer(Extensions.CAPTURE_FRAME_SIZE, frameCount);
+
+            // Reused by the capture thread for every delivered frame
+            deliverView = ringBuffer.newView();
+        }
+    }
+
+    AudioCaptureSource getSource()
+    {
+        return source;
+    }
+
+    AudioRingBuffer getRingBuffer()
+    {
+        return ringBuffer;
+    }
+
+    void setOnDroidSpeechAudioListener(OnDSAudioListener audioListener)
+    {
+        this.audioListener = audioListener;
+    }
+
+    /**
+     * Starts the microphone capture if the source is {@link AudioCaptureSource#AUDIO_RECORD}
+     *
+     * @return True - if the microphone is being captured, False - if otherwise
+     */
+    synchronized boolean start()
+    {
+        if(source != AudioCaptureSource.AUDIO_RECORD) return false;
+        if(captureThread != null) return true;
+
+        final AudioRecord audioRecord;
+
+        try
+        {
+            int minBufferSize = AudioRecord.getMinBufferSize(Extensions.CAPTURE_SAMPLE_RATE, AudioFormat.CHANNEL_IN_MONO, AudioFormat.ENCODING_PCM_16BIT);
+
+            audioRecord = new AudioRecord(MediaRecorder.AudioSource.VOICE_RECOGNITION, Extensions.CAPTURE_SAMPLE_RATE,
+                    AudioFormat.CHANNEL_IN_MONO, AudioFormat.ENCODING_PCM_16BIT, Math.max(minBufferSize, Extensions.CAPTURE_FRAME_SIZE * 4));
+        }
+        catch (Exception e)
+        {
+            Log.e(TAG, "Unable to create the audio capture", e);
+
+            return false;
+        }
+
+        try
+        {
+            if(audioRecord.getState() != AudioRecord.STATE_INITIALIZED)
+            {
+                releaseAudioRecord(audioRecord);
+
+                return false;
+            }
+
+            audioRecord.startRecording();
+        }
+        catch (Exception e)
+        {
+            Log.e(TAG, "Unable to start the audio capture", e);
+
+            releaseAudioRecord(audioRecord);
+
+            return false;
+        }
+
+        // The capture thread owns the audio record from here on and releases it however it exits
+        captureThread = new Thread(new Runnable() {
+
+            @Override
+            public void run()
+            {
+                capture(audioRecord);
+            }
+
+        }, TAG);
+
+        captureThread.start();
+
+        return true;
+    }
+
+    /**
+     * Stops the microphone capture if running, waiting for the capture thread to release the microphone
+     */
+    void stop()
+    {
+        Thread thread;
+
+        synchronized (this)
+        {
+            thread = captureThread;
+            captureThread = null;
+        }
+
+        if(thread == null) return;
+
+        try
+        {
+            // A read blocks for at most a frame, so the capture thread exits quickly
+            thread.join(Extensions.CAPTURE_STOP_TIMEOUT);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops the microphone capture if running without waiting for the capture thread
+     *
+     * @param onReleased Run once the microphone is released, on the capture thread (or right away if
+     * the microphone isn't held), can be null
+     */
+    void stop(Runnable onReleased)
+    {
+        synchronized (this)
+        {
+            Thread thread = captureThread;
+            captureThread = null;
+
+            if(thread != null)
+            {
+                releasingThread = thread;
+                this.onReleased = onReleased;
+
+                return;
+            }
+        }
+
+        if(onReleased != null)
+        {
+            onReleased.run();
+        }
+    }
+
+    /**
+     * Checks if the microphone is being captured
+     *
+     * @return The capturing status
+     */
+    boolean isCapturing()
+    {
+        return captureThread != null;
+    }
+
+    /**
+     * Captures an audio buffer handed out by the speech recognizer
+     *
+     * @param buffer The audio buffer
+     */
+    void onBufferReceived(byte[] buffer)
+    {
+        if(source != AudioCaptureSource.RECOGNIZER_BUFFER || buffer == null) return;
+
+        long position = ringBuffer.getWritePosition();
+        ringBuffer.write(buffer, 0, buffer.length);
+
+        deliver(position, Math.min(buffer.length, ringBuffer.getCapacity()));
+    }
+
+    /**
+     * Captures the microphone until stopped (or the read fails), runs on the capture thread
+     *
+     * @param audioRecord The recording audio record, released on exit
+     */
+    private void capture(AudioRecord audioRecord)
+    {
+        Thread currentThread = Thread.currentThread();
+
+        try
+        {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_URGENT_AUDIO);
+
+            while(captureThread == currentThread)
+            {
+                ByteBuffer frame = ringBuffer.nextFrame();
+                long position = ringBuffer.getWritePosition();
+
+                int read = audioRecord.read(frame, Extensions.CAPTURE_FRAME_SIZE);
+                if(read < 0)
+                {
+                    Log.e(TAG, "Audio capture read failed, code = " + read);
+
+                    break;
+                }
+
+                ringBuffer.commitFrame(read);
+
+                deliver(position, read);
+            }
+        }
+        finally
+        {
+            releaseAudioRecord(audioRecord);
+
+            Runnable onReleased = null;
+
+            synchronized (this)
+            {
+                // Not capturing any more, unless a new capture was already started
+                if(captureThread == currentThread)
+                {
+                    captureThread = null;
+                }
+
+                if(releasingThread == currentThread)
+                {
+                    onReleased = this.onReleased;
+                    releasingThread = null;
+                    this.onReleased = null;
+                }
+            }
+
+            if(onReleased != null)
+            {
+                onReleased.run();
+            }
+        }
+    }
+
+    private void deliver(long position, int length)
+    {
+        OnDSAudioListener audioListener = this.audioListener;
+        if(audioListener == null) return;
+
+        long end = position + length;
+
+        while(position < end)
+        {
+            if(!ringBuffer.view(position, (int) (end - position), deliverView) || !deliverView.hasRemaining()) return;
+
+            int remaining = deliverView.remaining();
+            audioListener.onDroidSpeechAudio(deliverView, position);
+            position += remaining;
+        }
+    }
+
+    private void releaseAudioRecord(AudioRecord audioRecord)
+    {
+        try
+        {
+            audioRecord.stop();
+        }
+        catch (IllegalStateException e)
+        {
+            // Not recording, nothing to stop
+        }
+
+        audioRecord.release();
+    }
+}
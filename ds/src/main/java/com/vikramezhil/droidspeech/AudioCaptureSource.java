@@ -0,0 +1,30 @@
+package com.vikramezhil.droidspeech;
+
+/**
+ * Droid Speech Audio Capture Source
+ *
+ * @author Vikram Ezhil
+ */
+
+public enum AudioCaptureSource
+{
+    /**
+     * No audio is captured
+     */
+    NONE,
+
+    /**
+     * The audio buffers the speech recognizer hands out through onBufferReceived are captured
+     *
+     * NOTE: Not every recognition service delivers its audio buffers
+     */
+    RECOGNIZER_BUFFER,
+
+    /**
+     * The microphone is recorded directly at 16 kHz, 16 bit mono PCM
+     *
+     * NOTE: Most devices don't allow the microphone to be shared with the speech recognizer, use this
+     * with engines that take their audio from droid speech
+     */
+    AUDIO_RECORD
+}
@@ -0,0 +1,22 @@
+package com.vikramezhil.droidspeech;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Droid Speech Audio Input Engine
+ *
+ * A speech engine which also accepts audio from droid speech, such as the pre-roll audio captured
+ * while the engine was restarting
+ *
+ * @author Vikram Ezhil
+ */
+
+public interface AudioInputEngine extends SpeechEngine
+{
+    /**
+     * Writes audio into the current session, called after the session was started
+     *
+     * @param audio The read only view of 16 kHz, 16 bit mono PCM audio, valid only during the call
+     */
+    void writeAudio(ByteBuffer audio);
+}
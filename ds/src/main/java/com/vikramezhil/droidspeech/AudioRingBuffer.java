@@ -0,0 +1,286 @@
+package com.vikramezhil.droidspeech;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Droid Speech Audio Ring Buffer
+ *
+ * Fixed size ring of raw PCM audio backed by a single direct byte buffer, allocated once so the
+ * writes and the reads never allocate per frame
+ *
+ * NOTE: There must be a single writer. A view shares the ring memory, so its audio is only valid until
+ * the writer wraps around to it, use {@link #read(long, ByteBuffer)} for a checked copy
+ *
+ * @author Vikram Ezhil
+ */
+
+public class AudioRingBuffer
+{
+    private final ByteBuffer buffer;
+    private final ByteBuffer writeView;
+    private final ByteBuffer readView;
+    private final ByteBuffer[] frames;
+    private final int frameSize;
+    private final int capacity;
+    private volatile long writePosition;
+
+    // The end of the region being written, published before the write so readers can tell what it overwrites
+    private volatile long writeLimit;
+
+    /**
+     * Audio Ring Buffer Constructor
+     *
+     * @param frameSize The frame size in bytes
+     *
+     * @param frameCount The number of frames held by the ring
+     */
+    AudioRingBuffer(int frameSize, int frameCount)
+    {
+        this.frameSize = frameSize;
+        this.capacity = frameSize * frameCount;
+
+        buffer = ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+        writeView = buffer.duplicate();
+        readView = newView();
+
+        // Pre slicing the frames so the capture stage can read straight into the ring
+        frames = new ByteBuffer[frameCount];
+        for(int i = 0; i < frameCount; i++)
+        {
+            ByteBuffer frame = buffer.duplicate();
+            frame.position(i * frameSize);
+            frame.limit((i + 1) * frameSize);
+            frames[i] = frame.slice().order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /**
+     * Writes audio into the ring, overwriting the oldest audio when full
+     *
+     * @param data The audio data
+     *
+     * @param offset The offset in the audio data
+     *
+     * @param length The number of bytes to write
+     */
+    void write(byte[] data, int offset, int length)
+    {
+        long position = writePosition;
+
+        if(length > capacity)
+        {
+            // Only the newest audio fits, skipping the rest
+            position += length - capacity;
+            offset += length - capacity;
+            length = capacity;
+        }
+
+        writeLimit = position + length;
+
+        int start = (int) (position % capacity);
+        int first = Math.min(length, capacity - start);
+
+        writeView.clear();
+        writeView.position(start);
+        writeView.put(data, offset, first);
+
+        if(first < length)
+        {
+            writeView.position(0);
+            writeView.put(data, offset + first, length - first);
+        }
+
+        writePosition = position + length;
+    }
+
+    /**
+     * Gets the frame the next frame aligned write goes to, audio can be read straight into it
+     *
+     * NOTE: {@link #commitFrame(int)} must be called once the frame is filled
+     *
+     * @return The frame buffer
+     */
+    ByteBuffer nextFrame()
+    {
+        int misalignment = (int) (writePosition % frameSize);
+
+        // The frame (and the padding before it) is written from now on
+        writeLimit = writePosition + (misalignment == 0 ? frameSize : 2 * frameSize - misalignment);
+
+        if(misalignment != 0)
+        {
+            // Byte writes left the ring unaligned, padding up to the next frame with silence
+            ByteBuffer frame = frames[frameIndex()];
+            for(int i = misalignment; i < frameSize; i++)
+            {
+                frame.put(i, (byte) 0);
+            }
+
+            writePosition += frameSize - misalignment;
+        }
+
+        ByteBuffer frame = frames[frameIndex()];
+        frame.clear();
+
+        return frame;
+    }
+
+    /**
+     * Commits the frame filled through {@link #nextFrame()}
+     *
+     * @param length The number of bytes written into the frame
+     */
+    void commitFrame(int length)
+    {
+        // Keeping the writes frame aligned, the rest of a short frame is filled with silence
+        ByteBuffer frame = frames[frameIndex()];
+        for(int i = Math.max(0, length); i < frameSize; i++)
+        {
+            frame.put(i, (byte) 0);
+        }
+
+        writePosition += frameSize;
+    }
+
+    private int frameIndex()
+    {
+        return (int) ((writePosition % capacity) / frameSize);
+    }
+
+    /**
+     * Creates a read only view of the ring, positioned on a region with {@link #view(long, int, ByteBuffer)}
+     *
+     * NOTE: A consumer should create its view once and reuse it for every frame, a view must not be
+     * shared between threads
+     *
+     * @return The read only view, sharing the ring memory
+     */
+    public ByteBuffer newView()
+    {
+        return buffer.asReadOnlyBuffer().order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Positions the view on a contiguous region of the ring
+     *
+     * NOTE: The audio is overwritten once the writer wraps around, check {@link #isIntact(long)} after
+     * using the view from another thread. A region crossing the end of the ring is cut at the end, read
+     * the remainder with a second call
+     *
+     * @param position The absolute position to read from
+     *
+     * @param length The number of bytes wanted
+     *
+     * @param view The view created with {@link #newView()}
+     *
+     * @return True - the view is positioned on the region, False - the audio at the position was already
+     * overwritten (the view is left unchanged then)
+     */
+    public boolean view(long position, int length, ByteBuffer view)
+    {
+        long writePosition = this.writePosition;
+        if(position < writePosition - capacity || position > writePosition) return false;
+
+        length = (int) Math.min(length, writePosition - position);
+
+        int start = (int) (position % capacity);
+
+        view.clear();
+        view.position(start);
+        view.limit(start + Math.min(length, capacity - start));
+
+        return true;
+    }
+
+    /**
+     * Copies audio out of the ring, checking the writer didn't overwrite it during the copy
+     *
+     * @param position The absolute position to read from
+     *
+     * @param destination The destination buffer, filled up to its remaining space
+     *
+     * @return The number of bytes copied, -1 if the audio at the position was overwritten (the destination
+     * position is left unchanged then)
+     */
+    public int read(long position, ByteBuffer destination)
+    {
+        int start = destination.position();
+        int copied = 0;
+
+        // Copying through the one reused view, readers on other threads wait for it
+        synchronized(readView)
+        {
+            while(destination.hasRemaining())
+            {
+                if(!view(position + copied, destination.remaining(), readView)) break;
+                if(!readView.hasRemaining()) break;
+
+                copied += readView.remaining();
+                destination.put(readView);
+            }
+        }
+
+        if(copied == 0 || !isIntact(position))
+        {
+            destination.position(start);
+
+            return copied == 0 && isIntact(position) ? 0 : -1;
+        }
+
+        return copied;
+    }
+
+    /**
+     * Checks if the audio from the position on is still held by the ring, i.e. neither overwritten
+     * nor being overwritten by the writer
+     *
+     * @param position The absolute position
+     *
+     * @return True - if the audio is intact, False - if otherwise
+     */
+    public boolean isIntact(long position)
+    {
+        return position >= Math.max(writeLimit, writePosition) - capacity;
+    }
+
+    /**
+     * Gets the absolute write position, the total number of bytes written to the ring
+     *
+     * @return The write position
+     */
+    public long getWritePosition()
+    {
+        return writePosition;
+    }
+
+    /**
+     * Gets the oldest absolute position still held by the ring
+     *
+     * @return The oldest readable position
+     */
+    public long getOldestPosition()
+    {
+        return Math.max(0, writePosition - capacity);
+    }
+
+    /**
+     * Gets the ring capacity
+     *
+     * @return The capacity in bytes
+     */
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * Gets the frame size
+     *
+     * @return The frame size in bytes
+     */
+    public int getFrameSize()
+    {
+        return frameSize;
+    }
+}
@@ -0,0 +1,123 @@
+package com.vikramezhil.droidspeech;
+
+import java.util.Random;
+
+/**
+ * Droid Speech Backoff Restart Policy
+ *
+ * Restart policy with an exponential, jittered backoff between consecutive restarts without speech
+ *
+ * @author Vikram Ezhil
+ */
+
+public class BackoffRestartPolicy implements RestartPolicy
+{
+    private final Random random = new Random();
+
+    private long initialDelay = Extensions.MAX_PAUSE_TIME;
+    private long maxDelay = Extensions.MAX_RESTART_DELAY;
+    private float multiplier = 2f;
+    private float jitter = 0.2f;
+    private long idleCeiling = 0;
+    private int attempts = 0;
+
+    @Override
+    public long getRestartDelay(int error, long idleTime)
+    {
+        if(idleCeiling > 0 && idleTime > idleCeiling)
+        {
+            return NO_RESTART;
+        }
+
+        double delay = initialDelay * Math.pow(multiplier, attempts);
+        if(delay > maxDelay)
+        {
+            delay = maxDelay;
+        }
+        else
+        {
+            attempts++;
+        }
+
+        if(jitter > 0)
+        {
+            // Spreading the delay by +/- jitter so restarts of several instances don't line up
+            delay += delay * jitter * (2 * random.nextFloat() - 1);
+        }
+
+        return Math.max(0, Math.round(delay));
+    }
+
+    @Override
+    public void onSpeechDetected()
+    {
+        attempts = 0;
+    }
+
+    @Override
+    public void reset()
+    {
+        attempts = 0;
+    }
+
+    /**
+     * Sets the delay of the first restart
+     *
+     * NOTE: Default is 500 milliseconds
+     *
+     * @param initialDelay The initial delay in milliseconds
+     */
+    public void setInitialDelay(long initialDelay)
+    {
+        this.initialDelay = Math.max(0, initialDelay);
+    }
+
+    /**
+     * Sets the maximum delay between restarts
+     *
+     * NOTE: Default is 8000 milliseconds
+     *
+     * @param maxDelay The maximum delay in milliseconds
+     */
+    public void setMaxDelay(long maxDelay)
+    {
+        this.maxDelay = Math.max(0, maxDelay);
+    }
+
+    /**
+     * Sets the factor the delay grows by after each restart without speech
+     *
+     * NOTE: Default is 2, a factor of 1 gives a fixed delay
+     *
+     * @param multiplier The backoff multiplier
+     */
+    public void setMultiplier(float multiplier)
+    {
+        this.multiplier = Math.max(1f, multiplier);
+    }
+
+    /**
+     * Sets the jitter applied to each delay
+     *
+     * NOTE: Default is 0.2 (+/- 20%), should be between 0 and 1
+     *
+     * @param jitter The jitter fraction
+     */
+    public void setJitter(float jitter)
+    {
+        this.jitter = Math.min(1f, Math.max(0f, jitter));
+    }
+
+    /**
+     * Sets the idle ceiling, restarts are suppressed once no speech was detected for longer than it
+     *
+     * NOTE: Default is 0 (disabled), when a restart is suppressed the session state becomes idle
+     * and recognition has to be started again
+     *
+     * @param idleCeiling The idle ceiling in milliseconds
+     */
+    public void setIdleCeiling(long idleCeiling)
+    {
+        this.idleCeiling = Math.max(0, idleCeiling);
+    }
+}
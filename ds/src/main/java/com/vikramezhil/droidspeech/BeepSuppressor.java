@@ -0,0 +1,236 @@
+package com.vikramezhil.droidspeech;
+
+import android.annotation.TargetApi;
+import android.media.AudioAttributes;
+import android.media.AudioFocusRequest;
+import android.media.AudioManager;
+import android.os.Build;
+import android.util.Log;
+
+/**
+ * Droid Speech Beep Suppressor
+ *
+ * Suppresses the recognizer beep between the continuous recognition restarts, tracking the state it
+ * applied so the audio manager is only called for real mute / un mute transitions and the user's
+ * original state is restored exactly once
+ *
+ * @author Vikram Ezhil
+ */
+
+class BeepSuppressor implements AudioManager.OnAudioFocusChangeListener
+{
+    private static final String TAG = "BeepSuppressor";
+
+    private AudioManager audioManager;
+    private AudioFocusRequest audioFocusRequest;
+    private boolean audioFocusEnabled = false;
+    private boolean suppressed = false;
+    private boolean applied = false;
+    private Boolean userMuted;
+    private int avoidedCalls;
+
+    /**
+     * Sets the audio manager the beep is suppressed with
+     *
+     * @param audioManager The audio manager
+     */
+    void setAudioManager(AudioManager audioManager)
+    {
+        if(this.audioManager == audioManager) return;
+
+        // Restoring with the audio manager the suppression was applied with
+        release();
+
+        this.audioManager = audioManager;
+    }
+
+    /**
+     * Sets the audio focus status, the other players are asked to pause instead of muting the music stream
+     *
+     * NOTE: Default is false
+     *
+     * @param audioFocusEnabled True - audio focus is requested, False - the music stream is muted
+     */
+    void setAudioFocusEnabled(boolean audioFocusEnabled)
+    {
+        if(this.audioFocusEnabled == audioFocusEnabled) return;
+
+        restore();
+
+        this.audioFocusEnabled = audioFocusEnabled;
+    }
+
+    /**
+     * Suppresses the beep, nothing is called if it is already suppressed
+     */
+    void suppress()
+    {
+        // Nothing would be called without an audio manager, so nothing is avoided either
+        if(audioManager == null) return;
+
+        if(suppressed)
+        {
+            avoidedCalls++;
+            return;
+        }
+
+        suppressed = true;
+
+        try
+        {
+            if(audioFocusEnabled)
+            {
+                applied = requestAudioFocus() == AudioManager.AUDIOFOCUS_REQUEST_GRANTED;
+            }
+            else if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.M)
+            {
+                if(userMuted == null)
+                {
+                    // Reading the user's stream state once until released, the restarts reuse it
+                    userMuted = audioManager.isStreamMute(AudioManager.STREAM_MUSIC);
+                }
+
+                // Leaving the stream alone if the user had already muted it, so it is not un muted on restore
+                if(userMuted) return;
+
+                audioManager.adjustStreamVolume(AudioManager.STREAM_MUSIC, AudioManager.ADJUST_MUTE, 0);
+                applied = true;
+            }
+            else
+            {
+                // The stream mute is reference counted per process below M, so it is only applied once
+                setStreamMute(true);
+                applied = true;
+            }
+        }
+        catch (Exception e)
+        {
+            // Muting can be refused (e.g. in do not disturb mode), there is nothing to restore then
+            applied = false;
+        }
+    }
+
+    /**
+     * Restores the state the beep was suppressed from, nothing is called if it wasn't suppressed
+     */
+    void restore()
+    {
+        if(audioManager == null) return;
+
+        if(!suppressed)
+        {
+            avoidedCalls++;
+            return;
+        }
+
+        suppressed = false;
+
+        if(!applied) return;
+
+        applied = false;
+
+        try
+        {
+            if(audioFocusEnabled)
+            {
+                abandonAudioFocus();
+            }
+            else if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.M)
+            {
+                audioManager.adjustStreamVolume(AudioManager.STREAM_MUSIC, AudioManager.ADJUST_UNMUTE, 0);
+            }
+            else
+            {
+                setStreamMute(false);
+            }
+        }
+        catch (Exception e)
+        {
+            Log.w(TAG, "Unable to restore the beep suppression", e);
+        }
+    }
+
+    /**
+     * Restores the suppressed state and forgets the user's stream state, read again on the next suppression
+     */
+    void release()
+    {
+        restore();
+
+        userMuted = null;
+    }
+
+    /**
+     * Gets the number of audio manager calls avoided as the requested state was already applied
+     *
+     * @return The avoided calls
+     */
+    int getAvoidedCalls()
+    {
+        return avoidedCalls;
+    }
+
+    private int requestAudioFocus()
+    {
+        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.O)
+        {
+            return audioManager.requestAudioFocus(getAudioFocusRequest());
+        }
+
+        return requestAudioFocusLegacy();
+    }
+
+    private void abandonAudioFocus()
+    {
+        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.O)
+        {
+            audioManager.abandonAudioFocusRequest(getAudioFocusRequest());
+        }
+        else
+        {
+            abandonAudioFocusLegacy();
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.O)
+    private AudioFocusRequest getAudioFocusRequest()
+    {
+        if(audioFocusRequest == null)
+        {
+            // Built once, abandoning the focus needs the same request it was granted with
+            audioFocusRequest = new AudioFocusRequest.Builder(AudioManager.AUDIOFOCUS_GAIN_TRANSIENT)
+                    .setAudioAttributes(new AudioAttributes.Builder()
+                            .setUsage(AudioAttributes.USAGE_ASSISTANT)
+                            .setContentType(AudioAttributes.CONTENT_TYPE_SPEECH)
+                            .build())
+                    .setOnAudioFocusChangeListener(this)
+                    .build();
+        }
+
+        return audioFocusRequest;
+    }
+
+    @SuppressWarnings("deprecation")
+    private int requestAudioFocusLegacy()
+    {
+        return audioManager.requestAudioFocus(this, AudioManager.STREAM_MUSIC, AudioManager.AUDIOFOCUS_GAIN_TRANSIENT);
+    }
+
+    @SuppressWarnings("deprecation")
+    private void abandonAudioFocusLegacy()
+    {
+        audioManager.abandonAudioFocus(this);
+    }
+
+    @SuppressWarnings("deprecation")
+    private void setStreamMute(boolean mute)
+    {
+        audioManager.setStreamMute(AudioManager.STREAM_MUSIC, mute);
+    }
+
+    @Override
+    public void onAudioFocusChange(int focusChange)
+    {
+        // The focus is only held to keep the other players quiet during the restart, losing it early is fine
+    }
+}
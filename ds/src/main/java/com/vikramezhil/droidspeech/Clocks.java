@@ -0,0 +1,102 @@
+package com.vikramezhil.droidspeech;
+
+import android.os.Handler;
+import android.os.Looper;
+
+/**
+ * Droid Speech Clocks
+ *
+ * Holds the process wide droid speech clock, System.nanoTime() unless replaced, and the scheduler
+ * the delayed work runs on, the main looper unless the clock schedules it as well
+ *
+ * @author Vikram Ezhil
+ */
+
+final class Clocks
+{
+    final static long NANOS_PER_MILLI = 1000000L;
+
+    final static DroidSpeechClock SYSTEM = new DroidSpeechClock() {
+        @Override
+        public long nanoTime() {
+
+            return System.nanoTime();
+        }
+    };
+
+    private static volatile DroidSpeechClock clock = SYSTEM;
+    private static volatile DroidSpeechScheduler scheduler;
+
+    private Clocks()
+    {
+    }
+
+    /**
+     * Sets the droid speech clock
+     *
+     * @param droidSpeechClock The clock, null restores the system clock
+     */
+    static void setClock(DroidSpeechClock droidSpeechClock)
+    {
+        clock = droidSpeechClock == null ? SYSTEM : droidSpeechClock;
+
+        // A clock which can schedule (e.g. the virtual clock) also runs the delayed work, so it
+        // follows the clock time
+        scheduler = droidSpeechClock instanceof DroidSpeechScheduler ? (DroidSpeechScheduler) droidSpeechClock : null;
+    }
+
+    /**
+     * Gets the droid speech scheduler
+     *
+     * @return The scheduler
+     */
+    static DroidSpeechScheduler scheduler()
+    {
+        DroidSpeechScheduler droidSpeechScheduler = scheduler;
+
+        return droidSpeechScheduler == null ? MainScheduler.INSTANCE : droidSpeechScheduler;
+    }
+
+    /**
+     * Gets the monotonic time
+     *
+     * @return The time in nanoseconds
+     */
+    static long nanoTime()
+    {
+        return clock.nanoTime();
+    }
+
+    /**
+     * Gets the monotonic time
+     *
+     * @return The time in milliseconds
+     */
+    static long millis()
+    {
+        return clock.nanoTime() / NANOS_PER_MILLI;
+    }
+
+    /**
+     * The default scheduler, posting to the main looper
+     */
+    private static class MainScheduler implements DroidSpeechScheduler
+    {
+        // Created on first use, the clock alone doesn't need a looper
+        private static final MainScheduler INSTANCE = new MainScheduler();
+
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void schedule(Runnable runnable, long delayMillis)
+        {
+            handler.postDelayed(runnable, delayMillis);
+        }
+
+        @Override
+        public void cancel(Runnable runnable)
+        {
+            handler.removeCallbacks(runnable);
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.vikramezhil.droidspeech;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Droid Speech Command Grammar
+ *
+ * Compiles the registered command phrases into a token trie, a phrase token is either a word or a
+ * slot written as {name} capturing one or more words. A hypothesis is walked through the trie once,
+ * following every slot and word branch in step, so the matching cost depends on the hypothesis
+ * length rather than on the number of commands
+ *
+ * @author Vikram Ezhil
+ */
+
+class CommandGrammar
+{
+    private static final int NO_COMMAND = -1;
+    private static final int MANY_COMMANDS = -2;
+
+    private Node root = new Node();
+    private final List<Command> commands = new ArrayList<>();
+    private int maxSlots;
+
+    private final ArrayList<String> words = new ArrayList<>();
+    private final ArrayList<Integer> wordStarts = new ArrayList<>();
+    private final ArrayList<Integer> wordEnds = new ArrayList<>();
+    private ArrayList<Path> paths = new ArrayList<>();
+    private ArrayList<Path> nextPaths = new ArrayList<>();
+
+    /**
+     * A trie node, reached by a word or by the slot branch of its parent
+     */
+    private static class Node
+    {
+        private final HashMap<String, Node> children = new HashMap<>();
+        private Node slot;
+        private int command = -1;
+
+        // The only command reachable from this node, NO_COMMAND or MANY_COMMANDS otherwise
+        private int reachable = NO_COMMAND;
+
+        private boolean isLeaf()
+        {
+            return children.isEmpty() && slot == null;
+        }
+    }
+
+    /**
+     * A registered command
+     */
+    private static class Command
+    {
+        private final String id;
+        private final String phrase;
+        private final List<String> slotNames;
+
+        private Command(String id, String phrase, List<String> slotNames)
+        {
+            this.id = id;
+            this.phrase = phrase;
+            this.slotNames = slotNames;
+        }
+    }
+
+    /**
+     * A partial walk through the trie with the word ranges captured by its slots so far
+     */
+    private static class Path
+    {
+        private final Node node;
+        private final boolean inSlot;
+        private final int[] slotStarts;
+        private final int[] slotEnds;
+        private final int slotCount;
+
+        private Path(Node node, boolean inSlot, int[] slotStarts, int[] slotEnds, int slotCount)
+        {
+            this.node = node;
+            this.inSlot = inSlot;
+            this.slotStarts = slotStarts;
+            this.slotEnds = slotEnds;
+            this.slotCount = slotCount;
+        }
+
+        private int getSlotWords()
+        {
+            int slotWords = 0;
+            for(int i = 0; i < slotCount; i++)
+            {
+                slotWords += slotEnds[i] - slotStarts[i];
+            }
+
+            return slotWords;
+        }
+    }
+
+    /**
+     * Adds a command to the grammar
+     *
+     * @param id The command id
+     *
+     * @param phrase The command phrase, e.g. "call {name} on speaker"
+     *
+     * @throws IllegalArgumentException If the phrase has no words, or two slots follow each other
+     */
+    void add(String id, String phrase)
+    {
+        if(id == null || phrase == null) throw new IllegalArgumentException("Command id and phrase can't be null");
+
+        // Parsing the phrase before touching the trie, slots are kept as null words
+        List<String> tokens = new ArrayList<>();
+        List<String> slotNames = new ArrayList<>();
+        for(String token : phrase.trim().split("\\s+"))
+        {
+            if(token.length() > 2 && token.startsWith("{") && token.endsWith("}"))
+            {
+                // Adjacent slots can't be told apart in the speech
+                if(!tokens.isEmpty() && tokens.get(tokens.size() - 1) == null)
+                {
+                    throw new IllegalArgumentException("Adjacent slots in command phrase: " + phrase);
+                }
+
+                tokens.add(null);
+                slotNames.add(token.substring(1, token.length() - 1));
+            }
+            else
+            {
+                String word = SpeechTokenizer.normalize(token);
+                if(!word.isEmpty())
+                {
+                    tokens.add(word);
+                }
+            }
+        }
+
+        if(tokens.isEmpty()) throw new IllegalArgumentException("Command phrase has no words: " + phrase);
+
+        List<Node> nodes = new ArrayList<>(tokens.size() + 1);
+        Node node = root;
+        nodes.add(node);
+        for(String token : tokens)
+        {
+            Node next = token == null ? node.slot : node.children.get(token);
+            if(next == null)
+            {
+                next = new Node();
+                if(token == null)
+                {
+                    node.slot = next;
+                }
+                else
+                {
+                    node.children.put(token, next);
+                }
+            }
+
+            node = next;
+            nodes.add(node);
+        }
+
+        // Keeping the first of duplicate phrases
+        if(node.command >= 0) return;
+
+        int command = commands.size();
+        node.command = command;
+        commands.add(new Command(id, phrase, slotNames));
+        maxSlots = Math.max(maxSlots, slotNames.size());
+
+        for(Node pathNode : nodes)
+        {
+            pathNode.reachable = pathNode.reachable == NO_COMMAND ? command : MANY_COMMANDS;
+        }
+    }
+
+    /**
+     * Removes all the commands
+     */
+    void clear()
+    {
+        root = new Node();
+        commands.clear();
+        maxSlots = 0;
+    }
+
+    /**
+     * Gets the grammar empty status
+     *
+     * @return True - if no command is registered, False - if otherwise
+     */
+    boolean isEmpty()
+    {
+        return commands.isEmpty();
+    }
+
+    /**
+     * Matches the whole hypothesis against the commands
+     *
+     * @param hypothesis The hypothesis
+     *
+     * @param isFinal True - the hypothesis is the final result, False - more words can still follow
+     *
+     * @return The matched command, null if the hypothesis matches no command or (unless final) the match
+     * is still ambiguous, i.e. another command could still match once more words follow
+     */
+    DroidSpeechCommand match(String hypothesis, boolean isFinal)
+    {
+        SpeechTokenizer.tokenize(hypothesis, words, wordStarts, wordEnds);
+        if(words.isEmpty()) return null;
+
+        paths.clear();
+        paths.add(new Path(root, false, new int[maxSlots], new int[maxSlots], 0));
+
+        int wordCount = words.size();
+        for(int i = 0; i < wordCount && !paths.isEmpty(); i++)
+        {
+            String word = words.get(i);
+            nextPaths.clear();
+
+            for(int p = 0; p < paths.size(); p++)
+            {
+                Path path = paths.get(p);
+
+                // Leaving the slot (or moving on) with the next word of the phrase
+                Node child = path.node.children.get(word);
+                if(child != null)
+                {
+                    nextPaths.add(new Path(child, false, path.slotStarts, path.slotEnds, path.slotCount));
+                }
+
+                if(path.inSlot)
+                {
+                    // Capturing one more word into the slot
+                    int[] slotEnds = path.slotEnds.clone();
+                    slotEnds[path.slotCount - 1] = i + 1;
+                    nextPaths.add(new Path(path.node, true, path.slotStarts, slotEnds, path.slotCount));
+                }
+                else if(path.node.slot != null)
+                {
+                    // Entering the slot with this word
+                    int[] slotStarts = path.slotStarts.clone();
+                    int[] slotEnds = path.slotEnds.clone();
+                    slotStarts[path.slotCount] = i;
+                    slotEnds[path.slotCount] = i + 1;
+                    nextPaths.add(new Path(path.node.slot, true, slotStarts, slotEnds, path.slotCount + 1));
+                }
+            }
+
+            ArrayList<Path> swap = paths;
+            paths = nextPaths;
+            nextPaths = swap;
+        }
+
+        if(!isFinal)
+        {
+            // Unambiguous once a walk ends on a command nothing can follow, and every other walk can
+            // only lead to the same command (e.g. a slot still capturing words before it)
+            Path matched = null;
+            for(Path path : paths)
+            {
+                if(!path.inSlot && path.node.command >= 0 && path.node.isLeaf())
+                {
+                    matched = path;
+                    break;
+                }
+            }
+
+            if(matched == null) return null;
+
+            for(Path path : paths)
+            {
+                if(path.node.reachable != matched.node.command) return null;
+            }
+
+            return toCommand(matched, hypothesis, true);
+        }
+
+        // Preferring the command with the fewest words in slots, then the first registered
+        Path best = null;
+        int bestSlotWords = 0;
+        for(Path path : paths)
+        {
+            if(path.node.command < 0) continue;
+
+            int slotWords = path.getSlotWords();
+            if(best == null || slotWords < bestSlotWords || (slotWords == bestSlotWords && path.node.command < best.node.command))
+            {
+                best = path;
+                bestSlotWords = slotWords;
+            }
+        }
+
+        return best == null ? null : toCommand(best, hypothesis, false);
+    }
+
+    private DroidSpeechCommand toCommand(Path path, String hypothesis, boolean early)
+    {
+        Command command = commands.get(path.node.command);
+
+        Map<String, String> slots = new LinkedHashMap<>();
+        for(int i = 0; i < path.slotCount; i++)
+        {
+            // Slot values keep the words as they were spoken, punctuation in between included
+            slots.put(command.slotNames.get(i), hypothesis.substring(wordStarts.get(path.slotStarts[i]), wordEnds.get(path.slotEnds[i] - 1)));
+        }
+
+        return new DroidSpeechCommand(command.id, command.phrase, hypothesis, slots, early);
+    }
+}
@@ -0,0 +1,313 @@
+package com.vikramezhil.droidspeech;
+
+import android.annotation.TargetApi;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.net.NetworkInfo;
+import android.net.NetworkRequest;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Droid Speech Connectivity Monitor
+ *
+ * Process wide monitor keeping an in-memory snapshot of the default network, updated from network
+ * callbacks (API 21 and above) or the connectivity broadcast (below API 21), so reading the network
+ * state doesn't need a binder call
+ *
+ * @author Vikram Ezhil
+ */
+
+class ConnectivityMonitor
+{
+    /**
+     * Connectivity monitor listener, called on the main thread when the snapshot changes
+     */
+    interface OnNetworkChangedListener
+    {
+        void onNetworkChanged(NetworkSnapshot networkSnapshot);
+    }
+
+    private static ConnectivityMonitor instance;
+
+    private final ConnectivityManager connectivityManager;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Held weakly, so an instance which is never closed isn't kept alive by the process wide monitor
+    private final List<WeakReference<OnNetworkChangedListener>> listeners = new ArrayList<>();
+    private volatile NetworkSnapshot networkSnapshot = NetworkSnapshot.OFFLINE;
+
+    private ConnectivityMonitor(Context context)
+    {
+        connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+
+        // Taking the initial snapshot, kept up to date by the callbacks afterwards
+        networkSnapshot = querySnapshot();
+
+        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP)
+        {
+            registerNetworkCallback();
+        }
+        else
+        {
+            context.registerReceiver(new BroadcastReceiver() {
+                @Override
+                public void onReceive(Context context, Intent intent) {
+
+                    update(querySnapshot());
+                }
+            }, new IntentFilter(ConnectivityManager.CONNECTIVITY_ACTION));
+        }
+    }
+
+    /**
+     * Gets the connectivity monitor, started on first use
+     *
+     * @param context The application context instance
+     *
+     * @return The connectivity monitor
+     */
+    static synchronized ConnectivityMonitor getInstance(Context context)
+    {
+        if(instance == null)
+        {
+            instance = new ConnectivityMonitor(context.getApplicationContext());
+        }
+
+        return instance;
+    }
+
+    /**
+     * Gets the current network snapshot
+     *
+     * @return The network snapshot
+     */
+    NetworkSnapshot getSnapshot()
+    {
+        return networkSnapshot;
+    }
+
+    /**
+     * Adds a network changed listener, held weakly until removed
+     *
+     * NOTE: Should be called from the main thread, the caller has to keep the listener reachable
+     *
+     * @param listener The network changed listener
+     */
+    void addListener(OnNetworkChangedListener listener)
+    {
+        if(indexOf(listener) < 0)
+        {
+            listeners.add(new WeakReference<>(listener));
+        }
+    }
+
+    /**
+     * Removes a network changed listener
+     *
+     * NOTE: Should be called from the main thread
+     *
+     * @param listener The network changed listener
+     */
+    void removeListener(OnNetworkChangedListener listener)
+    {
+        int index = indexOf(listener);
+        if(index >= 0)
+        {
+            listeners.remove(index);
+        }
+    }
+
+    /**
+     * Finds the listener, dropping the collected listeners on the way
+     */
+    private int indexOf(OnNetworkChangedListener listener)
+    {
+        Iterator<WeakReference<OnNetworkChangedListener>> iterator = listeners.iterator();
+        while(iterator.hasNext())
+        {
+            if(iterator.next().get() == null)
+            {
+                iterator.remove();
+            }
+        }
+
+        for(int i = 0; i < listeners.size(); i++)
+        {
+            if(listeners.get(i).get() == listener) return i;
+        }
+
+        return -1;
+    }
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private void registerNetworkCallback()
+    {
+        ConnectivityManager.NetworkCallback networkCallback = new ConnectivityManager.NetworkCallback() {
+            @Override
+            public void onAvailable(Network network) {
+
+                update(querySnapshot());
+            }
+
+            @Override
+            public void onLost(Network network) {
+
+                update(querySnapshot());
+            }
+
+            @Override
+            public void onCapabilitiesChanged(Network network, NetworkCapabilities networkCapabilities) {
+
+                if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.N)
+                {
+                    // The default network callback reports the default network only, no query needed
+                    update(toSnapshot(networkCapabilities));
+                }
+                else
+                {
+                    update(querySnapshot());
+                }
+            }
+        };
+
+        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.N)
+        {
+            connectivityManager.registerDefaultNetworkCallback(networkCallback);
+        }
+        else
+        {
+            // Tracking every network with internet, the default network is queried on each change
+            NetworkRequest networkRequest = new NetworkRequest.Builder()
+                    .addCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET)
+                    .build();
+            connectivityManager.registerNetworkCallback(networkRequest, networkCallback);
+        }
+    }
+
+    /**
+     * Publishes the network snapshot and notifies the listeners on the main thread if it changed
+     */
+    synchronized void update(final NetworkSnapshot newSnapshot)
+    {
+        NetworkSnapshot oldSnapshot = networkSnapshot;
+        networkSnapshot = newSnapshot;
+
+        if(oldSnapshot.isConnected() == newSnapshot.isConnected() && oldSnapshot.getTransport() == newSnapshot.getTransport()
+                && oldSnapshot.isMetered() == newSnapshot.isMetered() && oldSnapshot.isValidated() == newSnapshot.isValidated()) return;
+
+        mainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+
+                for(WeakReference<OnNetworkChangedListener> listenerReference : new ArrayList<>(listeners))
+                {
+                    OnNetworkChangedListener listener = listenerReference.get();
+                    if(listener != null)
+                    {
+                        // Sending an update with the changed network snapshot
+                        listener.onNetworkChanged(newSnapshot);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Queries the default network snapshot from the connectivity manager
+     */
+    @SuppressWarnings("deprecation")
+    private NetworkSnapshot querySnapshot()
+    {
+        if(connectivityManager == null) return NetworkSnapshot.OFFLINE;
+
+        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.M)
+        {
+            Network network = connectivityManager.getActiveNetwork();
+            return network == null ? NetworkSnapshot.OFFLINE : toSnapshot(connectivityManager.getNetworkCapabilities(network));
+        }
+
+        NetworkInfo networkInfo = connectivityManager.getActiveNetworkInfo();
+        if(networkInfo == null || !networkInfo.isConnected()) return NetworkSnapshot.OFFLINE;
+
+        NetworkSnapshot.Transport transport;
+        switch(networkInfo.getType())
+        {
+            case ConnectivityManager.TYPE_WIFI:
+                transport = NetworkSnapshot.Transport.WIFI;
+                break;
+
+            case ConnectivityManager.TYPE_MOBILE:
+                transport = NetworkSnapshot.Transport.CELLULAR;
+                break;
+
+            case ConnectivityManager.TYPE_ETHERNET:
+                transport = NetworkSnapshot.Transport.ETHERNET;
+                break;
+
+            case ConnectivityManager.TYPE_VPN:
+                transport = NetworkSnapshot.Transport.VPN;
+                break;
+
+            default:
+                transport = NetworkSnapshot.Transport.OTHER;
+                break;
+        }
+
+        return new NetworkSnapshot(transport, true, connectivityManager.isActiveNetworkMetered(), true);
+    }
+
+    /**
+     * Converts the network capabilities to a network snapshot
+     */
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private static NetworkSnapshot toSnapshot(NetworkCapabilities networkCapabilities)
+    {
+        if(networkCapabilities == null || !networkCapabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET))
+        {
+            return NetworkSnapshot.OFFLINE;
+        }
+
+        NetworkSnapshot.Transport transport;
+        if(networkCapabilities.hasTransport(NetworkCapabilities.TRANSPORT_VPN))
+        {
+            transport = NetworkSnapshot.Transport.VPN;
+        }
+        else if(networkCapabilities.hasTransport(NetworkCapabilities.TRANSPORT_WIFI))
+        {
+            transport = NetworkSnapshot.Transport.WIFI;
+        }
+        else if(networkCapabilities.hasTransport(NetworkCapabilities.TRANSPORT_CELLULAR))
+        {
+            transport = NetworkSnapshot.Transport.CELLULAR;
+        }
+        else if(networkCapabilities.hasTransport(NetworkCapabilities.TRANSPORT_ETHERNET))
+        {
+            transport = NetworkSnapshot.Transport.ETHERNET;
+        }
+        else if(networkCapabilities.hasTransport(NetworkCapabilities.TRANSPORT_BLUETOOTH))
+        {
+            transport = NetworkSnapshot.Transport.BLUETOOTH;
+        }
+        else
+        {
+            transport = NetworkSnapshot.Transport.OTHER;
+        }
+
+        boolean metered = !networkCapabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_NOT_METERED);
+        boolean validated = Build.VERSION.SDK_INT < Build.VERSION_CODES.M
+                || networkCapabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_VALIDATED);
+
+        return new NetworkSnapshot(transport, true, metered, validated);
+    }
+}
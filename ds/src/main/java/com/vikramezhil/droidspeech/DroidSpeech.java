@@ -2,7 +2,6 @@ package com.vikramezhil.droidspeech;
 
 import android.annotation.SuppressLint;
 import android.annotation.TargetApi;
-import android.app.Activity;
 import android.app.AlertDialog;
 import android.content.Context;
 import android.content.DialogInterface;
@@ -11,10 +10,8 @@ import android.graphics.Color;
 import android.graphics.drawable.ColorDrawable;
 import android.media.AudioManager;
 import android.os.Build;
-import android.os.Bundle;
-import android.os.Handler;
-import android.speech.RecognitionListener;
-import android.speech.RecognizerIntent;
+import android.os.Looper;
+import android.os.MessageQueue;
 import android.speech.SpeechRecognizer;
 import android.app.FragmentManager;
 import android.util.Log;
@@ -26,6 +23,7 @@ import android.widget.LinearLayout.LayoutParams;
 import android.widget.TextView;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * Droid Speech
@@ -44,13 +42,34 @@ public class DroidSpeech
     private LinearLayout confirmLayout;
     private Button confirm, retry;
     private DroidSpeechPermissions droidSpeechPermissions;
-    private SpeechRecognizer droidSpeechRecognizer;
+    private RecognizerLifecycle recognizerLifecycle;
+    private SpeechEngine speechEngine;
     private Intent speechIntent;
+    private SpeechIntentCache speechIntentCache;
     private AudioManager audioManager;
-    private Handler restartDroidSpeech = new Handler();
-    private Handler droidSpeechPartialResult = new Handler();
     private Properties dsProperties = new Properties();
+    private RecognitionSession recognitionSession = new RecognitionSession();
+    private RestartPolicy restartPolicy = new BackoffRestartPolicy();
+    private EndpointDetector endpointDetector = new EndpointDetector();
+    private AudioCapture audioCapture = new AudioCapture();
+    private PreRollBuffer preRollBuffer = new PreRollBuffer();
+    private BeepSuppressor beepSuppressor = new BeepSuppressor();
+    private ErrorTable errorTable;
+    private ConnectivityMonitor connectivityMonitor;
     private OnDSListener droidSpeechListener;
+    private OnDSErrorListener droidSpeechErrorListener;
+    private OnDSResultListener droidSpeechResultListener;
+    private OnDSPartialDeltaListener droidSpeechPartialDeltaListener;
+    private OnDSWakePhraseListener droidSpeechWakePhraseListener;
+    private OnDSCommandListener droidSpeechCommandListener;
+    private ListenerDispatcher listenerDispatcher;
+    private PartialDiffer partialDiffer = new PartialDiffer();
+    private WakePhraseSpotter wakePhraseSpotter = new WakePhraseSpotter();
+    private CommandGrammar commandGrammar = new CommandGrammar();
+    private VocabularyMatcher vocabularyMatcher = new VocabularyMatcher();
+    private FrameCoalescer frameCoalescer;
+    private TranscriptJournal transcriptJournal;
+    private LatencyMetrics latencyMetrics = new LatencyMetrics();
 
     // MARK: Constructor
 
@@ -66,6 +85,31 @@ public class DroidSpeech
     {
         this.context = context;
         dsProperties.listeningMsg = context.getResources().getString(R.string.ds_listening);
+        errorTable = new ErrorTable(context);
+        connectivityMonitor = ConnectivityMonitor.getInstance(context);
+        frameCoalescer = new FrameCoalescer(new FrameCoalescer.OnFrameListener() {
+            @Override
+            public void onCoalescedRms(float rmsdB) {
+
+                dispatchRms(rmsdB);
+            }
+
+            @Override
+            public void onCoalescedLiveResult(DroidSpeechResult liveResult) {
+
+                // Stale live results of a failed session are dropped
+                if(recognitionSession.isListening() || recognitionSession.is(SessionState.FINALIZING))
+                {
+                    dispatchLiveResult(liveResult);
+                }
+            }
+        });
+
+        // Initializing the recognizer lifecycle, the recognizer is kept warm across restarts
+        recognizerLifecycle = new RecognizerLifecycle(context);
+        speechIntentCache = new SpeechIntentCache(context);
+        recognizerLifecycle.setEngineListener(droidSpeechEngineListener);
+        speechEngine = recognizerLifecycle;
 
         if(fragmentManager != null)
         {
@@ -74,9 +118,6 @@ public class DroidSpeech
             fragmentManager.beginTransaction().add(droidSpeechPermissions, TAG).commit();
         }
 
-        // Initializing the recognition progress view
-        initRecognitionProgressView();
-
         // Starting the language receiver to get the device language details
         startLanguageReceiver();
     }
@@ -90,28 +131,205 @@ public class DroidSpeech
      */
     public void setOnDroidSpeechListener(OnDSListener droidSpeechListener)
     {
-        this.droidSpeechListener = droidSpeechListener;
+        if(listenerDispatcher == null)
+        {
+            this.droidSpeechListener = droidSpeechListener;
+        }
+        else
+        {
+            listenerDispatcher.droidSpeechListener = droidSpeechListener;
+            this.droidSpeechListener = droidSpeechListener == null ? null : listenerDispatcher;
+        }
+    }
+
+    /**
+     * Sets the droid speech listener along with the executor the droid speech callbacks are delivered on
+     *
+     * @param droidSpeechListener The class instance to initialize droid speech listener
+     *
+     * @param executor The callback executor, see setCallbackExecutor(Executor)
+     */
+    public void setOnDroidSpeechListener(OnDSListener droidSpeechListener, Executor executor)
+    {
+        setCallbackExecutor(executor);
+        setOnDroidSpeechListener(droidSpeechListener);
+    }
+
+    /**
+     * Sets the droid speech listener along with the looper the droid speech callbacks are delivered on
+     *
+     * @param droidSpeechListener The class instance to initialize droid speech listener
+     *
+     * @param looper The callback looper, see setCallbackLooper(Looper)
+     */
+    public void setOnDroidSpeechListener(OnDSListener droidSpeechListener, Looper looper)
+    {
+        setCallbackLooper(looper);
+        setOnDroidSpeechListener(droidSpeechListener);
+    }
+
+    /**
+     * Sets the executor all the droid speech listener callbacks are delivered on, the callbacks are
+     * delivered one after another in the order they were sent even on a multi threaded executor
+     *
+     * NOTE: Default is null (callbacks are delivered inline on the main thread), should be set before
+     * starting the droid speech recognition
+     *
+     * @param executor The callback executor, null to deliver the callbacks inline
+     */
+    public void setCallbackExecutor(Executor executor)
+    {
+        OnDSListener listener = listenerDispatcher == null ? droidSpeechListener : listenerDispatcher.droidSpeechListener;
+        OnDSResultListener resultListener = listenerDispatcher == null ? droidSpeechResultListener : listenerDispatcher.droidSpeechResultListener;
+        OnDSErrorListener errorListener = listenerDispatcher == null ? droidSpeechErrorListener : listenerDispatcher.droidSpeechErrorListener;
+        OnDSPartialDeltaListener partialDeltaListener = listenerDispatcher == null ? droidSpeechPartialDeltaListener : listenerDispatcher.droidSpeechPartialDeltaListener;
+        OnDSWakePhraseListener wakePhraseListener = listenerDispatcher == null ? droidSpeechWakePhraseListener : listenerDispatcher.droidSpeechWakePhraseListener;
+        OnDSCommandListener commandListener = listenerDispatcher == null ? droidSpeechCommandListener : listenerDispatcher.droidSpeechCommandListener;
+
+        listenerDispatcher = executor == null ? null : new ListenerDispatcher(executor);
+
+        // Applying the listeners again, wrapped by the new dispatcher if applicable
+        setOnDroidSpeechListener(listener);
+        setOnDroidSpeechResultListener(resultListener);
+        setOnDroidSpeechErrorListener(errorListener);
+        setOnDroidSpeechPartialDeltaListener(partialDeltaListener);
+        setOnDroidSpeechWakePhraseListener(wakePhraseListener);
+        setOnDroidSpeechCommandListener(commandListener);
+    }
+
+    /**
+     * Sets the looper all the droid speech listener callbacks are delivered on
+     *
+     * NOTE: Default is null (callbacks are delivered inline on the main thread), should be set before
+     * starting the droid speech recognition
+     *
+     * @param looper The callback looper, null to deliver the callbacks inline
+     */
+    public void setCallbackLooper(Looper looper)
+    {
+        setCallbackExecutor(looper == null ? null : ListenerDispatcher.forLooper(looper));
+    }
+
+    /**
+     * Sets the droid speech result listener, sent the results with all the alternatives and their
+     * confidence scores along with the string results
+     *
+     * @param droidSpeechResultListener The class instance to initialize droid speech result listener
+     */
+    public void setOnDroidSpeechResultListener(OnDSResultListener droidSpeechResultListener)
+    {
+        if(listenerDispatcher == null)
+        {
+            this.droidSpeechResultListener = droidSpeechResultListener;
+        }
+        else
+        {
+            listenerDispatcher.droidSpeechResultListener = droidSpeechResultListener;
+            this.droidSpeechResultListener = droidSpeechResultListener == null ? null : listenerDispatcher;
+        }
+    }
+
+    /**
+     * Sets the droid speech partial delta listener, sent only the changed words of each live result
+     *
+     * @param droidSpeechPartialDeltaListener The class instance to initialize droid speech partial delta listener
+     */
+    public void setOnDroidSpeechPartialDeltaListener(OnDSPartialDeltaListener droidSpeechPartialDeltaListener)
+    {
+        if(listenerDispatcher == null)
+        {
+            this.droidSpeechPartialDeltaListener = droidSpeechPartialDeltaListener;
+        }
+        else
+        {
+            listenerDispatcher.droidSpeechPartialDeltaListener = droidSpeechPartialDeltaListener;
+            this.droidSpeechPartialDeltaListener = droidSpeechPartialDeltaListener == null ? null : listenerDispatcher;
+        }
+    }
+
+    /**
+     * Sets the droid speech error listener, sent the structured errors along with onDroidSpeechError(String)
+     *
+     * @param droidSpeechErrorListener The class instance to initialize droid speech error listener
+     */
+    public void setOnDroidSpeechErrorListener(OnDSErrorListener droidSpeechErrorListener)
+    {
+        if(listenerDispatcher == null)
+        {
+            this.droidSpeechErrorListener = droidSpeechErrorListener;
+        }
+        else
+        {
+            listenerDispatcher.droidSpeechErrorListener = droidSpeechErrorListener;
+            this.droidSpeechErrorListener = droidSpeechErrorListener == null ? null : listenerDispatcher;
+        }
+    }
+
+    /**
+     * Sets the droid speech wake phrase listener, sent the wake phrase as soon as it is spotted
+     *
+     * @param droidSpeechWakePhraseListener The class instance to initialize droid speech wake phrase listener
+     */
+    public void setOnDroidSpeechWakePhraseListener(OnDSWakePhraseListener droidSpeechWakePhraseListener)
+    {
+        if(listenerDispatcher == null)
+        {
+            this.droidSpeechWakePhraseListener = droidSpeechWakePhraseListener;
+        }
+        else
+        {
+            listenerDispatcher.droidSpeechWakePhraseListener = droidSpeechWakePhraseListener;
+            this.droidSpeechWakePhraseListener = droidSpeechWakePhraseListener == null ? null : listenerDispatcher;
+        }
+    }
+
+    /**
+     * Sets the droid speech command listener, sent the registered commands matched in the speech
+     *
+     * @param droidSpeechCommandListener The class instance to initialize droid speech command listener
+     */
+    public void setOnDroidSpeechCommandListener(OnDSCommandListener droidSpeechCommandListener)
+    {
+        if(listenerDispatcher == null)
+        {
+            this.droidSpeechCommandListener = droidSpeechCommandListener;
+        }
+        else
+        {
+            listenerDispatcher.droidSpeechCommandListener = droidSpeechCommandListener;
+            this.droidSpeechCommandListener = droidSpeechCommandListener == null ? null : listenerDispatcher;
+        }
     }
 
     // MARK: Droid Speech Private Methods
 
     /**
-     * Starts the language receiver
+     * Starts the language receiver, the cached language details are used when available and are
+     * refreshed in the background
      */
     private void startLanguageReceiver()
     {
-        Intent languageDetailsIntent =  RecognizerIntent.getVoiceDetailsIntent(context);
-        languageDetailsIntent.addFlags(Intent.FLAG_INCLUDE_STOPPED_PACKAGES);
-        LanguageReceiver languageReceiver = new LanguageReceiver();
-        languageReceiver.setOnLanguageDetailsListener(new OnLanguageDetailsListener() {
+        LanguageCache.getLanguageDetails(context, new OnLanguageDetailsListener() {
             @Override
             public void onLanguageDetailsInfo(String defaultLanguage, List<String> otherLanguages) {
 
-                dsProperties.currentSpeechLanguage = defaultLanguage;
                 dsProperties.supportedSpeechLanguages = otherLanguages;
 
-                // Initializing the droid speech properties
-                initDroidSpeechProperties();
+                if(!dsProperties.languageDetailsReceived)
+                {
+                    dsProperties.languageDetailsReceived = true;
+                    dsProperties.currentSpeechLanguage = defaultLanguage;
+
+                    // Initializing the droid speech properties
+                    initDroidSpeechProperties();
+                }
+                else if(!otherLanguages.contains(dsProperties.currentSpeechLanguage))
+                {
+                    // Refreshed details, the chosen language is kept while it is still supported, the running
+                    // session isn't touched and the switched speech intent is used from the next session
+                    dsProperties.currentSpeechLanguage = defaultLanguage;
+                    updateSpeechIntent();
+                }
 
                 if(droidSpeechListener != null)
                 {
@@ -120,9 +338,6 @@ public class DroidSpeech
                 }
             }
         });
-
-        // Starting the broadcast receiver to get the language details
-        context.sendOrderedBroadcast(languageDetailsIntent, null, languageReceiver, null, Activity.RESULT_OK, null, null);
     }
 
     /**
@@ -130,37 +345,34 @@ public class DroidSpeech
      */
     private void initDroidSpeechProperties()
     {
-        // Initializing the droid speech recognizer
-        droidSpeechRecognizer = SpeechRecognizer.createSpeechRecognizer(context);
-
-        // Initializing the speech intent
-        speechIntent = new Intent(RecognizerIntent.ACTION_RECOGNIZE_SPEECH);
-        speechIntent.putExtra(RecognizerIntent.EXTRA_LANGUAGE_MODEL, RecognizerIntent.LANGUAGE_MODEL_FREE_FORM);
-        speechIntent.putExtra(RecognizerIntent.EXTRA_CALLING_PACKAGE, context.getPackageName());
-        speechIntent.putExtra(RecognizerIntent.EXTRA_PARTIAL_RESULTS, true);
-        speechIntent.putExtra(RecognizerIntent.EXTRA_MAX_RESULTS, Extensions.MAX_VOICE_RESULTS);
-        if(dsProperties.currentSpeechLanguage != null)
+        if(speechEngine == recognizerLifecycle)
         {
-            // Setting the speech language
-            speechIntent.putExtra(RecognizerIntent.EXTRA_LANGUAGE, dsProperties.currentSpeechLanguage);
-            speechIntent.putExtra(RecognizerIntent.EXTRA_LANGUAGE_PREFERENCE, dsProperties.currentSpeechLanguage);
+            // Initializing the droid speech recognizer, an already bound recognizer is reused
+            recognizerLifecycle.bind();
         }
 
-        if(dsProperties.offlineSpeechRecognition && Build.VERSION.SDK_INT >= Build.VERSION_CODES.M)
-        {
-            // Setting offline speech recognition to true
-            speechIntent.putExtra(RecognizerIntent.EXTRA_PREFER_OFFLINE, true);
-        }
+        // Initializing the speech intent
+        updateSpeechIntent();
 
         // Initializing the audio Manager
         audioManager = (AudioManager) context.getSystemService(Context.AUDIO_SERVICE);
+        beepSuppressor.setAudioManager(audioManager);
+    }
+
+    /**
+     * Picks the prebuilt speech intent for the current language and offline status, used from the next session
+     */
+    private void updateSpeechIntent()
+    {
+        speechIntent = speechIntentCache.get(dsProperties.currentSpeechLanguage, dsProperties.offlineSpeechRecognition);
     }
 
     /**
-     * Initializes the recognition progress view
+     * Initializes the recognition progress view, inflated on first use and customized with the
+     * properties set before. Package-private so the startup benchmark can inflate it eagerly
      */
     @SuppressWarnings("ConstantConditions")
-    private void initRecognitionProgressView()
+    void initRecognitionProgressView()
     {
         if(speechProgressAlertDialog == null)
         {
@@ -180,21 +392,40 @@ public class DroidSpeech
                 recognitionProgressView.setIdleStateAmplitudeInDp(Extensions.PV_IDLE_STATE);
                 recognitionProgressView.setRotationRadiusInDp(Extensions.PV_ROTATION_RADIUS);
                 recognitionProgressView.setLayoutParams(new LayoutParams(LayoutParams.WRAP_CONTENT, Extensions.PV_HEIGHT));
+                if(dsProperties.recognitionProgressViewColors != null)
+                {
+                    recognitionProgressView.setColors(dsProperties.recognitionProgressViewColors);
+                }
 
                 recognitionProgressMsg = speechProgressView.findViewById(R.id.recognitionProgressMsg);
+                if(dsProperties.recognitionProgressMsgColor != null)
+                {
+                    recognitionProgressMsg.setTextColor(dsProperties.recognitionProgressMsgColor);
+                }
+
                 confirmLayout = speechProgressView.findViewById(R.id.confirmLayout);
                 confirm = speechProgressView.findViewById(R.id.confirm);
+                if(dsProperties.oneStepVerifyConfirmText != null)
+                {
+                    confirm.setText(dsProperties.oneStepVerifyConfirmText);
+                }
+
+                if(dsProperties.oneStepVerifyConfirmTextColor != null)
+                {
+                    confirm.setTextColor(dsProperties.oneStepVerifyConfirmTextColor);
+                }
+
                 confirm.setOnClickListener(new View.OnClickListener() {
                     @Override
                     public void onClick(View v) {
 
                         // Sending an update with the droid speech result
-                        droidSpeechListener.onDroidSpeechFinalResult(dsProperties.oneStepVerifySpeechResult);
+                        sendFinalResult(dsProperties.oneStepVerifySpeechResult);
 
                         if(dsProperties.continuousSpeechRecognition)
                         {
                             // Start droid speech recognition again
-                            startDroidSpeechRecognition();
+                            startNextSession();
                         }
                         else
                         {
@@ -205,13 +436,23 @@ public class DroidSpeech
                 });
 
                 retry = speechProgressView.findViewById(R.id.retry);
+                if(dsProperties.oneStepVerifyRetryText != null)
+                {
+                    retry.setText(dsProperties.oneStepVerifyRetryText);
+                }
+
+                if(dsProperties.oneStepVerifyRetryTextColor != null)
+                {
+                    retry.setTextColor(dsProperties.oneStepVerifyRetryTextColor);
+                }
+
                 retry.setOnClickListener(new View.OnClickListener() {
                     @Override
                     public void onClick(View v) {
 
                         // Start droid speech recognition again as user didn't
                         // get the desired result
-                        startDroidSpeechRecognition();
+                        startNextSession();
                     }
                 });
 
@@ -222,8 +463,6 @@ public class DroidSpeech
                     @Override
                     public void onDismiss(DialogInterface dialogInterface) {
 
-                        dsProperties.closedByUser = true;
-
                         // Closing droid speech operations
                         closeDroidSpeechOperations();
 
@@ -241,668 +480,1721 @@ public class DroidSpeech
             }
             catch (Exception e)
             {
-                if(droidSpeechListener == null)
-                {
-                    Log.e(TAG, context.getResources().getString(R.string.ds_progress_layout_error));
-                }
-                else
-                {
-                    // Sending an update that there was an error
-                    droidSpeechListener.onDroidSpeechError(context.getResources().getString(R.string.ds_progress_layout_error));
-                }
+                // Sending an update that there was an error
+                reportError(DroidSpeechError.ERROR_PROGRESS_LAYOUT);
             }
         }
     }
 
     /**
-     * Restarts droid speech recognition after a small delay
+     * Restarts droid speech recognition after the delay given by the restart policy
+     *
+     * @param error The speech recognizer error code which ended the session
      */
-    private void restartDroidSpeechRecognition()
+    private void restartDroidSpeechRecognition(int error)
     {
-        restartDroidSpeech.postDelayed(new Runnable() {
+        // A restart is only scheduled once per session and never after the session was closed
+        if(!recognitionSession.transition(SessionState.RESTARTING)) return;
 
-            @Override
-            public void run()
-            {
-                if(dsProperties.closedByUser)
-                {
-                    dsProperties.closedByUser = false;
+        long restartDelay = restartPolicy.getRestartDelay(error, Clocks.millis() - dsProperties.lastSpeechTime);
 
-                    // If audio beep was muted, enabling it again
-                    muteAudio(false);
-                }
-                else
-                {
-                    startDroidSpeechRecognition();
-                }
+        if(restartDelay == RestartPolicy.NO_RESTART)
+        {
+            dsProperties.suppressedRestarts++;
+
+            recognitionSession.transition(SessionState.IDLE);
+
+            playRecognitionProgressView(false);
+
+            // If audio beep was muted, enabling it again
+            muteAudio(false);
+
+            Log.i(TAG, "Droid speech restart suppressed by the restart policy");
+        }
+        else
+        {
+            if(!audioCapture.isCapturing())
+            {
+                // Capturing the speech during the restart gap if applicable
+                preRollBuffer.beginGap();
             }
 
-        }, Extensions.MAX_PAUSE_TIME);
+            // Only one restart is ever pending, a stale one would fire early into a later session
+            cancelScheduledRestart();
+
+            // Tracing the restart delay until the restart runs
+            DroidSpeechTrace.beginAsyncSection(DroidSpeechTrace.RESTART, dsProperties.traceCookie);
+
+            dsProperties.restartScheduled = true;
+            dsProperties.restartGeneration = dsProperties.sessionGeneration;
+            Clocks.scheduler().schedule(restartDroidSpeechRunnable, restartDelay);
+        }
     }
 
     /**
-     * Plays or Stops the recognition progress view
-     *
-     * @param play The play recognition progress view status
+     * Cancels the pending restart (if any), counting it as suppressed
      */
-    private void playRecognitionProgressView(boolean play)
+    private void cancelScheduledRestart()
     {
-        if(speechProgressAlertDialog == null || recognitionProgressView == null) return;
+        if(!dsProperties.restartScheduled) return;
 
-        if(dsProperties.showRecognitionProgressView)
+        dsProperties.restartScheduled = false;
+        dsProperties.suppressedRestarts++;
+
+        Clocks.scheduler().cancel(restartDroidSpeechRunnable);
+        DroidSpeechTrace.endAsyncSection(DroidSpeechTrace.RESTART, dsProperties.traceCookie);
+    }
+
+    /**
+     * Runs the scheduled restart, unless the session was closed (or restarted) in the mean time
+     */
+    private final Runnable restartDroidSpeechRunnable = new Runnable() {
+
+        @Override
+        public void run()
         {
-            if(play)
+            // Canceled in the mean time
+            if(!dsProperties.restartScheduled) return;
+
+            dsProperties.restartScheduled = false;
+
+            DroidSpeechTrace.endAsyncSection(DroidSpeechTrace.RESTART, dsProperties.traceCookie);
+
+            if(recognitionSession.is(SessionState.RESTARTING) && dsProperties.restartGeneration == dsProperties.sessionGeneration)
             {
-                recognitionProgressView.play();
-                speechProgressAlertDialog.show();
+                dsProperties.executedRestarts++;
 
-                confirmLayout.setVisibility(View.GONE);
+                startDroidSpeechRecognition();
             }
             else
             {
-                recognitionProgressView.stop();
-                speechProgressAlertDialog.cancel();
+                dsProperties.suppressedRestarts++;
+
+                // If audio beep was muted, enabling it again
+                muteAudio(false);
             }
         }
-        else if(speechProgressAlertDialog.isShowing())
-        {
-            recognitionProgressView.stop();
-            speechProgressAlertDialog.cancel();
-        }
-    }
+    };
 
     /**
-     * Sets the recognition progress message
+     * Takes the live result as the final result of the session
      *
-     * @param msg The recognition progress message
+     * @param liveResult The live result
+     *
+     * @param delay The delay before the result is delivered in milliseconds
      */
-    private void setRecognitionProgressMsg(String msg)
+    private void finalizeLiveResult(final DroidSpeechResult liveResult, long delay)
     {
-        if(recognitionProgressMsg != null && msg != null)
+        if(!recognitionSession.transition(SessionState.FINALIZING)) return;
+
+        // Tracing the finalization until the result is committed
+        final int traceCookie = dsProperties.traceCookie;
+        DroidSpeechTrace.beginAsyncSection(DroidSpeechTrace.FINALIZE, traceCookie);
+
+        Runnable commitLiveResult = new Runnable() {
+
+            @Override
+            public void run() {
+
+                DroidSpeechTrace.endAsyncSection(DroidSpeechTrace.FINALIZE, traceCookie);
+
+                // Session was closed in the mean time, dropping the result
+                if(!recognitionSession.is(SessionState.FINALIZING)) return;
+
+                // Closing droid speech operations
+                closeDroidSpeech();
+
+                // Sending an update with the droid speech final result (Partial live result
+                // is taken as the final result in this case)
+                deliverFinalResult(liveResult);
+            }
+        };
+
+        if(delay > 0)
         {
-            recognitionProgressMsg.setText(msg);
+            dsProperties.liveResultCommit = commitLiveResult;
+            Clocks.scheduler().schedule(commitLiveResult, delay);
         }
-    }
-
-    /**
-     * Sets the recognition progress message visibility
-     *
-     * NOTE: Default is true
-     *
-     * @param visible The recognition progress message visibility status
-     */
-    @SuppressWarnings("unused")
-    private void setRecognitionProgressMsgVisibility(boolean visible)
-    {
-        if(recognitionProgressMsg != null)
+        else
         {
-            recognitionProgressMsg.setVisibility(visible ? View.VISIBLE : View.GONE);
+            commitLiveResult.run();
         }
     }
 
     /**
-     * Mutes (or) un mutes the audio
+     * Delivers the final result of the session and starts the next session if applicable
      *
-     * @param mute The mute audio status
+     * @param finalResult The final result
      */
-    @SuppressWarnings("deprecation")
-    private void muteAudio(Boolean mute)
+    private void deliverFinalResult(DroidSpeechResult finalResult)
     {
-        try
+        latencyMetrics.onFinalResult(Clocks.millis());
+
+        // Matching the alternatives against the vocabulary if applicable
+        finalResult = matchVocabulary(finalResult);
+
+        if(dsProperties.showRecognitionProgressView && dsProperties.oneStepResultVerify)
         {
-            // mute (or) un mute audio based on status
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M)
-            {
-                audioManager.adjustStreamVolume(AudioManager.STREAM_MUSIC, mute ? AudioManager.ADJUST_MUTE : AudioManager.ADJUST_UNMUTE, 0);
-            }
-            else
+            // Saving the speech result
+            dsProperties.oneStepVerifySpeechResult = finalResult;
+
+            // Showing the confirm result layout
+            initRecognitionProgressView();
+            if(confirmLayout != null)
             {
-                audioManager.setStreamMute(AudioManager.STREAM_MUSIC, mute);
+                confirmLayout.setVisibility(View.VISIBLE);
             }
+
+            // Closing droid speech operations, will be restarted when user clicks
+            // cancel or confirm if applicable
+            closeDroidSpeech();
         }
-        catch (Exception e)
+        else
         {
-            if(audioManager == null) return;
+            // Sending an update with the droid speech final result
+            sendFinalResult(finalResult);
 
-            // un mute the audio if there is an exception
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M)
+            if(dsProperties.continuousSpeechRecognition)
             {
-                audioManager.adjustStreamVolume(AudioManager.STREAM_MUSIC, AudioManager.ADJUST_UNMUTE, 0);
+                // Start droid speech recognition again
+                startNextSession();
             }
             else
             {
-                audioManager.setStreamMute(AudioManager.STREAM_MUSIC, false);
+                // Closing the droid speech operations
+                closeDroidSpeechOperations();
             }
         }
     }
 
     /**
-     * Cancels the droid speech operations
+     * Starts the next session right away, ending the current one
      */
-    private void cancelDroidSpeechOperations()
+    private void startNextSession()
     {
-        if (droidSpeechRecognizer != null)
-        {
-            droidSpeechRecognizer.cancel();
-        }
+        // Ending the current session first, a session is never started on top of a running one
+        if(!recognitionSession.transition(SessionState.RESTARTING)) return;
+
+        startDroidSpeechRecognition();
     }
 
     /**
-     * Closes the droid speech operations
+     * Matches all the alternatives of the result against the vocabulary
+     *
+     * @param result The final result
+     *
+     * @return The result with the best match, the result as it is if the vocabulary is empty or nothing matched
      */
-    private void closeDroidSpeech()
+    private DroidSpeechResult matchVocabulary(DroidSpeechResult result)
     {
-        if (droidSpeechRecognizer != null)
+        if(vocabularyMatcher.size() == 0) return result;
+
+        vocabularyMatcher.reset();
+
+        // Only a strictly closer entry replaces the match of a better ranked alternative
+        int bestMatchAlternative = -1;
+        for(int i = 0; i < result.getCount(); i++)
         {
-            droidSpeechRecognizer.destroy();
+            if(vocabularyMatcher.match(result.getAlternative(i), dsProperties.fuzzyMatchDistance))
+            {
+                bestMatchAlternative = i;
+            }
         }
 
-        // Removing the partial result callback handler if applicable
-        droidSpeechPartialResult.removeCallbacksAndMessages(null);
-
-        // If audio beep was muted, enabling it again
-        muteAudio(false);
+        return bestMatchAlternative < 0 ? result
+                : result.withBestMatch(vocabularyMatcher.getBestEntry(), vocabularyMatcher.getBestDistance(), bestMatchAlternative);
     }
 
-    // MARK: Droid Speech Public Methods
-
     /**
-     * Sets the preferred language
+     * Gates the result on the wake phrases if applicable, the droid speech wake phrase listener is
+     * sent the wake phrase the first time it is spotted in the session
      *
-     * @param language The language code
+     * @param result The live (or) final result
+     *
+     * @param isFinal The final result status
+     *
+     * @return The speech after the wake phrase, null if no wake phrase was spotted or nothing follows it
      */
-    public void setPreferredLanguage(String language)
+    private DroidSpeechResult gateOnWakePhrase(DroidSpeechResult result, boolean isFinal)
     {
-        if(dsProperties.supportedSpeechLanguages.contains(language))
-        {
-            dsProperties.currentSpeechLanguage = language;
+        if(!wakePhraseSpotter.isEnabled() || dsProperties.wakePhraseSessionArmed) return result;
 
-            // Reinitializing the speech properties
-            initDroidSpeechProperties();
+        int spot = wakePhraseSpotter.spot(result.getText(), dsProperties.wakePhraseEarlyCancel);
+
+        if(spot == WakePhraseSpotter.SPOT_RULED_OUT && !isFinal)
+        {
+            // The utterance can no longer start with a wake phrase, cutting the session short
+            skipUtterance();
+            return null;
+        }
+
+        if(spot != WakePhraseSpotter.SPOT_MATCHED) return null;
+
+        if(dsProperties.spottedWakePhrase == null)
+        {
+            dsProperties.spottedWakePhrase = wakePhraseSpotter.getWakePhrase();
+
+            if(droidSpeechWakePhraseListener != null)
+            {
+                // Sending an update with the spotted wake phrase
+                droidSpeechWakePhraseListener.onDroidSpeechWakePhrase(dsProperties.spottedWakePhrase);
+            }
+        }
+
+        String remainder = wakePhraseSpotter.getRemainder();
+        if(remainder.isEmpty()) return null;
+
+        // Stripping the wake phrase from the other alternatives as well, so the N-best list is kept. An
+        // alternative without the wake phrase is carried through as it is, one with nothing after it is dropped
+        int count = result.getCount();
+        String[] texts = new String[count];
+        texts[0] = remainder;
+
+        for(int i = 1; i < count; i++)
+        {
+            String alternative = result.getAlternative(i);
+            if(alternative == null) continue;
+
+            if(wakePhraseSpotter.spot(alternative, dsProperties.wakePhraseEarlyCancel) == WakePhraseSpotter.SPOT_MATCHED)
+            {
+                alternative = wakePhraseSpotter.getRemainder();
+            }
+
+            texts[i] = alternative.isEmpty() ? null : alternative;
+        }
+
+        return result.withAlternatives(texts);
+    }
+
+    /**
+     * Drops the current utterance without a result, the next session is started as the restart
+     * policy decides in the continuous mode
+     */
+    private void skipUtterance()
+    {
+        cancelDroidSpeechOperations();
+
+        if(dsProperties.continuousSpeechRecognition)
+        {
+            // Nothing was matched in the session as far as the app is concerned
+            restartDroidSpeechRecognition(SpeechRecognizer.ERROR_NO_MATCH);
+        }
+        else
+        {
+            closeDroidSpeechOperations();
+        }
+    }
+
+    /**
+     * Marks the end of the current session, the restart gap is measured from the first mark
+     */
+    private void markSessionEnded()
+    {
+        if(dsProperties.sessionEndTime < 0)
+        {
+            dsProperties.sessionEndTime = Clocks.millis();
+
+            DroidSpeechTrace.endAsyncSection(DroidSpeechTrace.SESSION, dsProperties.traceCookie);
+        }
+    }
+
+    /**
+     * Marks the engine as ready for speech, closing the restart gap if one is open
+     */
+    private void markReadyForSpeech()
+    {
+        long readyTime = Clocks.millis();
+
+        if(dsProperties.sessionEndTime >= 0)
+        {
+            dsProperties.lastRestartGap = readyTime - dsProperties.sessionEndTime;
+            dsProperties.sessionEndTime = -1;
+
+            latencyMetrics.onRestartGap(dsProperties.lastRestartGap);
+        }
+
+        latencyMetrics.onReadyForSpeech(readyTime);
+    }
+
+    /**
+     * Sends an update that speech was detected in the current session
+     */
+    private void onSpeechDetected()
+    {
+        dsProperties.lastSpeechTime = Clocks.millis();
+
+        restartPolicy.onSpeechDetected();
+    }
+
+    /**
+     * Plays or Stops the recognition progress view
+     *
+     * @param play The play recognition progress view status
+     */
+    private void playRecognitionProgressView(boolean play)
+    {
+        if(play && dsProperties.showRecognitionProgressView)
+        {
+            // Inflating the recognition progress view on first use
+            initRecognitionProgressView();
+        }
+
+        if(speechProgressAlertDialog == null || recognitionProgressView == null) return;
+
+        if(dsProperties.showRecognitionProgressView)
+        {
+            if(play)
+            {
+                recognitionProgressView.play();
+                speechProgressAlertDialog.show();
+
+                confirmLayout.setVisibility(View.GONE);
+            }
+            else
+            {
+                recognitionProgressView.stop();
+                speechProgressAlertDialog.cancel();
+            }
+        }
+        else if(speechProgressAlertDialog.isShowing())
+        {
+            recognitionProgressView.stop();
+            speechProgressAlertDialog.cancel();
+        }
+    }
+
+    /**
+     * Sets the recognition progress message
+     *
+     * @param msg The recognition progress message
+     */
+    private void setRecognitionProgressMsg(String msg)
+    {
+        if(recognitionProgressMsg != null && msg != null)
+        {
+            recognitionProgressMsg.setText(msg);
+        }
+    }
+
+    /**
+     * Sets the recognition progress message visibility
+     *
+     * NOTE: Default is true
+     *
+     * @param visible The recognition progress message visibility status
+     */
+    @SuppressWarnings("unused")
+    private void setRecognitionProgressMsgVisibility(boolean visible)
+    {
+        if(recognitionProgressMsg != null)
+        {
+            recognitionProgressMsg.setVisibility(visible ? View.VISIBLE : View.GONE);
+        }
+    }
+
+    /**
+     * Sends the rms value to the recognition progress view and the droid speech listener
+     *
+     * @param rmsdB The rms value
+     */
+    private void dispatchRms(float rmsdB)
+    {
+        DroidSpeechTrace.beginSection("DroidSpeech:dispatchRms");
+
+        if(dsProperties.showRecognitionProgressView && speechProgressAlertDialog != null && recognitionProgressView != null)
+        {
+            recognitionProgressView.rmsValue(rmsdB);
+        }
+
+        if(droidSpeechListener != null)
+        {
+            // Sending an update with the rms changed value
+            droidSpeechListener.onDroidSpeechRmsChanged(rmsdB);
+        }
+
+        DroidSpeechTrace.endSection();
+    }
+
+    /**
+     * Sends the live result to the recognition progress message and the droid speech listeners
+     *
+     * @param liveResult The live result
+     */
+    private void dispatchLiveResult(DroidSpeechResult liveResult)
+    {
+        DroidSpeechTrace.beginSection("DroidSpeech:dispatchLiveResult");
+
+        if(droidSpeechListener == null && droidSpeechResultListener == null)
+        {
+            Log.i(TAG, "Droid speech live result = " + liveResult.getText());
+        }
+        else
+        {
+            // Setting the progress message
+            setRecognitionProgressMsg(liveResult.getText());
+
+            if(droidSpeechListener != null)
+            {
+                // Sending an update with the droid speech live result
+                droidSpeechListener.onDroidSpeechLiveResult(liveResult.getText());
+            }
+
+            if(droidSpeechResultListener != null)
+            {
+                // Sending an update with the droid speech live result alternatives
+                droidSpeechResultListener.onDroidSpeechLiveResult(liveResult);
+            }
+        }
+
+        // Sending an update with the changed words of the live result
+        sendPartialDelta(liveResult.getText(), false);
+
+        if(transcriptJournal != null && dsProperties.journalPartials)
+        {
+            // Appending the live result to the transcript journal
+            transcriptJournal.append(TranscriptRecord.TYPE_PARTIAL, dsProperties.sessionId, System.currentTimeMillis(), liveResult.getText());
+        }
+
+        DroidSpeechTrace.endSection();
+    }
+
+    /**
+     * Sends the final result to the droid speech listeners
+     *
+     * @param finalResult The final result
+     */
+    private void sendFinalResult(DroidSpeechResult finalResult)
+    {
+        DroidSpeechTrace.beginSection("DroidSpeech:sendFinalResult");
+
+        // Delivering the pending live updates first, keeping the live results ahead of the final result
+        frameCoalescer.flush();
+
+        if(transcriptJournal != null)
+        {
+            // Appending the final result to the transcript journal before any listener work
+            transcriptJournal.append(TranscriptRecord.TYPE_FINAL, dsProperties.sessionId, System.currentTimeMillis(), finalResult.getText());
+        }
+
+        if(droidSpeechListener == null && droidSpeechResultListener == null)
+        {
+            Log.i(TAG, "Droid speech final result = " + finalResult.getText());
+        }
+
+        if(droidSpeechListener != null)
+        {
+            droidSpeechListener.onDroidSpeechFinalResult(finalResult.getText());
+        }
+
+        if(droidSpeechResultListener != null)
+        {
+            droidSpeechResultListener.onDroidSpeechFinalResult(finalResult);
+        }
+
+        // Sending an update with the final delta, committing all the words
+        sendPartialDelta(finalResult.getText(), true);
+
+        // Sending the command if it wasn't sent ahead, along with the time saved
+        dispatchCommand(finalResult.getText(), true);
+
+        DroidSpeechTrace.endSection();
+    }
+
+    /**
+     * Sends the changed words of the hypothesis to the droid speech partial delta listener if applicable
+     *
+     * @param hypothesis The hypothesis
+     *
+     * @param isFinal The final hypothesis status
+     */
+    private void sendPartialDelta(String hypothesis, boolean isFinal)
+    {
+        if(droidSpeechPartialDeltaListener == null) return;
+
+        PartialDelta partialDelta = partialDiffer.diff(hypothesis, isFinal);
+        if(partialDelta != null)
+        {
+            droidSpeechPartialDeltaListener.onDroidSpeechPartialDelta(partialDelta);
+        }
+    }
+
+    /**
+     * Matches the hypothesis against the registered commands, a command is sent once per session
+     *
+     * @param hypothesis The hypothesis
+     *
+     * @param isFinal The final hypothesis status, the time saved is sent with the final hypothesis
+     */
+    private void dispatchCommand(String hypothesis, boolean isFinal)
+    {
+        if(droidSpeechCommandListener == null || commandGrammar.isEmpty()) return;
+
+        if(dsProperties.dispatchedCommand == null)
+        {
+            DroidSpeechCommand command = commandGrammar.match(hypothesis, isFinal);
+            if(command == null) return;
+
+            dsProperties.dispatchedCommand = command;
+            dsProperties.commandDispatchTime = Clocks.millis();
+
+            // Sending an update with the matched command
+            droidSpeechCommandListener.onDroidSpeechCommand(command);
+        }
+
+        if(isFinal)
+        {
+            // Sending an update with the time the command was sent ahead of the final result
+            droidSpeechCommandListener.onDroidSpeechCommandTimeSaved(dsProperties.dispatchedCommand, Clocks.millis() - dsProperties.commandDispatchTime);
+        }
+    }
+
+    /**
+     * Reports the error to the droid speech listeners, the error message is resolved from the
+     * precomputed error table
+     *
+     * @param code The error code
+     */
+    private void reportError(int code)
+    {
+        if(droidSpeechListener == null && droidSpeechErrorListener == null)
+        {
+            Log.e(TAG, "Droid speech error, code = " + code + ", " + errorTable.getMessage(code));
+            return;
+        }
+
+        long elapsedTime = dsProperties.startListeningTime > 0 ? Clocks.millis() - dsProperties.startListeningTime : 0;
+        DroidSpeechError droidSpeechError = errorTable.getError(code, elapsedTime);
+
+        if(droidSpeechListener != null)
+        {
+            droidSpeechListener.onDroidSpeechError(droidSpeechError.getMessage());
+        }
+
+        if(droidSpeechErrorListener != null)
+        {
+            droidSpeechErrorListener.onDroidSpeechError(droidSpeechError);
+        }
+    }
+
+    /**
+     * Mutes (or) un mutes the audio, the audio manager is only called when the state changes
+     *
+     * @param mute The mute audio status
+     */
+    private void muteAudio(Boolean mute)
+    {
+        if(mute)
+        {
+            beepSuppressor.suppress();
+        }
+        else
+        {
+            beepSuppressor.restore();
+        }
+    }
+
+    /**
+     * Cancels the droid speech operations
+     */
+    private void cancelDroidSpeechOperations()
+    {
+        // Canceling the running session, the recognizer stays bound for the next session
+        speechEngine.cancel();
+
+        markSessionEnded();
+    }
+
+    /**
+     * Closes the droid speech operations
+     */
+    private void closeDroidSpeech()
+    {
+        cancelDroidSpeechOperations();
+
+        // Removing the pending live result commit if applicable
+        if(dsProperties.liveResultCommit != null)
+        {
+            Clocks.scheduler().cancel(dsProperties.liveResultCommit);
+            dsProperties.liveResultCommit = null;
+        }
+
+        // If audio beep was muted, enabling it again and forgetting the user's stream state
+        beepSuppressor.release();
+    }
+
+    // MARK: Droid Speech Public Methods
+
+    /**
+     * Sets the preferred language, applied from the next session
+     *
+     * @param language The language code
+     */
+    public void setPreferredLanguage(String language)
+    {
+        if(dsProperties.supportedSpeechLanguages.contains(language))
+        {
+            dsProperties.currentSpeechLanguage = language;
+
+            // Switching the speech intent, the bound recognizer is kept for the next session
+            updateSpeechIntent();
+        }
+    }
+
+    /**
+     * Sets the listening msg when droid speech is listening to user
+     *
+     * @param listeningMsg The desired listening msg
+     */
+    public void setListeningMsg(String listeningMsg)
+    {
+        if(dsProperties.listeningMsg != null)
+        {
+            dsProperties.listeningMsg = listeningMsg;
+        }
+    }
+
+    /**
+     * Sets the one step verify confirm text
+     *
+     * @param confirmText The desired confirm text
+     */
+    public void setOneStepVerifyConfirmText(String confirmText)
+    {
+        dsProperties.oneStepVerifyConfirmText = confirmText;
+
+        if(confirm != null)
+        {
+            confirm.setText(confirmText);
+        }
+    }
+
+    /**
+     * Sets the one step verify retry text
+     *
+     * @param retryText The desired retry text
+     */
+    public void setOneStepVerifyRetryText(String retryText)
+    {
+        dsProperties.oneStepVerifyRetryText = retryText;
+
+        if(retry != null)
+        {
+            retry.setText(retryText);
+        }
+    }
+
+    /**
+     * Sets the offline speech recognition status
+     *
+     * NOTE: Default is false, sdk version should be API 23 and above, speech package
+     * installed needs to be checked beforehand independently
+     *
+     * @param offlineSpeechRecognition The offline speech recognition status
+     */
+    @TargetApi(Build.VERSION_CODES.M)
+    public void setOfflineSpeechRecognition(boolean offlineSpeechRecognition)
+    {
+        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.M)
+        {
+            dsProperties.offlineSpeechRecognition = offlineSpeechRecognition;
+
+            // Switching the speech intent, the bound recognizer is kept for the next session
+            updateSpeechIntent();
+        }
+    }
+
+    /**
+     * Gets the continuous speech recognition status
+     *
+     * @return The continuous speech recognition status
+     */
+    public boolean getContinuousSpeechRecognition()
+    {
+        return dsProperties.continuousSpeechRecognition;
+    }
+
+    /**
+     * Sets the continuous speech recognition status
+     *
+     * NOTE: Default is true
+     *
+     * @param continuousSpeechRecognition The continuous speech recognition status
+     */
+    public void setContinuousSpeechRecognition(boolean continuousSpeechRecognition)
+    {
+        dsProperties.continuousSpeechRecognition = continuousSpeechRecognition;
+    }
+
+    /**
+     * Sets the show recognition progress view status
+     *
+     * NOTE: Default is false
+     *
+     * @param showRecognitionProgressView The show recognition progress view status
+     */
+    public void setShowRecognitionProgressView(boolean showRecognitionProgressView)
+    {
+        dsProperties.showRecognitionProgressView = showRecognitionProgressView;
+    }
+
+    /**
+     * Prewarms the recognition progress view, inflating it once the calling thread's message queue is idle
+     * instead of on the first recognition
+     *
+     * NOTE: Should be called from the main thread, the view is inflated lazily on first use otherwise
+     */
+    public void prewarmRecognitionProgressView()
+    {
+        if(speechProgressAlertDialog != null || Looper.myLooper() == null) return;
+
+        Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+            @Override
+            public boolean queueIdle() {
+
+                // Inflating the recognition progress view while the main thread is idle
+                initRecognitionProgressView();
+
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Sets the one step result verify status
+     *
+     * NOTE: Default is "false", if "true" will be applicable only when recognition progress view is enabled
+     *
+     * @param oneStepResultVerify True - result will be verified with user, False - if otherwise
+     */
+    public void setOneStepResultVerify(boolean oneStepResultVerify)
+    {
+        dsProperties.oneStepResultVerify = oneStepResultVerify;
+    }
+
+    /**
+     * Sets the recognition progress view colors
+     *
+     * NOTE: Should be of length 5
+     *
+     * @param colors The recognition progress view colors
+     */
+    public void setRecognitionProgressViewColors(int[] colors)
+    {
+        dsProperties.recognitionProgressViewColors = colors;
+
+        if(recognitionProgressView != null)
+        {
+            recognitionProgressView.setColors(colors);
+        }
+    }
+
+    /**
+     * Sets the recognition progress message color
+     *
+     * @param color The recognition progress message color
+     */
+    public void setRecognitionProgressMsgColor(int color)
+    {
+        dsProperties.recognitionProgressMsgColor = color;
+
+        if(recognitionProgressMsg != null)
+        {
+            recognitionProgressMsg.setTextColor(color);
+        }
+    }
+
+    /**
+     * Sets the one step verify confirm text color
+     *
+     * @param color The desired color
+     */
+    public void setOneStepVerifyConfirmTextColor(int color)
+    {
+        dsProperties.oneStepVerifyConfirmTextColor = color;
+
+        if(confirm != null)
+        {
+            confirm.setTextColor(color);
+        }
+    }
+
+    /**
+     * Sets the one step verify retry text color
+     *
+     * @param color The desired color
+     */
+    public void setOneStepVerifyRetryTextColor(int color)
+    {
+        dsProperties.oneStepVerifyRetryTextColor = color;
+
+        if(retry != null)
+        {
+            retry.setTextColor(color);
+        }
+    }
+
+    /**
+     * Starts the droid speech recognition
+     *
+     * NOTE: Ignored while a session is already running
+     *
+     * Trigger Listeners - onDroidSpeechError(int errorType)
+     */
+    public void startDroidSpeechRecognition()
+    {
+        boolean freshStart = recognitionSession.is(SessionState.IDLE) || recognitionSession.is(SessionState.CLOSED);
+
+        if(!recognitionSession.transition(SessionState.STARTING))
+        {
+            Log.w(TAG, "Droid speech is already running, state = " + recognitionSession.getState());
+            return;
+        }
+
+        // A restart scheduled by an earlier session no longer applies
+        dsProperties.sessionGeneration++;
+        cancelScheduledRestart();
+
+        if(freshStart)
+        {
+            // Starting afresh, the idle time and the restart backoff begin from now
+            dsProperties.lastSpeechTime = Clocks.millis();
+            dsProperties.sessionId = System.currentTimeMillis();
+
+            // No restart gap is measured across a fresh start
+            dsProperties.sessionEndTime = -1;
+            dsProperties.wakePhraseArmed = false;
+            restartPolicy.reset();
+        }
+
+        // Listening to the network changes while droid speech is running
+        dsProperties.pausedForNetwork = false;
+        connectivityMonitor.addListener(droidSpeechNetworkListener);
+
+        if(connectivityMonitor.getSnapshot().isConnected() || dsProperties.offlineSpeechRecognition)
+        {
+            if(droidSpeechPermissions == null || droidSpeechPermissions.checkForAudioPermissions(context))
+            {
+                playRecognitionProgressView(true);
+
+                // Setting the progress message to listening
+                setRecognitionProgressMsg(dsProperties.listeningMsg);
+
+                dsProperties.startListeningTime = Clocks.millis();
+                latencyMetrics.onSessionStarted(dsProperties.startListeningTime);
+
+                // Tracing the session until it ends
+                dsProperties.traceCookie++;
+                DroidSpeechTrace.beginAsyncSection(DroidSpeechTrace.SESSION, dsProperties.traceCookie);
+                dsProperties.pauseAndSpeakTime = dsProperties.startListeningTime;
+                dsProperties.liveSpeechResult = null;
+                partialDiffer.reset();
+
+                dsProperties.dispatchedCommand = null;
+
+                // A wake phrase said on its own in the previous session lets this session through
+                dsProperties.spottedWakePhrase = null;
+                dsProperties.wakePhraseSessionArmed = dsProperties.wakePhraseArmed;
+                dsProperties.wakePhraseArmed = false;
+
+                endpointDetector.reset();
+
+                if(speechIntent == null || audioManager == null)
+                {
+                    // Initializing the droid speech properties if found not initialized
+                    initDroidSpeechProperties();
+                }
+
+                // Releasing the microphone from the pre-roll capture without blocking, listening starts
+                // once it is released
+                preRollBuffer.endGap(startListeningRunnable);
+            }
+            else
+            {
+                // Not listening until the permission is granted, droid speech is started again then
+                recognitionSession.transition(SessionState.IDLE);
+
+                // Requesting audio permissions
+                droidSpeechPermissions.requestForAudioPermission();
+            }
+        }
+        else
+        {
+            recognitionSession.transition(SessionState.IDLE);
+
+            playRecognitionProgressView(false);
+
+            // Resuming once the network is back if applicable
+            dsProperties.pausedForNetwork = true;
+
+            // Sending an update that there was a network error
+            reportError(DroidSpeechError.ERROR_INTERNET_NOT_ENABLED);
+        }
+    }
+
+    /**
+     * Starts listening once the microphone is free, unless the session was closed in the mean time
+     */
+    private final Runnable startListeningRunnable = new Runnable() {
+
+        @Override
+        public void run()
+        {
+            if(!recognitionSession.is(SessionState.STARTING)) return;
+
+            // Starting the microphone capture if applicable
+            audioCapture.start();
+
+            // Start Listening, any running session on the warm recognizer is canceled first
+            speechEngine.startListening(speechIntent);
+
+            // Handing the speech captured during the restart gap to the new session if applicable
+            preRollBuffer.handOver(speechEngine);
+        }
+    };
+
+    /**
+     * Closes the entire droid speech operations
+     */
+    public void closeDroidSpeechOperations()
+    {
+        recognitionSession.transition(SessionState.CLOSED);
+
+        // No restart is due after closing
+        cancelScheduledRestart();
+
+        playRecognitionProgressView(false);
+
+        setRecognitionProgressMsg("");
+
+        closeDroidSpeech();
+
+        // Releasing the recognizer as no further session is expected
+        speechEngine.destroy();
+
+        // Stopping the microphone capture if applicable, released on the capture thread without blocking
+        audioCapture.stop(null);
+        preRollBuffer.cancel();
+
+        // Dropping the pending live updates
+        frameCoalescer.cancel();
+
+        // No longer listening to the network changes
+        dsProperties.pausedForNetwork = false;
+        Clocks.scheduler().cancel(networkLossRunnable);
+        connectivityMonitor.removeListener(droidSpeechNetworkListener);
+    }
+
+    /**
+     * Registers a voice command, matched against the whole speech of each session. A command is
+     * sent from the live results as soon as no other (or longer) command can match, which saves
+     * the wait for the final result
+     *
+     * NOTE: The phrase is matched case insensitive on whole words with the punctuation ignored, a
+     * slot written as {name} captures one or more words (e.g. "call {name} on speaker"), a slot
+     * ending the phrase is only matched in the final result
+     *
+     * @param id The command id, sent back with the command
+     *
+     * @param phrase The command phrase
+     *
+     * @throws IllegalArgumentException If the phrase has no words, or two slots follow each other
+     */
+    public void addCommand(String id, String phrase)
+    {
+        commandGrammar.add(id, phrase);
+    }
+
+    /**
+     * Removes all the registered voice commands
+     */
+    public void clearCommands()
+    {
+        commandGrammar.clear();
+    }
+
+    /**
+     * Sets the vocabulary the final result alternatives are fuzzy matched against, the closest entry
+     * is set as the best match of the final result (see DroidSpeechResult.getBestMatch())
+     *
+     * NOTE: Default is null (no matching), the entries are matched case insensitive with the
+     * punctuation ignored
+     *
+     * @param vocabulary The vocabulary entries, null (or) empty to disable the matching
+     */
+    public void setVocabulary(List<String> vocabulary)
+    {
+        vocabularyMatcher.clear();
+
+        if(vocabulary == null) return;
+
+        for(String entry : vocabulary)
+        {
+            vocabularyMatcher.add(entry);
+        }
+    }
+
+    /**
+     * Sets the fuzzy match distance, the most character edits (insertions, deletions or
+     * substitutions) between an alternative and a vocabulary entry for them to match
+     *
+     * NOTE: Default is 2
+     *
+     * @param fuzzyMatchDistance The fuzzy match distance, 0 for exact matches only
+     */
+    public void setFuzzyMatchDistance(int fuzzyMatchDistance)
+    {
+        dsProperties.fuzzyMatchDistance = Math.max(0, fuzzyMatchDistance);
+    }
+
+    /**
+     * Sets the wake phrases, only the speech after a wake phrase is sent to the droid speech listeners
+     * (the utterances without one are dropped). A wake phrase said on its own lets the next session
+     * through without one
+     *
+     * NOTE: Default is null (wake phrase mode disabled), the phrases are matched case insensitive on
+     * whole words with the punctuation ignored
+     *
+     * @param wakePhrases The wake phrases, null (or) empty to disable the wake phrase mode
+     */
+    public void setWakePhrases(List<String> wakePhrases)
+    {
+        wakePhraseSpotter.setPhrases(wakePhrases);
+    }
+
+    /**
+     * Sets the wake phrase early cancel status, if "true" the wake phrase has to start the utterance
+     * and the session is cut short as soon as the live result can no longer start with one
+     *
+     * NOTE: Default is false
+     *
+     * @param wakePhraseEarlyCancel The wake phrase early cancel status
+     */
+    public void setWakePhraseEarlyCancel(boolean wakePhraseEarlyCancel)
+    {
+        dsProperties.wakePhraseEarlyCancel = wakePhraseEarlyCancel;
+    }
+
+    /**
+     * Sets the voice activity endpointing status
+     *
+     * NOTE: Default is true, if "true" the live result is taken as final as soon as trailing silence
+     * is detected in the rms stream, if "false" a fixed pause of 500 milliseconds between live results
+     * (plus a further 500 milliseconds delay) is used instead
+     *
+     * @param voiceActivityEndpointing The voice activity endpointing status
+     */
+    public void setVoiceActivityEndpointing(boolean voiceActivityEndpointing)
+    {
+        dsProperties.voiceActivityEndpointing = voiceActivityEndpointing;
+    }
+
+    /**
+     * Sets the number of consecutive silent rms frames needed to confirm the end of an utterance
+     *
+     * NOTE: Default is 8
+     *
+     * @param hangoverFrames The hangover frames
+     */
+    public void setEndpointHangoverFrames(int hangoverFrames)
+    {
+        endpointDetector.setHangoverFrames(hangoverFrames);
+    }
+
+    /**
+     * Sets the minimum speech duration, shorter bursts of sound are not treated as an utterance
+     *
+     * NOTE: Default is 200 milliseconds
+     *
+     * @param minSpeechDuration The minimum speech duration in milliseconds
+     */
+    public void setEndpointMinSpeechDuration(long minSpeechDuration)
+    {
+        endpointDetector.setMinSpeechDuration(minSpeechDuration);
+    }
+
+    /**
+     * Gets the endpoint latency of the last utterance, the trailing silence waited for before the
+     * live result was taken as final
+     *
+     * @return The endpoint latency in milliseconds, -1 if no utterance was endpointed yet
+     */
+    public long getLastEndpointLatency()
+    {
+        return endpointDetector.getLastEndpointLatency();
+    }
+
+    /**
+     * Sets the restart policy used when a session ends without a result in continuous mode
+     *
+     * NOTE: Default is a {@link BackoffRestartPolicy}
+     *
+     * @param restartPolicy The restart policy
+     */
+    public void setRestartPolicy(RestartPolicy restartPolicy)
+    {
+        if(restartPolicy != null)
+        {
+            this.restartPolicy = restartPolicy;
+        }
+    }
+
+    /**
+     * Gets the number of restarts executed
+     *
+     * @return The executed restarts count
+     */
+    public int getExecutedRestartCount()
+    {
+        return dsProperties.executedRestarts;
+    }
+
+    /**
+     * Gets the number of restarts suppressed, either by the restart policy or because the session
+     * was closed before the restart was due
+     *
+     * @return The suppressed restarts count
+     */
+    public int getSuppressedRestartCount()
+    {
+        return dsProperties.suppressedRestarts;
+    }
+
+    /**
+     * Sets the frame aligned dispatch status
+     *
+     * NOTE: Default is false, if "true" the rms and live result updates are merged and delivered at most
+     * once per display frame (the max rms and the latest live result win)
+     *
+     * @param frameAlignedDispatch The frame aligned dispatch status
+     */
+    public void setFrameAlignedDispatch(boolean frameAlignedDispatch)
+    {
+        dsProperties.frameAlignedDispatch = frameAlignedDispatch;
+
+        if(!frameAlignedDispatch)
+        {
+            // Delivering any pending updates right away
+            frameCoalescer.flush();
         }
     }
 
     /**
-     * Sets the listening msg when droid speech is listening to user
+     * Gets the number of rms and live result updates merged into another update by the frame aligned dispatch
+     *
+     * @return The coalesced updates count
+     */
+    public int getCoalescedUpdateCount()
+    {
+        return frameCoalescer.getCoalescedCount();
+    }
+
+    /**
+     * Sets the transcript journal the results are appended to, each record carries the session id
+     * (the time droid speech recognition was started at) and the time the result was received at
+     *
+     * NOTE: Default is null (no journal), the journal is not closed by droid speech
+     *
+     * @param transcriptJournal The transcript journal, opened with TranscriptJournal.open(File)
+     *
+     * @param includePartials True - the live results are appended as well, False - only the final results
+     */
+    public void setTranscriptJournal(TranscriptJournal transcriptJournal, boolean includePartials)
+    {
+        this.transcriptJournal = transcriptJournal;
+        dsProperties.journalPartials = includePartials;
+    }
+
+    /**
+     * Gets a snapshot of the session latency histograms (time to ready, time to first partial, end of
+     * speech to final and restart gap), can be polled from any thread
+     *
+     * @return The latency metrics snapshot
+     */
+    public LatencyMetrics getLatencyMetrics()
+    {
+        return latencyMetrics.snapshot();
+    }
+
+    /**
+     * Gets the number of speech recognizers created by droid speech and not yet destroyed, across all
+     * the droid speech instances of the process, for leak diagnostics
+     *
+     * NOTE: Each droid speech instance keeps one bound recognizer (two with the standby recognizer)
+     * until closeDroidSpeechOperations() is called
+     *
+     * @return The live recognizer count
+     */
+    public static int getLiveRecognizerCount()
+    {
+        return RecognizerLifecycle.getLiveRecognizerCount();
+    }
+
+    /**
+     * Sets the tracing status, when enabled android.os.Trace sections (API 18 and above) and async
+     * session, restart and finalize events (API 29 and above) are emitted for systrace / perfetto
+     *
+     * NOTE: Default is false, applies to every droid speech instance
+     *
+     * @param tracingEnabled The tracing status
+     */
+    public static void setTracingEnabled(boolean tracingEnabled)
+    {
+        DroidSpeechTrace.enabled = tracingEnabled;
+    }
+
+    /**
+     * Sets the monotonic clock used for the droid speech timing and the recognition progress animations
+     *
+     * NOTE: Default is the system clock (System.nanoTime()), the transcript journal timestamps are not
+     * affected. A clock which is also a DroidSpeechScheduler (e.g. the VirtualClock) runs the restarts,
+     * the live result finalization and the network loss grace time as well, instead of the main looper
+     *
+     * @param clock The clock, null restores the system clock
+     */
+    public static void setClock(DroidSpeechClock clock)
+    {
+        Clocks.setClock(clock);
+    }
+
+    /**
+     * Gets the network snapshot droid speech checks before starting a session
+     *
+     * @return The network snapshot
+     */
+    public NetworkSnapshot getNetworkSnapshot()
+    {
+        return connectivityMonitor.getSnapshot();
+    }
+
+    /**
+     * Gets the current recognition session state
+     *
+     * @return The session state
+     */
+    public SessionState getSessionState()
+    {
+        return recognitionSession.getState();
+    }
+
+    /**
+     * Sets the audio capture source
      *
-     * @param listeningMsg The desired listening msg
+     * NOTE: Default is {@link AudioCaptureSource#NONE}, the captured audio is written into a
+     * preallocated ring buffer and handed to the audio listener as read only views
+     *
+     * @param audioCaptureSource The audio capture source
      */
-    public void setListeningMsg(String listeningMsg)
+    public void setAudioCaptureSource(AudioCaptureSource audioCaptureSource)
     {
-        if(dsProperties.listeningMsg != null)
-        {
-            dsProperties.listeningMsg = listeningMsg;
-        }
+        audioCapture.setSource(audioCaptureSource);
     }
 
     /**
-     * Sets the one step verify confirm text
+     * Sets the droid speech audio listener
      *
-     * @param confirmText The desired confirm text
+     * @param audioListener The audio listener
      */
-    public void setOneStepVerifyConfirmText(String confirmText)
+    public void setOnDroidSpeechAudioListener(OnDSAudioListener audioListener)
     {
-        if(confirm != null)
-        {
-            confirm.setText(confirmText);
-        }
+        audioCapture.setOnDroidSpeechAudioListener(audioListener);
     }
 
     /**
-     * Sets the one step verify retry text
+     * Gets the audio capture ring buffer
      *
-     * @param retryText The desired retry text
+     * @return The ring buffer, "null" if no audio capture source was set
      */
-    public void setOneStepVerifyRetryText(String retryText)
+    public AudioRingBuffer getAudioRingBuffer()
     {
-        if(retry != null)
-        {
-            retry.setText(retryText);
-        }
+        return audioCapture.getRingBuffer();
     }
 
     /**
-     * Sets the offline speech recognition status
+     * Sets the pre-roll duration, the microphone is captured while a session is restarting and up to
+     * this much of the newest audio is handed to the next session
      *
-     * NOTE: Default is false, sdk version should be API 23 and above, speech package
-     * installed needs to be checked beforehand independently
+     * NOTE: Default is 0 (disabled), the audio is handed over only to engines implementing
+     * {@link AudioInputEngine}, the android speech recognizer doesn't accept audio input
      *
-     * @param offlineSpeechRecognition The offline speech recognition status
+     * @param preRollDuration The pre-roll duration in milliseconds
      */
-    @TargetApi(Build.VERSION_CODES.M)
-    public void setOfflineSpeechRecognition(boolean offlineSpeechRecognition)
+    public void setPreRollDuration(long preRollDuration)
     {
-        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.M)
-        {
-            dsProperties.offlineSpeechRecognition = offlineSpeechRecognition;
-
-            // Reinitializing the speech properties
-            initDroidSpeechProperties();
-        }
+        preRollBuffer.setDuration(preRollDuration);
     }
 
     /**
-     * Gets the continuous speech recognition status
+     * Gets the pre-roll audio recovered from the last restart gap
      *
-     * @return The continuous speech recognition status
+     * @return The recovered audio in milliseconds, -1 if no gap was captured yet
      */
-    public boolean getContinuousSpeechRecognition()
+    public long getLastPreRollRecovered()
     {
-        return dsProperties.continuousSpeechRecognition;
+        return preRollBuffer.getLastRecovered();
     }
 
     /**
-     * Sets the continuous speech recognition status
+     * Gets the pre-roll audio dropped from the last restart gap, either because it didn't fit the
+     * pre-roll duration or because the engine doesn't accept audio input
      *
-     * NOTE: Default is true
-     *
-     * @param continuousSpeechRecognition The continuous speech recognition status
+     * @return The dropped audio in milliseconds, -1 if no gap was captured yet
      */
-    public void setContinuousSpeechRecognition(boolean continuousSpeechRecognition)
+    public long getLastPreRollDropped()
     {
-        dsProperties.continuousSpeechRecognition = continuousSpeechRecognition;
+        return preRollBuffer.getLastDropped();
     }
 
     /**
-     * Sets the show recognition progress view status
+     * Sets the beep suppression audio focus status, the other players are asked to pause between the
+     * continuous recognition restarts instead of muting the music stream
      *
      * NOTE: Default is false
      *
-     * @param showRecognitionProgressView The show recognition progress view status
+     * @param audioFocusEnabled The beep suppression audio focus status
      */
-    public void setShowRecognitionProgressView(boolean showRecognitionProgressView)
+    public void setBeepSuppressionAudioFocus(boolean audioFocusEnabled)
     {
-        dsProperties.showRecognitionProgressView = showRecognitionProgressView;
+        beepSuppressor.setAudioFocusEnabled(audioFocusEnabled);
     }
 
     /**
-     * Sets the one step result verify status
-     *
-     * NOTE: Default is "false", if "true" will be applicable only when recognition progress view is enabled
+     * Gets the number of audio manager calls the beep suppression skipped as the requested mute
+     * state was already applied
      *
-     * @param oneStepResultVerify True - result will be verified with user, False - if otherwise
+     * @return The avoided audio manager calls
      */
-    public void setOneStepResultVerify(boolean oneStepResultVerify)
+    public int getAvoidedAudioManagerCalls()
     {
-        dsProperties.oneStepResultVerify = oneStepResultVerify;
+        return beepSuppressor.getAvoidedCalls();
     }
 
     /**
-     * Sets the recognition progress view colors
+     * Sets the speech engine droid speech runs its sessions on
      *
-     * NOTE: Should be of length 5
+     * NOTE: Default is the android speech recognizer, the previous engine is destroyed
      *
-     * @param colors The recognition progress view colors
+     * @param speechEngine The speech engine, "null" restores the android speech recognizer
      */
-    public void setRecognitionProgressViewColors(int[] colors)
+    public void setSpeechEngine(SpeechEngine speechEngine)
     {
-        if(recognitionProgressView != null)
+        if(speechEngine == null)
         {
-            recognitionProgressView.setColors(colors);
+            speechEngine = recognizerLifecycle;
         }
-    }
 
-    /**
-     * Sets the recognition progress message color
-     *
-     * @param color The recognition progress message color
-     */
-    public void setRecognitionProgressMsgColor(int color)
-    {
-        if(recognitionProgressMsg != null)
+        if(this.speechEngine != speechEngine)
         {
-            recognitionProgressMsg.setTextColor(color);
+            this.speechEngine.destroy();
+            this.speechEngine = speechEngine;
+            this.speechEngine.setEngineListener(droidSpeechEngineListener);
         }
     }
 
     /**
-     * Sets the one step verify confirm text color
+     * Sets the standby recognizer status
      *
-     * @param color The desired color
+     * NOTE: Default is false, if "true" a second recognizer is kept ready to replace the active
+     * recognizer when it reports being busy, applicable only to the android speech recognizer engine
+     *
+     * @param standbyRecognizer The standby recognizer status
      */
-    public void setOneStepVerifyConfirmTextColor(int color)
+    public void setStandbyRecognizer(boolean standbyRecognizer)
     {
-        if(confirm != null)
-        {
-            confirm.setTextColor(color);
-        }
+        recognizerLifecycle.setStandbyEnabled(standbyRecognizer);
     }
 
     /**
-     * Sets the one step verify retry text color
+     * Gets the last restart gap, the time between the end of a session and the warm recognizer
+     * being ready for speech again
      *
-     * @param color The desired color
+     * @return The last restart gap in milliseconds, -1 if not measured yet
      */
-    public void setOneStepVerifyRetryTextColor(int color)
+    public long getLastRestartGap()
     {
-        if(retry != null)
-        {
-            retry.setTextColor(color);
-        }
+        return dsProperties.lastRestartGap;
     }
 
+    // MARK: Droid Speech Network Listener
+
     /**
-     * Starts the droid speech recognition
-     *
-     * Trigger Listeners - onDroidSpeechError(int errorType)
+     * The droid speech network listener, stops the session when the network stays lost mid session and
+     * resumes continuous speech recognition once the network is back
      */
-    public void startDroidSpeechRecognition()
-    {
-        dsProperties.closedByUser = false;
+    private final ConnectivityMonitor.OnNetworkChangedListener droidSpeechNetworkListener = new ConnectivityMonitor.OnNetworkChangedListener() {
 
-        if(Extensions.isInternetEnabled(context) || dsProperties.offlineSpeechRecognition)
+        @Override
+        public void onNetworkChanged(NetworkSnapshot networkSnapshot)
         {
-            if(droidSpeechPermissions == null || droidSpeechPermissions.checkForAudioPermissions(context))
-            {
-                playRecognitionProgressView(true);
+            if(dsProperties.offlineSpeechRecognition) return;
 
-                // Setting the progress message to listening
-                setRecognitionProgressMsg(dsProperties.listeningMsg);
+            if(!networkSnapshot.isConnected())
+            {
+                if(!recognitionSession.isListening() && !recognitionSession.is(SessionState.RESTARTING)) return;
 
-                dsProperties.startListeningTime = System.currentTimeMillis();
-                dsProperties.pauseAndSpeakTime = dsProperties.startListeningTime;
-                dsProperties.speechResultFound = false;
+                // A handoff (e.g. wifi to cellular) briefly reports no network, the loss is only
+                // treated as final if the network isn't back within the grace time
+                Clocks.scheduler().cancel(networkLossRunnable);
+                Clocks.scheduler().schedule(networkLossRunnable, Extensions.NETWORK_LOSS_GRACE_TIME);
+            }
+            else
+            {
+                Clocks.scheduler().cancel(networkLossRunnable);
 
-                if(droidSpeechRecognizer == null || speechIntent == null || audioManager == null)
+                if(dsProperties.pausedForNetwork && recognitionSession.is(SessionState.IDLE))
                 {
-                    // Initializing the droid speech properties if found not initialized
-                    initDroidSpeechProperties();
+                    dsProperties.pausedForNetwork = false;
+
+                    if(dsProperties.continuousSpeechRecognition)
+                    {
+                        // Resuming droid speech recognition as the network is back
+                        startDroidSpeechRecognition();
+                    }
                 }
+            }
+        }
+    };
 
-                // Setting the droid speech recognizer listener
-                droidSpeechRecognizer.setRecognitionListener(new RecognitionListener() {
+    /**
+     * Stops the session if the network is still lost once the grace time passed
+     */
+    private final Runnable networkLossRunnable = new Runnable() {
 
-                    @Override
-                    public void onReadyForSpeech(Bundle bundle)
-                    {
-                        // If audio beep was muted, enabling it again
-                        muteAudio(false);
+        @Override
+        public void run()
+        {
+            if(dsProperties.offlineSpeechRecognition || connectivityMonitor.getSnapshot().isConnected()) return;
 
-                        dsProperties.onReadyForSpeech = true;
-                    }
+            if(!recognitionSession.isListening() && !recognitionSession.is(SessionState.RESTARTING)) return;
 
-                    @Override
-                    public void onBeginningOfSpeech()
-                    {
-                        // NA
-                    }
+            // Stopping the session right away instead of waiting for the recognizer network error
+            cancelScheduledRestart();
 
-                    @Override
-                    public void onRmsChanged(float rmsdB)
-                    {
-                        if(dsProperties.showRecognitionProgressView && speechProgressAlertDialog != null && recognitionProgressView != null)
-                        {
-                            recognitionProgressView.rmsValue(rmsdB);
-                        }
+            recognitionSession.transition(SessionState.IDLE);
+            preRollBuffer.cancel();
+            closeDroidSpeech();
+            playRecognitionProgressView(false);
 
-                        if(droidSpeechListener != null)
-                        {
-                            // Sending an update with the rms changed value
-                            droidSpeechListener.onDroidSpeechRmsChanged(rmsdB);
-                        }
-                    }
+            // Resuming once the network is back if applicable
+            dsProperties.pausedForNetwork = true;
 
-                    @Override
-                    public void onBufferReceived(byte[] bytes)
-                    {
-                        // NA
-                    }
+            // Sending an update that there was a network error
+            reportError(DroidSpeechError.ERROR_INTERNET_NOT_ENABLED);
+        }
+    };
 
-                    @Override
-                    public void onEndOfSpeech()
-                    {
-                        // NA
-                    }
+    // MARK: Droid Speech Recognition Listener
 
-                    @Override
-                    public void onError(int error)
-                    {
-                        if(dsProperties.closedByUser)
-                        {
-                            dsProperties.closedByUser = false;
+    /**
+     * The droid speech engine listener, shared across sessions of the warm recognizer
+     */
+    private final OnDSEngineListener droidSpeechEngineListener = new OnDSEngineListener() {
 
-                            return;
-                        }
+        @Override
+        public void onReadyForSpeech()
+        {
+            // Closing the restart gap of the warm recognizer
+            markReadyForSpeech();
 
-                        long duration = System.currentTimeMillis() - dsProperties.startListeningTime;
+            // If audio beep was muted, enabling it again
+            muteAudio(false);
 
-                        // If duration is less than the "error timeout" as the system didn't try listening to the user speech so ignoring
-                        if(duration < Extensions.ERROR_TIMEOUT && error == SpeechRecognizer.ERROR_NO_MATCH && !dsProperties.onReadyForSpeech) return;
+            recognitionSession.transition(SessionState.READY);
+        }
 
-                        if(dsProperties.onReadyForSpeech && duration < Extensions.AUDIO_BEEP_DISABLED_TIMEOUT)
-                        {
-                            // Disabling audio beep if less than "audio beep disabled timeout", as it will be
-                            // irritating for the user to hear the beep sound again and again
-                            muteAudio(true);
-                        }
-                        else
-                        {
-                            // If audio beep was muted, enabling it again
-                            muteAudio(false);
-                        }
+        @Override
+        public void onBeginningOfSpeech()
+        {
+            recognitionSession.transition(SessionState.SPEAKING);
 
-                        if(error == SpeechRecognizer.ERROR_NO_MATCH || error == SpeechRecognizer.ERROR_SPEECH_TIMEOUT || error == SpeechRecognizer.ERROR_AUDIO)
-                        {
-                            // Restart droid speech recognition
-                            restartDroidSpeechRecognition();
-                        }
-                        else if(droidSpeechListener == null)
-                        {
-                            Log.e(TAG, "Droid speech error, code = " + error);
-                        }
-                        else
-                        {
-                            if(error <= context.getResources().getStringArray(R.array.droid_speech_errors).length)
-                            {
-                                // Sending an update with the droid speech error
-                                droidSpeechListener.onDroidSpeechError(context.getResources().getStringArray(R.array.droid_speech_errors)[error-1]);
-                            }
-                            else
-                            {
-                                // Sending an update that there was an unknown error
-                                droidSpeechListener.onDroidSpeechError(context.getResources().getString(R.string.ds_unknown_error));
-                            }
-                        }
-                    }
+            onSpeechDetected();
+        }
 
-                    @SuppressWarnings("ConstantConditions")
-                    @Override
-                    public void onResults(Bundle results)
-                    {
-                        if(dsProperties.speechResultFound) return;
+        @Override
+        public void onRmsChanged(float rmsdB)
+        {
+            if(dsProperties.frameAlignedDispatch)
+            {
+                // Merging the rms updates, delivered on the next display frame
+                frameCoalescer.postRms(rmsdB);
+            }
+            else
+            {
+                dispatchRms(rmsdB);
+            }
 
-                        dsProperties.speechResultFound = true;
+            if(dsProperties.voiceActivityEndpointing && recognitionSession.isListening() &&
+                    endpointDetector.onRmsChanged(rmsdB, Clocks.millis()) && dsProperties.liveSpeechResult != null)
+            {
+                // Trailing silence confirmed, the latest live result is taken as final without waiting for the recognizer
+                finalizeLiveResult(dsProperties.liveSpeechResult, 0);
+            }
+        }
 
-                        // If audio beep was muted, enabling it again
-                        muteAudio(false);
+        @Override
+        public void onBufferReceived(byte[] bytes)
+        {
+            // Capturing the recognizer audio if applicable
+            audioCapture.onBufferReceived(bytes);
+        }
 
-                        Boolean valid = (results != null && results.containsKey(SpeechRecognizer.RESULTS_RECOGNITION) &&
-                                results.getStringArrayList(SpeechRecognizer.RESULTS_RECOGNITION) != null &&
-                                results.getStringArrayList(SpeechRecognizer.RESULTS_RECOGNITION).size() > 0 &&
-                                !results.getStringArrayList(SpeechRecognizer.RESULTS_RECOGNITION).get(0).trim().isEmpty());
+        @Override
+        public void onEndOfSpeech()
+        {
+            latencyMetrics.onEndOfSpeech(Clocks.millis());
+        }
 
-                        if(valid)
-                        {
-                            // Getting the droid speech final result
-                            String droidSpeechFinalResult = results.getStringArrayList(SpeechRecognizer.RESULTS_RECOGNITION).get(0);
-                            if(dsProperties.showRecognitionProgressView && dsProperties.oneStepResultVerify)
-                            {
-                                // Saving the speech result
-                                dsProperties.oneStepVerifySpeechResult = droidSpeechFinalResult;
-
-                                // Showing the confirm result layout
-                                confirmLayout.setVisibility(View.VISIBLE);
-
-                                // Closing droid speech operations, will be restarted when user clicks
-                                // cancel or confirm if applicable
-                                closeDroidSpeech();
-                            }
-                            else
-                            {
-                                if(droidSpeechListener == null)
-                                {
-                                    Log.i(TAG, "Droid speech final result = " + droidSpeechFinalResult);
-                                }
-                                else
-                                {
-                                    // Sending an update with the droid speech final result
-                                    droidSpeechListener.onDroidSpeechFinalResult(droidSpeechFinalResult);
-                                }
-
-                                if(dsProperties.continuousSpeechRecognition)
-                                {
-                                    // Start droid speech recognition again
-                                    startDroidSpeechRecognition();
-                                }
-                                else
-                                {
-                                    // Closing the droid speech operations
-                                    closeDroidSpeechOperations();
-                                }
-                            }
-                        }
-                        else
-                        {
-                            // No match found, restart droid speech recognition
-                            restartDroidSpeechRecognition();
-                        }
-                    }
+        @Override
+        public void onError(int error)
+        {
+            markSessionEnded();
 
-                    @SuppressWarnings("ConstantConditions")
-                    @Override
-                    public void onPartialResults(Bundle partialResults)
-                    {
-                        if(dsProperties.speechResultFound) return;
+            if(error == SpeechRecognizer.ERROR_RECOGNIZER_BUSY && speechEngine == recognizerLifecycle)
+            {
+                // Replacing the stuck recognizer with the standby one (if any)
+                recognizerLifecycle.recycle();
+            }
 
-                        Boolean valid = (partialResults != null && partialResults.containsKey(SpeechRecognizer.RESULTS_RECOGNITION) &&
-                                partialResults.getStringArrayList(SpeechRecognizer.RESULTS_RECOGNITION) != null &&
-                                partialResults.getStringArrayList(SpeechRecognizer.RESULTS_RECOGNITION).size() > 0 &&
-                                !partialResults.getStringArrayList(SpeechRecognizer.RESULTS_RECOGNITION).get(0).trim().isEmpty());
+            // Errors after the session was closed or a result was found are stale, ignoring
+            if(!recognitionSession.isListening()) return;
 
-                        if(valid)
-                        {
-                            final String droidLiveSpeechResult = partialResults.getStringArrayList(SpeechRecognizer.RESULTS_RECOGNITION).get(0);
-
-                            if(droidSpeechListener == null)
-                            {
-                                Log.i(TAG, "Droid speech live result = " + droidLiveSpeechResult);
-                            }
-                            else
-                            {
-                                // Setting the progress message
-                                setRecognitionProgressMsg(droidLiveSpeechResult);
-
-                                // Sending an update with the droid speech live result
-                                droidSpeechListener.onDroidSpeechLiveResult(droidLiveSpeechResult);
-                            }
-
-                            if((System.currentTimeMillis() - dsProperties.pauseAndSpeakTime) > Extensions.MAX_PAUSE_TIME)
-                            {
-                                dsProperties.speechResultFound = true;
-
-                                droidSpeechPartialResult.postDelayed(new Runnable() {
-
-                                    @Override
-                                    public void run() {
-
-                                        // Closing droid speech operations
-                                        closeDroidSpeech();
-
-                                        if(dsProperties.showRecognitionProgressView && dsProperties.oneStepResultVerify)
-                                        {
-                                            // Saving the speech result
-                                            dsProperties.oneStepVerifySpeechResult = droidLiveSpeechResult;
-
-                                            // Showing the confirm result layout
-                                            confirmLayout.setVisibility(View.VISIBLE);
-
-                                            // Closing droid speech operations, will be restarted when user clicks
-                                            // cancel or confirm if applicable
-                                            closeDroidSpeech();
-                                        }
-                                        else
-                                        {
-                                            if(droidSpeechListener == null)
-                                            {
-                                                Log.i(TAG, "Droid speech final result = " + droidLiveSpeechResult);
-                                            }
-                                            else
-                                            {
-                                                // Sending an update with the droid speech final result (Partial live result
-                                                // is taken as the final result in this case)
-                                                droidSpeechListener.onDroidSpeechFinalResult(droidLiveSpeechResult);
-
-                                                if(dsProperties.continuousSpeechRecognition)
-                                                {
-                                                    // Start droid speech recognition again
-                                                    startDroidSpeechRecognition();
-                                                }
-                                                else
-                                                {
-                                                    // Closing the droid speech operations
-                                                    closeDroidSpeechOperations();
-                                                }
-                                            }
-                                        }
-                                    }
-
-                                }, Extensions.PARTIAL_DELAY_TIME);
-                            }
-                            else
-                            {
-                                dsProperties.pauseAndSpeakTime = System.currentTimeMillis();
-                            }
-                        }
-                        else
-                        {
-                            dsProperties.pauseAndSpeakTime = System.currentTimeMillis();
-                        }
-                    }
+            boolean readyForSpeech = recognitionSession.hasEntered(SessionState.READY);
+            long duration = Clocks.millis() - dsProperties.startListeningTime;
 
-                    @Override
-                    public void onEvent(int i, Bundle bundle)
-                    {
-                        // NA
-                    }
-                });
+            // If duration is less than the "error timeout" as the system didn't try listening to the user speech so ignoring
+            if(duration < Extensions.ERROR_TIMEOUT && error == SpeechRecognizer.ERROR_NO_MATCH && !readyForSpeech) return;
 
-                // Canceling any running droid speech operations, before listening
-                cancelDroidSpeechOperations();
+            if(readyForSpeech && duration < Extensions.AUDIO_BEEP_DISABLED_TIMEOUT)
+            {
+                // Disabling audio beep if less than "audio beep disabled timeout", as it will be
+                // irritating for the user to hear the beep sound again and again
+                muteAudio(true);
+            }
+            else
+            {
+                // If audio beep was muted, enabling it again
+                muteAudio(false);
+            }
 
-                // Start Listening
-                droidSpeechRecognizer.startListening(speechIntent);
+            if(error == SpeechRecognizer.ERROR_NO_MATCH || error == SpeechRecognizer.ERROR_SPEECH_TIMEOUT || error == SpeechRecognizer.ERROR_AUDIO)
+            {
+                // Restart droid speech recognition
+                restartDroidSpeechRecognition(error);
+            }
+            else if(!recognitionSession.transition(SessionState.IDLE))
+            {
+                Log.w(TAG, "Droid speech error ignored, code = " + error);
             }
             else
             {
-                // Requesting audio permissions
-                droidSpeechPermissions.requestForAudioPermission();
+                // Sending an update with the droid speech error
+                reportError(error);
             }
         }
-        else
+
+        @Override
+        public void onResults(DroidSpeechResult droidSpeechFinalResult)
         {
-            playRecognitionProgressView(false);
+            // Only the first result of a session is taken, duplicate finals are dropped
+            if(!recognitionSession.transition(SessionState.FINALIZING)) return;
+
+            markSessionEnded();
 
-            if(droidSpeechListener == null)
+            // If audio beep was muted, enabling it again
+            muteAudio(false);
+
+            if(droidSpeechFinalResult == null)
+            {
+                // No match found, restart droid speech recognition
+                restartDroidSpeechRecognition(SpeechRecognizer.ERROR_NO_MATCH);
+                return;
+            }
+
+            // Only the speech after the wake phrase is delivered in the wake phrase mode
+            DroidSpeechResult wakePhraseResult = gateOnWakePhrase(droidSpeechFinalResult, true);
+
+            if(wakePhraseResult != null)
             {
-                Log.e(TAG, context.getResources().getString(R.string.ds_internet_not_enabled));
+                // Sending an update with the droid speech final result
+                deliverFinalResult(wakePhraseResult);
             }
             else
             {
-                // Sending an update that there was a network error
-                droidSpeechListener.onDroidSpeechError(context.getResources().getString(R.string.ds_internet_not_enabled));
+                // The wake phrase was said on its own, the next session is let through without it
+                dsProperties.wakePhraseArmed = dsProperties.spottedWakePhrase != null;
+
+                skipUtterance();
             }
         }
-    }
 
-    /**
-     * Closes the entire droid speech operations
-     */
-    public void closeDroidSpeechOperations()
-    {
-        playRecognitionProgressView(false);
+        @Override
+        public void onPartialResults(DroidSpeechResult partialResults)
+        {
+            if(!recognitionSession.isListening()) return;
 
-        setRecognitionProgressMsg("");
+            DroidSpeechTrace.beginSection("DroidSpeech:onPartialResults");
+            handlePartialResults(partialResults);
+            DroidSpeechTrace.endSection();
+        }
 
-        closeDroidSpeech();
-    }
+        /**
+         * Handles the partial results of a listening session
+         *
+         * @param partialSpeechResult The partial result with all the alternatives, null if empty
+         */
+        private void handlePartialResults(DroidSpeechResult partialSpeechResult)
+        {
+            if(partialSpeechResult != null)
+            {
+                latencyMetrics.onPartialResult(Clocks.millis());
+
+                recognitionSession.transition(SessionState.SPEAKING);
+
+                onSpeechDetected();
+
+                // Only the speech after the wake phrase is sent on in the wake phrase mode
+                DroidSpeechResult droidLiveSpeechResult = gateOnWakePhrase(partialSpeechResult, false);
+                if(droidLiveSpeechResult == null)
+                {
+                    dsProperties.pauseAndSpeakTime = Clocks.millis();
+                    return;
+                }
+
+                // Sending the command ahead of the live result, as soon as it is unambiguous
+                dispatchCommand(droidLiveSpeechResult.getText(), false);
+
+                if(dsProperties.frameAlignedDispatch)
+                {
+                    // Keeping the latest live result only, delivered on the next display frame
+                    frameCoalescer.postLiveResult(droidLiveSpeechResult);
+                }
+                else
+                {
+                    dispatchLiveResult(droidLiveSpeechResult);
+                }
+
+                dsProperties.liveSpeechResult = droidLiveSpeechResult;
+
+                if(dsProperties.voiceActivityEndpointing)
+                {
+                    if(endpointDetector.isEndpointed())
+                    {
+                        // Trailing silence was already confirmed, the live result is taken as final right away
+                        finalizeLiveResult(droidLiveSpeechResult, 0);
+                    }
+                }
+                else if((Clocks.millis() - dsProperties.pauseAndSpeakTime) > Extensions.MAX_PAUSE_TIME)
+                {
+                    finalizeLiveResult(droidLiveSpeechResult, Extensions.PARTIAL_DELAY_TIME);
+                }
+                else
+                {
+                    dsProperties.pauseAndSpeakTime = Clocks.millis();
+                }
+            }
+            else
+            {
+                dsProperties.pauseAndSpeakTime = Clocks.millis();
+            }
+        }
+    };
 }
@@ -0,0 +1,20 @@
+package com.vikramezhil.droidspeech;
+
+/**
+ * Droid Speech Clock
+ *
+ * Monotonic time source used for the droid speech timing (pauses, restarts, endpointing, metrics)
+ * and the recognition progress animations
+ *
+ * @author Vikram Ezhil
+ */
+
+public interface DroidSpeechClock
+{
+    /**
+     * Gets the monotonic time, only differences between two values are meaningful
+     *
+     * @return The time in nanoseconds
+     */
+    long nanoTime();
+}
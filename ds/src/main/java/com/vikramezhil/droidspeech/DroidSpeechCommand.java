@@ -0,0 +1,98 @@
+package com.vikramezhil.droidspeech;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Droid Speech Command
+ *
+ * A registered voice command matched in the speech, with the words captured by its slots
+ *
+ * @author Vikram Ezhil
+ */
+
+public class DroidSpeechCommand
+{
+    private final String id;
+    private final String phrase;
+    private final String text;
+    private final Map<String, String> slots;
+    private final boolean early;
+
+    DroidSpeechCommand(String id, String phrase, String text, Map<String, String> slots, boolean early)
+    {
+        this.id = id;
+        this.phrase = phrase;
+        this.text = text;
+        this.slots = Collections.unmodifiableMap(slots);
+        this.early = early;
+    }
+
+    /**
+     * Gets the command id
+     *
+     * @return The command id as it was registered
+     */
+    public String getId()
+    {
+        return id;
+    }
+
+    /**
+     * Gets the command phrase
+     *
+     * @return The command phrase as it was registered
+     */
+    public String getPhrase()
+    {
+        return phrase;
+    }
+
+    /**
+     * Gets the speech the command was matched in
+     *
+     * @return The matched text
+     */
+    public String getText()
+    {
+        return text;
+    }
+
+    /**
+     * Gets the words captured by a slot
+     *
+     * @param name The slot name, without the braces
+     *
+     * @return The slot value, null if the command has no such slot
+     */
+    public String getSlot(String name)
+    {
+        return slots.get(name);
+    }
+
+    /**
+     * Gets the words captured by all the slots
+     *
+     * @return The slot values by slot name
+     */
+    public Map<String, String> getSlots()
+    {
+        return slots;
+    }
+
+    /**
+     * Gets the early dispatch status
+     *
+     * @return True - the command was matched in a live result, False - it was matched in the final result
+     */
+    public boolean isEarly()
+    {
+        return early;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "DroidSpeechCommand{id=" + id + ", slots=" + slots + ", early=" + early + "}";
+    }
+}
@@ -0,0 +1,107 @@
+package com.vikramezhil.droidspeech;
+
+/**
+ * Droid Speech Error
+ *
+ * @author Vikram Ezhil
+ */
+
+public class DroidSpeechError
+{
+    /**
+     * Error code reported when the internet is not enabled and offline speech recognition is off
+     */
+    public final static int ERROR_INTERNET_NOT_ENABLED = 100;
+
+    /**
+     * Error code reported when the recognition progress layout couldn't be initialized
+     */
+    public final static int ERROR_PROGRESS_LAYOUT = 101;
+
+    /**
+     * The droid speech error categories
+     */
+    public enum Category
+    {
+        NETWORK,
+        AUDIO,
+        SERVER,
+        CLIENT,
+        NO_SPEECH,
+        BUSY,
+        PERMISSION,
+        UNKNOWN
+    }
+
+    private final int code;
+    private final Category category;
+    private final boolean retryable;
+    private final long elapsedTime;
+    private final String message;
+
+    DroidSpeechError(int code, Category category, boolean retryable, long elapsedTime, String message)
+    {
+        this.code = code;
+        this.category = category;
+        this.retryable = retryable;
+        this.elapsedTime = elapsedTime;
+        this.message = message;
+    }
+
+    /**
+     * Gets the error code, one of the SpeechRecognizer error codes or the droid speech error codes
+     *
+     * @return The error code
+     */
+    public int getCode()
+    {
+        return code;
+    }
+
+    /**
+     * Gets the error category
+     *
+     * @return The error category
+     */
+    public Category getCategory()
+    {
+        return category;
+    }
+
+    /**
+     * Gets the retryable status
+     *
+     * @return True - starting the recognition again may succeed, False - if otherwise
+     */
+    public boolean isRetryable()
+    {
+        return retryable;
+    }
+
+    /**
+     * Gets the time elapsed since the session was started
+     *
+     * @return The elapsed time in milliseconds
+     */
+    public long getElapsedTime()
+    {
+        return elapsedTime;
+    }
+
+    /**
+     * Gets the localized error message, the same message sent to onDroidSpeechError(String)
+     *
+     * @return The error message
+     */
+    public String getMessage()
+    {
+        return message;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "DroidSpeechError{code=" + code + ", category=" + category + ", retryable=" + retryable
+                + ", elapsedTime=" + elapsedTime + ", message=" + message + "}";
+    }
+}
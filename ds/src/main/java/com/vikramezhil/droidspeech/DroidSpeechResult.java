@@ -0,0 +1,236 @@
+package com.vikramezhil.droidspeech;
+
+import android.os.Bundle;
+import android.speech.SpeechRecognizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Droid Speech Result
+ *
+ * The recognition alternatives (best first) with their confidence scores, parsed once from the
+ * recognizer results bundle
+ *
+ * @author Vikram Ezhil
+ */
+
+public class DroidSpeechResult
+{
+    /**
+     * Confidence returned when the recognizer didn't report a confidence score for the alternative
+     */
+    public final static float CONFIDENCE_UNKNOWN = -1f;
+
+    private final List<String> alternatives;
+    private final float[] confidences;
+    private final String bestMatch;
+    private final int bestMatchDistance;
+    private final int bestMatchAlternative;
+
+    private DroidSpeechResult(List<String> alternatives, float[] confidences)
+    {
+        this(alternatives, confidences, null, -1, -1);
+    }
+
+    private DroidSpeechResult(List<String> alternatives, float[] confidences, String bestMatch, int bestMatchDistance,
+                              int bestMatchAlternative)
+    {
+        this.alternatives = alternatives;
+        this.confidences = confidences;
+        this.bestMatch = bestMatch;
+        this.bestMatchDistance = bestMatchDistance;
+        this.bestMatchAlternative = bestMatchAlternative;
+    }
+
+    /**
+     * Parses the recognizer results bundle
+     *
+     * @param results The results bundle
+     *
+     * @return The droid speech result, null if the bundle has no non empty best alternative
+     */
+    static DroidSpeechResult fromBundle(Bundle results)
+    {
+        if(results == null) return null;
+
+        return fromAlternatives(results.getStringArrayList(SpeechRecognizer.RESULTS_RECOGNITION),
+                results.getFloatArray(SpeechRecognizer.CONFIDENCE_SCORES));
+    }
+
+    /**
+     * Creates a result from the recognition alternatives, used by the speech engines delivering
+     * their results without a results bundle
+     *
+     * @param alternatives The alternatives, best first
+     *
+     * @param confidences The confidence scores of the alternatives, null if not reported
+     *
+     * @return The droid speech result, null if there is no non empty best alternative
+     */
+    public static DroidSpeechResult fromAlternatives(List<String> alternatives, float[] confidences)
+    {
+        if(alternatives == null || alternatives.isEmpty() || alternatives.get(0) == null || alternatives.get(0).trim().isEmpty())
+        {
+            return null;
+        }
+
+        if(confidences != null && confidences.length != alternatives.size())
+        {
+            // Mismatching scores can't be paired with the alternatives, dropping them
+            confidences = null;
+        }
+
+        return new DroidSpeechResult(Collections.unmodifiableList(new ArrayList<>(alternatives)), confidences);
+    }
+
+    /**
+     * Creates a result with the alternatives replaced, each kept alternative keeps its confidence score
+     *
+     * @param texts The text replacing each alternative, null drops the alternative (the best alternative
+     *              has to be kept)
+     *
+     * @return The droid speech result
+     */
+    DroidSpeechResult withAlternatives(String[] texts)
+    {
+        List<String> keptAlternatives = new ArrayList<>(texts.length);
+        float[] keptConfidences = confidences == null ? null : new float[texts.length];
+
+        for(int i = 0; i < texts.length; i++)
+        {
+            if(texts[i] == null) continue;
+
+            if(keptConfidences != null)
+            {
+                keptConfidences[keptAlternatives.size()] = confidences[i];
+            }
+
+            keptAlternatives.add(texts[i]);
+        }
+
+        return new DroidSpeechResult(Collections.unmodifiableList(keptAlternatives),
+                keptConfidences == null ? null : Arrays.copyOf(keptConfidences, keptAlternatives.size()));
+    }
+
+    /**
+     * Creates a result with the vocabulary entry the alternatives matched best
+     *
+     * @param bestMatch The vocabulary entry
+     *
+     * @param bestMatchDistance The edit distance of the entry
+     *
+     * @param bestMatchAlternative The index of the alternative the entry was matched with
+     *
+     * @return The droid speech result
+     */
+    DroidSpeechResult withBestMatch(String bestMatch, int bestMatchDistance, int bestMatchAlternative)
+    {
+        return new DroidSpeechResult(alternatives, confidences, bestMatch, bestMatchDistance, bestMatchAlternative);
+    }
+
+    /**
+     * Gets the best alternative
+     *
+     * @return The best alternative
+     */
+    public String getText()
+    {
+        return alternatives.get(0);
+    }
+
+    /**
+     * Gets all the alternatives, best first
+     *
+     * @return The alternatives
+     */
+    public List<String> getAlternatives()
+    {
+        return alternatives;
+    }
+
+    /**
+     * Gets the number of alternatives
+     *
+     * @return The number of alternatives
+     */
+    public int getCount()
+    {
+        return alternatives.size();
+    }
+
+    /**
+     * Gets the alternative at the given index
+     *
+     * @param index The alternative index, 0 is the best alternative
+     *
+     * @return The alternative
+     */
+    public String getAlternative(int index)
+    {
+        return alternatives.get(index);
+    }
+
+    /**
+     * Gets the confidence score of the alternative at the given index
+     *
+     * @param index The alternative index, 0 is the best alternative
+     *
+     * @return The confidence score between 0 and 1, CONFIDENCE_UNKNOWN if not reported
+     */
+    public float getConfidence(int index)
+    {
+        return confidences == null ? CONFIDENCE_UNKNOWN : confidences[index];
+    }
+
+    /**
+     * Gets the confidence scores reported status
+     *
+     * @return True - the recognizer reported confidence scores, False - if otherwise
+     */
+    public boolean hasConfidences()
+    {
+        return confidences != null;
+    }
+
+    /**
+     * Gets the vocabulary entry closest to any of the alternatives, see DroidSpeech.setVocabulary(List)
+     *
+     * NOTE: Only set on the final results
+     *
+     * @return The vocabulary entry as it was set, null if no entry was within the fuzzy match distance
+     */
+    public String getBestMatch()
+    {
+        return bestMatch;
+    }
+
+    /**
+     * Gets the edit distance between the best match and the alternative it was matched with
+     *
+     * @return The edit distance in characters, -1 if there is no best match
+     */
+    public int getBestMatchDistance()
+    {
+        return bestMatchDistance;
+    }
+
+    /**
+     * Gets the alternative the best match was matched with, the better ranked alternative wins a tie
+     *
+     * @return The alternative index, -1 if there is no best match
+     */
+    public int getBestMatchAlternative()
+    {
+        return bestMatchAlternative;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "DroidSpeechResult{alternatives=" + alternatives + (bestMatch == null ? "" : ", bestMatch=" + bestMatch
+                + ", bestMatchDistance=" + bestMatchDistance) + "}";
+    }
+}
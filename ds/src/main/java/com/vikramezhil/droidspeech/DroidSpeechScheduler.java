@@ -0,0 +1,29 @@
+package com.vikramezhil.droidspeech;
+
+/**
+ * Droid Speech Scheduler
+ *
+ * Runs the droid speech delayed work (restarts, live result finalization, network loss grace time)
+ * on the main thread, the default scheduler posts to the main looper
+ *
+ * @author Vikram Ezhil
+ */
+
+public interface DroidSpeechScheduler
+{
+    /**
+     * Schedules the runnable, a runnable scheduled twice runs twice
+     *
+     * @param runnable The runnable
+     *
+     * @param delayMillis The delay in milliseconds
+     */
+    void schedule(Runnable runnable, long delayMillis);
+
+    /**
+     * Cancels every pending run of the runnable
+     *
+     * @param runnable The runnable
+     */
+    void cancel(Runnable runnable);
+}
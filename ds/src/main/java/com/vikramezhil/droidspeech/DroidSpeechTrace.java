@@ -0,0 +1,126 @@
+package com.vikramezhil.droidspeech;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Trace;
+import android.util.Log;
+
+import java.lang.reflect.Method;
+
+/**
+ * Droid Speech Trace
+ *
+ * Guarded android.os.Trace sections (API 18 and above) and async events (API 29 and above). When
+ * tracing is disabled every call is a single static field check, the section names are constants
+ * so nothing is allocated either way. The async events are newer than the compile SDK, so they are
+ * looked up by reflection once the tracing is enabled on a supporting device
+ *
+ * @author Vikram Ezhil
+ */
+
+final class DroidSpeechTrace
+{
+    final static String SESSION = "DroidSpeech:session";
+    final static String RESTART = "DroidSpeech:restart";
+    final static String FINALIZE = "DroidSpeech:finalize";
+
+    private final static String TAG = "DroidSpeechTrace";
+
+    // Build.VERSION_CODES.Q
+    private final static int ASYNC_SDK_VERSION = 29;
+
+    private final static boolean SECTIONS_SUPPORTED = Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2;
+
+    static volatile boolean enabled = false;
+
+    private static volatile Method beginAsyncSection;
+    private static volatile Method endAsyncSection;
+    private static volatile boolean asyncResolved = false;
+
+    private DroidSpeechTrace()
+    {
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    static void beginSection(String sectionName)
+    {
+        if(enabled && SECTIONS_SUPPORTED)
+        {
+            Trace.beginSection(sectionName);
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    static void endSection()
+    {
+        if(enabled && SECTIONS_SUPPORTED)
+        {
+            Trace.endSection();
+        }
+    }
+
+    static void beginAsyncSection(String sectionName, int cookie)
+    {
+        if(enabled && resolveAsyncSections())
+        {
+            invoke(beginAsyncSection, sectionName, cookie);
+        }
+    }
+
+    static void endAsyncSection(String sectionName, int cookie)
+    {
+        if(enabled && resolveAsyncSections())
+        {
+            invoke(endAsyncSection, sectionName, cookie);
+        }
+    }
+
+    /**
+     * Looks up the async trace methods once
+     *
+     * @return True - if the async events are supported, False - if otherwise
+     */
+    private static boolean resolveAsyncSections()
+    {
+        if(!asyncResolved)
+        {
+            synchronized (DroidSpeechTrace.class)
+            {
+                if(!asyncResolved)
+                {
+                    if(Build.VERSION.SDK_INT >= ASYNC_SDK_VERSION)
+                    {
+                        try
+                        {
+                            beginAsyncSection = Trace.class.getMethod("beginAsyncSection", String.class, int.class);
+                            endAsyncSection = Trace.class.getMethod("endAsyncSection", String.class, int.class);
+                        }
+                        catch (Exception e)
+                        {
+                            Log.w(TAG, "Async trace sections are unavailable", e);
+
+                            beginAsyncSection = null;
+                            endAsyncSection = null;
+                        }
+                    }
+
+                    asyncResolved = true;
+                }
+            }
+        }
+
+        return beginAsyncSection != null && endAsyncSection != null;
+    }
+
+    private static void invoke(Method method, String sectionName, int cookie)
+    {
+        try
+        {
+            method.invoke(null, sectionName, cookie);
+        }
+        catch (Exception e)
+        {
+            Log.w(TAG, "Unable to trace the async section " + sectionName, e);
+        }
+    }
+}
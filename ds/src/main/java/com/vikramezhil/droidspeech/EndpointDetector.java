@@ -0,0 +1,122 @@
+package com.vikramezhil.droidspeech;
+
+/**
+ * Droid Speech Endpoint Detector
+ *
+ * Detects the end of an utterance from the rms stream, using a running noise floor estimate,
+ * a number of hangover frames of trailing silence and a minimum speech duration
+ *
+ * @author Vikram Ezhil
+ */
+
+class EndpointDetector
+{
+    private static final float FLOOR_RISE_RATE = 0.05f;
+    private static final float FLOOR_FALL_RATE = 0.5f;
+
+    private float speechMargin = Extensions.ENDPOINT_SPEECH_MARGIN;
+    private int hangoverFrames = Extensions.ENDPOINT_HANGOVER_FRAMES;
+    private long minSpeechDuration = Extensions.ENDPOINT_MIN_SPEECH_DURATION;
+
+    private float noiseFloor;
+    private boolean noiseFloorInitialized;
+    private long speechStartTime = -1;
+    private long lastSpeechTime = -1;
+    private int silentFrames;
+    private boolean endpointed;
+    private long endpointLatency = -1;
+
+    /**
+     * Resets the detector for a new utterance, the noise floor estimate is kept
+     */
+    void reset()
+    {
+        speechStartTime = -1;
+        lastSpeechTime = -1;
+        silentFrames = 0;
+        endpointed = false;
+    }
+
+    /**
+     * Feeds an rms value to the detector
+     *
+     * @param rmsdB The rms value
+     *
+     * @param time The time the value was received in milliseconds
+     *
+     * @return True - if this value confirmed the end of the utterance, False - if otherwise
+     */
+    boolean onRmsChanged(float rmsdB, long time)
+    {
+        if(endpointed) return false;
+
+        if(!noiseFloorInitialized)
+        {
+            noiseFloor = rmsdB;
+            noiseFloorInitialized = true;
+        }
+
+        if(rmsdB > noiseFloor + speechMargin)
+        {
+            if(speechStartTime < 0)
+            {
+                speechStartTime = time;
+            }
+
+            lastSpeechTime = time;
+            silentFrames = 0;
+
+            return false;
+        }
+
+        // Tracking the noise floor on non speech frames, falling fast and rising slowly
+        noiseFloor += (rmsdB - noiseFloor) * (rmsdB < noiseFloor ? FLOOR_FALL_RATE : FLOOR_RISE_RATE);
+
+        if(speechStartTime < 0 || ++silentFrames < hangoverFrames) return false;
+
+        if(lastSpeechTime - speechStartTime < minSpeechDuration)
+        {
+            // Too short to be speech (a click or a breath), discarding it
+            speechStartTime = -1;
+            silentFrames = 0;
+
+            return false;
+        }
+
+        endpointed = true;
+        endpointLatency = time - lastSpeechTime;
+
+        return true;
+    }
+
+    /**
+     * Checks if the end of the current utterance was confirmed
+     *
+     * @return The endpointed status
+     */
+    boolean isEndpointed()
+    {
+        return endpointed;
+    }
+
+    /**
+     * Gets the endpoint latency of the last utterance, the trailing silence waited for before the
+     * end of the utterance was confirmed
+     *
+     * @return The endpoint latency in milliseconds, -1 if no utterance was endpointed yet
+     */
+    long getLastEndpointLatency()
+    {
+        return endpointLatency;
+    }
+
+    void setHangoverFrames(int hangoverFrames)
+    {
+        this.hangoverFrames = Math.max(1, hangoverFrames);
+    }
+
+    void setMinSpeechDuration(long minSpeechDuration)
+    {
+        this.minSpeechDuration = Math.max(0, minSpeechDuration);
+    }
+}
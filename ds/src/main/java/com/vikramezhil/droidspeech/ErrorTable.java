@@ -0,0 +1,134 @@
+package com.vikramezhil.droidspeech;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.os.Build;
+
+import java.util.Locale;
+
+/**
+ * Droid Speech Error Table
+ *
+ * Maps the error codes to their category and retryable status, and keeps the localized error
+ * messages resolved once per locale
+ *
+ * @author Vikram Ezhil
+ */
+
+class ErrorTable
+{
+    // Indexed by the SpeechRecognizer error codes (1 - 9)
+    private final static DroidSpeechError.Category[] CATEGORIES = new DroidSpeechError.Category[] {
+            DroidSpeechError.Category.UNKNOWN,
+            DroidSpeechError.Category.NETWORK,
+            DroidSpeechError.Category.NETWORK,
+            DroidSpeechError.Category.AUDIO,
+            DroidSpeechError.Category.SERVER,
+            DroidSpeechError.Category.CLIENT,
+            DroidSpeechError.Category.NO_SPEECH,
+            DroidSpeechError.Category.NO_SPEECH,
+            DroidSpeechError.Category.BUSY,
+            DroidSpeechError.Category.PERMISSION
+    };
+
+    private final static boolean[] RETRYABLE = new boolean[] {
+            false, true, true, true, true, false, true, true, true, false
+    };
+
+    private final Context context;
+    private Locale locale;
+    private String[] errorMessages;
+    private String unknownErrorMessage;
+    private String internetNotEnabledMessage;
+    private String progressLayoutErrorMessage;
+
+    ErrorTable(Context context)
+    {
+        this.context = context;
+    }
+
+    /**
+     * Gets the droid speech error
+     *
+     * @param code The error code
+     *
+     * @param elapsedTime The time elapsed since the session was started
+     *
+     * @return The droid speech error
+     */
+    DroidSpeechError getError(int code, long elapsedTime)
+    {
+        boolean recognizerError = code > 0 && code < CATEGORIES.length;
+
+        DroidSpeechError.Category category;
+        if(recognizerError)
+        {
+            category = CATEGORIES[code];
+        }
+        else if(code == DroidSpeechError.ERROR_INTERNET_NOT_ENABLED)
+        {
+            category = DroidSpeechError.Category.NETWORK;
+        }
+        else if(code == DroidSpeechError.ERROR_PROGRESS_LAYOUT)
+        {
+            category = DroidSpeechError.Category.CLIENT;
+        }
+        else
+        {
+            category = DroidSpeechError.Category.UNKNOWN;
+        }
+
+        boolean retryable = recognizerError ? RETRYABLE[code] : code == DroidSpeechError.ERROR_INTERNET_NOT_ENABLED;
+
+        return new DroidSpeechError(code, category, retryable, elapsedTime, getMessage(code));
+    }
+
+    /**
+     * Gets the localized error message, the messages are resolved again only when the locale changes
+     *
+     * @param code The error code
+     *
+     * @return The error message
+     */
+    String getMessage(int code)
+    {
+        Resources resources = context.getResources();
+        Locale currentLocale = getLocale(resources.getConfiguration());
+
+        if(errorMessages == null || (currentLocale != null && !currentLocale.equals(locale)))
+        {
+            locale = currentLocale;
+            errorMessages = resources.getStringArray(R.array.droid_speech_errors);
+            unknownErrorMessage = resources.getString(R.string.ds_unknown_error);
+            internetNotEnabledMessage = resources.getString(R.string.ds_internet_not_enabled);
+            progressLayoutErrorMessage = resources.getString(R.string.ds_progress_layout_error);
+        }
+
+        if(code > 0 && code <= errorMessages.length)
+        {
+            return errorMessages[code - 1];
+        }
+        else if(code == DroidSpeechError.ERROR_INTERNET_NOT_ENABLED)
+        {
+            return internetNotEnabledMessage;
+        }
+        else if(code == DroidSpeechError.ERROR_PROGRESS_LAYOUT)
+        {
+            return progressLayoutErrorMessage;
+        }
+
+        return unknownErrorMessage;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Locale getLocale(Configuration configuration)
+    {
+        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.N)
+        {
+            return configuration.getLocales().isEmpty() ? null : configuration.getLocales().get(0);
+        }
+
+        return configuration.locale;
+    }
+}
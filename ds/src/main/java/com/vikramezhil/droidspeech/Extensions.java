@@ -1,9 +1,6 @@
 package com.vikramezhil.droidspeech;
 
-import android.content.Context;
 import android.graphics.Color;
-import android.net.ConnectivityManager;
-import android.net.NetworkInfo;
 
 /**
  * Droid Speech Extensions
@@ -22,25 +19,22 @@ class Extensions
     final static int PV_ROTATION_RADIUS = 10;
     final static int MAX_VOICE_RESULTS = 5;
     final static int MAX_PAUSE_TIME = 500;
+    final static int MAX_RESTART_DELAY = 8000;
     final static int PARTIAL_DELAY_TIME = 500;
     final static int ERROR_TIMEOUT = 5000;
     final static int AUDIO_BEEP_DISABLED_TIMEOUT = 30000;
-
-    /**
-     * Checks if the internet is enabled
-     *
-     * @param context The application context instance
-     *
-     * @return The internet enabled status
-     */
-    static boolean isInternetEnabled(Context context)
-    {
-        // Initializing the connectivity Manager
-        ConnectivityManager activeConnection = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
-
-        // Getting the network information
-        NetworkInfo networkInfo = activeConnection.getActiveNetworkInfo();
-
-        return networkInfo != null && (networkInfo.getType() == ConnectivityManager.TYPE_WIFI || networkInfo.getType() == ConnectivityManager.TYPE_MOBILE);
-    }
+    final static int NETWORK_LOSS_GRACE_TIME = 2000;
+    final static float ENDPOINT_SPEECH_MARGIN = 3f;
+    final static int ENDPOINT_HANGOVER_FRAMES = 8;
+    final static int ENDPOINT_MIN_SPEECH_DURATION = 200;
+    final static int CAPTURE_SAMPLE_RATE = 16000;
+    final static int CAPTURE_FRAME_SIZE = 640;
+    final static int CAPTURE_FRAME_COUNT = 100;
+    final static int CAPTURE_STOP_TIMEOUT = 200;
+    final static int PARTIAL_COMMIT_STABILITY = 2;
+    final static int FUZZY_MATCH_DISTANCE = 2;
+    final static int JOURNAL_SEGMENT_SIZE = 1024 * 1024;
+    final static int JOURNAL_MAX_SEGMENTS = 8;
+    final static int JOURNAL_FORCE_INTERVAL = 1000;
+    final static long LANGUAGE_CACHE_TTL = 24 * 60 * 60 * 1000L;
 }
@@ -0,0 +1,147 @@
+package com.vikramezhil.droidspeech;
+
+import android.view.Choreographer;
+
+/**
+ * Droid Speech Frame Coalescer
+ *
+ * Merges the rms and live result updates arriving within a display frame and delivers them once on
+ * the next frame, the max rms and the latest live result win
+ *
+ * NOTE: Should be used from the main thread
+ *
+ * @author Vikram Ezhil
+ */
+
+class FrameCoalescer implements Choreographer.FrameCallback
+{
+    /**
+     * Frame coalescer listener, called with the merged updates on each frame
+     */
+    interface OnFrameListener
+    {
+        void onCoalescedRms(float rmsdB);
+
+        void onCoalescedLiveResult(DroidSpeechResult liveResult);
+    }
+
+    private final OnFrameListener onFrameListener;
+    private Choreographer choreographer;
+    private boolean frameScheduled = false;
+    private boolean rmsPending = false;
+    private float maxRms;
+    private DroidSpeechResult pendingLiveResult;
+    private int coalescedCount;
+
+    FrameCoalescer(OnFrameListener onFrameListener)
+    {
+        this.onFrameListener = onFrameListener;
+    }
+
+    /**
+     * Posts an rms update, merged with the pending rms update by taking the max
+     *
+     * @param rmsdB The rms value
+     */
+    void postRms(float rmsdB)
+    {
+        if(rmsPending)
+        {
+            maxRms = Math.max(maxRms, rmsdB);
+            coalescedCount++;
+        }
+        else
+        {
+            maxRms = rmsdB;
+            rmsPending = true;
+        }
+
+        scheduleFrame();
+    }
+
+    /**
+     * Posts a live result update, replacing the pending live result
+     *
+     * @param liveResult The live result
+     */
+    void postLiveResult(DroidSpeechResult liveResult)
+    {
+        if(pendingLiveResult != null)
+        {
+            coalescedCount++;
+        }
+
+        pendingLiveResult = liveResult;
+
+        scheduleFrame();
+    }
+
+    /**
+     * Delivers the pending updates right away, used before the final result is delivered
+     */
+    void flush()
+    {
+        if(frameScheduled)
+        {
+            choreographer.removeFrameCallback(this);
+            doFrame(0);
+        }
+    }
+
+    /**
+     * Drops the pending updates
+     */
+    void cancel()
+    {
+        if(frameScheduled)
+        {
+            choreographer.removeFrameCallback(this);
+            frameScheduled = false;
+        }
+
+        rmsPending = false;
+        pendingLiveResult = null;
+    }
+
+    /**
+     * Gets the number of updates merged into another update
+     *
+     * @return The coalesced updates count
+     */
+    int getCoalescedCount()
+    {
+        return coalescedCount;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos)
+    {
+        frameScheduled = false;
+
+        if(rmsPending)
+        {
+            rmsPending = false;
+            onFrameListener.onCoalescedRms(maxRms);
+        }
+
+        if(pendingLiveResult != null)
+        {
+            DroidSpeechResult liveResult = pendingLiveResult;
+            pendingLiveResult = null;
+            onFrameListener.onCoalescedLiveResult(liveResult);
+        }
+    }
+
+    private void scheduleFrame()
+    {
+        if(frameScheduled) return;
+
+        if(choreographer == null)
+        {
+            choreographer = Choreographer.getInstance();
+        }
+
+        frameScheduled = true;
+        choreographer.postFrameCallback(this);
+    }
+}
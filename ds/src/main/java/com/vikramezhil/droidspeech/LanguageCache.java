@@ -0,0 +1,221 @@
+package com.vikramezhil.droidspeech;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.content.pm.PackageManager;
+import android.speech.RecognizerIntent;
+import android.text.TextUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Droid Speech Language Cache
+ *
+ * Process wide cache of the language receiver results, persisted with a time to live and invalidated
+ * when the recognizer package is updated. Droid speech instances are served the cached language details
+ * right away while the language details broadcast refreshes the cache in the background
+ *
+ * NOTE: Accessed from the main thread only
+ *
+ * @author Vikram Ezhil
+ */
+
+final class LanguageCache
+{
+    private static final String PREFERENCES_NAME = "droid_speech_languages";
+    private static final String KEY_DEFAULT_LANGUAGE = "default_language";
+    private static final String KEY_SUPPORTED_LANGUAGES = "supported_languages";
+    private static final String KEY_CACHED_TIME = "cached_time";
+    private static final String KEY_RECOGNIZER_VERSION = "recognizer_version";
+    private static final String LANGUAGE_SEPARATOR = ",";
+
+    private static final List<PendingListener> pendingListeners = new ArrayList<>();
+
+    private static boolean loaded = false;
+    private static boolean refreshing = false;
+    private static boolean refreshed = false;
+    private static String defaultLanguage;
+    private static List<String> supportedLanguages;
+    private static long cachedTime = -1;
+    private static long recognizerVersion = -1;
+
+    private LanguageCache()
+    {
+    }
+
+    /**
+     * Gets the language details, from the cache when it is still valid and from the language details
+     * broadcast otherwise
+     *
+     * @param context The application context instance
+     *
+     * @param onLanguageDetailsListener The language details listener, called again after the background
+     *                                  refresh if the language details have changed
+     */
+    static void getLanguageDetails(Context context, final OnLanguageDetailsListener onLanguageDetailsListener)
+    {
+        Context appContext = context.getApplicationContext();
+        Intent languageDetailsIntent = RecognizerIntent.getVoiceDetailsIntent(appContext);
+        long currentVersion = getRecognizerVersion(appContext, languageDetailsIntent);
+
+        if(!loaded)
+        {
+            load(appContext);
+        }
+
+        boolean valid = cachedTime >= 0 && recognizerVersion == currentVersion
+                && System.currentTimeMillis() - cachedTime < Extensions.LANGUAGE_CACHE_TTL;
+
+        if(valid)
+        {
+            final String cachedDefaultLanguage = defaultLanguage;
+            final List<String> cachedSupportedLanguages = supportedLanguages;
+
+            // Sending an update with the cached language details, posted to keep the broadcast callback order
+            Clocks.scheduler().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    onLanguageDetailsListener.onLanguageDetailsInfo(cachedDefaultLanguage, cachedSupportedLanguages);
+                }
+            }, 0);
+
+            if(refreshed) return;
+        }
+
+        pendingListeners.add(new PendingListener(onLanguageDetailsListener, valid));
+
+        if(refreshing) return;
+
+        if(languageDetailsIntent == null)
+        {
+            // No recognizer is available to broadcast to, reporting empty language details
+            update(appContext, currentVersion, null, new ArrayList<String>());
+            return;
+        }
+
+        refreshing = true;
+
+        final Context receiverContext = appContext;
+        final long receiverVersion = currentVersion;
+        LanguageReceiver languageReceiver = new LanguageReceiver();
+        languageReceiver.setOnLanguageDetailsListener(new OnLanguageDetailsListener() {
+            @Override
+            public void onLanguageDetailsInfo(String defaultLanguage, List<String> otherLanguages) {
+
+                update(receiverContext, receiverVersion, defaultLanguage, otherLanguages);
+            }
+        });
+
+        // Starting the broadcast receiver to refresh the language details
+        languageDetailsIntent.addFlags(Intent.FLAG_INCLUDE_STOPPED_PACKAGES);
+        appContext.sendOrderedBroadcast(languageDetailsIntent, null, languageReceiver, null, Activity.RESULT_OK, null, null);
+    }
+
+    /**
+     * Updates the cache with fresh language details and notifies the pending listeners
+     */
+    static void update(Context context, long version, String newDefaultLanguage, List<String> newSupportedLanguages)
+    {
+        boolean changed = !TextUtils.equals(defaultLanguage, newDefaultLanguage)
+                || supportedLanguages == null || !supportedLanguages.equals(newSupportedLanguages);
+
+        defaultLanguage = newDefaultLanguage;
+        supportedLanguages = Collections.unmodifiableList(new ArrayList<>(newSupportedLanguages));
+        cachedTime = System.currentTimeMillis();
+        recognizerVersion = version;
+        refreshing = false;
+        refreshed = true;
+
+        // The fresh details replace the persisted ones, which are no longer loaded
+        loaded = true;
+
+        save(context);
+
+        List<PendingListener> listeners = new ArrayList<>(pendingListeners);
+        pendingListeners.clear();
+
+        for(PendingListener pendingListener : listeners)
+        {
+            if(changed || !pendingListener.servedFromCache)
+            {
+                // Sending an update with the refreshed language details
+                pendingListener.listener.onLanguageDetailsInfo(defaultLanguage, supportedLanguages);
+            }
+        }
+    }
+
+    /**
+     * Loads the persisted language details
+     */
+    private static void load(Context context)
+    {
+        loaded = true;
+
+        SharedPreferences preferences = context.getSharedPreferences(PREFERENCES_NAME, Context.MODE_PRIVATE);
+        cachedTime = preferences.getLong(KEY_CACHED_TIME, -1);
+        recognizerVersion = preferences.getLong(KEY_RECOGNIZER_VERSION, -1);
+        defaultLanguage = preferences.getString(KEY_DEFAULT_LANGUAGE, null);
+
+        String languages = preferences.getString(KEY_SUPPORTED_LANGUAGES, null);
+        if(languages == null)
+        {
+            cachedTime = -1;
+        }
+        else
+        {
+            supportedLanguages = languages.isEmpty() ? Collections.<String>emptyList()
+                    : Collections.unmodifiableList(Arrays.asList(languages.split(LANGUAGE_SEPARATOR)));
+        }
+    }
+
+    /**
+     * Persists the language details
+     */
+    private static void save(Context context)
+    {
+        context.getSharedPreferences(PREFERENCES_NAME, Context.MODE_PRIVATE).edit()
+                .putString(KEY_DEFAULT_LANGUAGE, defaultLanguage)
+                .putString(KEY_SUPPORTED_LANGUAGES, TextUtils.join(LANGUAGE_SEPARATOR, supportedLanguages))
+                .putLong(KEY_CACHED_TIME, cachedTime)
+                .putLong(KEY_RECOGNIZER_VERSION, recognizerVersion)
+                .apply();
+    }
+
+    /**
+     * Gets the recognizer package version, the last update time of the package handling the language
+     * details broadcast
+     */
+    private static long getRecognizerVersion(Context context, Intent languageDetailsIntent)
+    {
+        if(languageDetailsIntent == null || languageDetailsIntent.getPackage() == null) return 0;
+
+        try
+        {
+            return context.getPackageManager().getPackageInfo(languageDetailsIntent.getPackage(), 0).lastUpdateTime;
+        }
+        catch(PackageManager.NameNotFoundException e)
+        {
+            return 0;
+        }
+    }
+
+    /**
+     * Language details listener waiting for the broadcast, remembers if it was already served from the cache
+     */
+    private static class PendingListener
+    {
+        private final OnLanguageDetailsListener listener;
+        private final boolean servedFromCache;
+
+        PendingListener(OnLanguageDetailsListener listener, boolean servedFromCache)
+        {
+            this.listener = listener;
+            this.servedFromCache = servedFromCache;
+        }
+    }
+}
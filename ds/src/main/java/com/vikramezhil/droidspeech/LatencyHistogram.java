@@ -0,0 +1,166 @@
+package com.vikramezhil.droidspeech;
+
+/**
+ * Droid Speech Latency Histogram
+ *
+ * Fixed size histogram with power of two millisecond buckets, bucket 0 holds 0 ms and bucket i
+ * holds the values from 2^(i-1) to 2^i - 1 ms, the last bucket holds everything above
+ *
+ * @author Vikram Ezhil
+ */
+
+public class LatencyHistogram
+{
+    /**
+     * The number of buckets
+     */
+    public final static int BUCKET_COUNT = 20;
+
+    private final long[] bucketCounts;
+    private long count;
+    private long sum;
+    private long min;
+    private long max;
+
+    LatencyHistogram()
+    {
+        this.bucketCounts = new long[BUCKET_COUNT];
+    }
+
+    private LatencyHistogram(LatencyHistogram histogram)
+    {
+        this.bucketCounts = histogram.bucketCounts.clone();
+        this.count = histogram.count;
+        this.sum = histogram.sum;
+        this.min = histogram.min;
+        this.max = histogram.max;
+    }
+
+    /**
+     * Records a latency
+     *
+     * @param latency The latency in milliseconds, negative values are ignored
+     */
+    void record(long latency)
+    {
+        if(latency < 0) return;
+
+        bucketCounts[bucketIndex(latency)]++;
+
+        min = count == 0 ? latency : Math.min(min, latency);
+        max = Math.max(max, latency);
+        sum += latency;
+        count++;
+    }
+
+    /**
+     * Copies the histogram
+     *
+     * @return The histogram copy
+     */
+    LatencyHistogram copy()
+    {
+        return new LatencyHistogram(this);
+    }
+
+    /**
+     * Gets the number of recorded latencies
+     *
+     * @return The count
+     */
+    public long getCount()
+    {
+        return count;
+    }
+
+    /**
+     * Gets the smallest recorded latency
+     *
+     * @return The min latency in milliseconds, 0 if nothing was recorded
+     */
+    public long getMin()
+    {
+        return min;
+    }
+
+    /**
+     * Gets the largest recorded latency
+     *
+     * @return The max latency in milliseconds, 0 if nothing was recorded
+     */
+    public long getMax()
+    {
+        return max;
+    }
+
+    /**
+     * Gets the mean of the recorded latencies
+     *
+     * @return The mean latency in milliseconds, 0 if nothing was recorded
+     */
+    public double getMean()
+    {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Gets the approximate percentile, the upper bound of the bucket holding it (capped at the max)
+     *
+     * @param percentile The percentile between 0 and 100
+     *
+     * @return The percentile latency in milliseconds, 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile)
+    {
+        if(count == 0) return 0;
+
+        long rank = (long) Math.ceil(Math.max(0, Math.min(100, percentile)) / 100 * count);
+        long seen = 0;
+        for(int i = 0; i < BUCKET_COUNT; i++)
+        {
+            seen += bucketCounts[i];
+            if(seen >= rank && seen > 0)
+            {
+                return Math.min(getBucketUpperBound(i), max);
+            }
+        }
+
+        return max;
+    }
+
+    /**
+     * Gets the number of latencies recorded in the bucket
+     *
+     * @param bucket The bucket index
+     *
+     * @return The bucket count
+     */
+    public long getBucketCount(int bucket)
+    {
+        return bucketCounts[bucket];
+    }
+
+    /**
+     * Gets the largest latency held by the bucket
+     *
+     * @param bucket The bucket index
+     *
+     * @return The bucket upper bound in milliseconds, Long.MAX_VALUE for the last bucket
+     */
+    public static long getBucketUpperBound(int bucket)
+    {
+        return bucket == BUCKET_COUNT - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    private static int bucketIndex(long latency)
+    {
+        return Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(latency));
+    }
+
+    @Override
+    public String toString()
+    {
+        return "LatencyHistogram{count=" + count + ", min=" + min + ", max=" + max + ", mean=" + getMean()
+                + ", p50=" + getPercentile(50) + ", p95=" + getPercentile(95) + "}";
+    }
+}
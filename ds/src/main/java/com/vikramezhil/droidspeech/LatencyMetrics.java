@@ -0,0 +1,138 @@
+package com.vikramezhil.droidspeech;
+
+/**
+ * Droid Speech Latency Metrics
+ *
+ * Records the per session latencies into histograms, a snapshot copies the histograms so it can be
+ * polled from any thread
+ *
+ * @author Vikram Ezhil
+ */
+
+public class LatencyMetrics
+{
+    private final LatencyHistogram timeToReady;
+    private final LatencyHistogram timeToFirstPartial;
+    private final LatencyHistogram endOfSpeechToFinal;
+    private final LatencyHistogram restartGap;
+
+    private long sessionStartTime = -1;
+    private long endOfSpeechTime = -1;
+    private boolean firstPartialSeen;
+
+    LatencyMetrics()
+    {
+        timeToReady = new LatencyHistogram();
+        timeToFirstPartial = new LatencyHistogram();
+        endOfSpeechToFinal = new LatencyHistogram();
+        restartGap = new LatencyHistogram();
+    }
+
+    private LatencyMetrics(LatencyMetrics latencyMetrics)
+    {
+        timeToReady = latencyMetrics.timeToReady.copy();
+        timeToFirstPartial = latencyMetrics.timeToFirstPartial.copy();
+        endOfSpeechToFinal = latencyMetrics.endOfSpeechToFinal.copy();
+        restartGap = latencyMetrics.restartGap.copy();
+    }
+
+    synchronized void onSessionStarted(long time)
+    {
+        sessionStartTime = time;
+        endOfSpeechTime = -1;
+        firstPartialSeen = false;
+    }
+
+    synchronized void onReadyForSpeech(long time)
+    {
+        if(sessionStartTime >= 0)
+        {
+            timeToReady.record(time - sessionStartTime);
+        }
+    }
+
+    synchronized void onPartialResult(long time)
+    {
+        if(!firstPartialSeen && sessionStartTime >= 0)
+        {
+            firstPartialSeen = true;
+            timeToFirstPartial.record(time - sessionStartTime);
+        }
+    }
+
+    synchronized void onEndOfSpeech(long time)
+    {
+        endOfSpeechTime = time;
+    }
+
+    synchronized void onFinalResult(long time)
+    {
+        if(endOfSpeechTime >= 0)
+        {
+            endOfSpeechToFinal.record(time - endOfSpeechTime);
+            endOfSpeechTime = -1;
+        }
+    }
+
+    synchronized void onRestartGap(long gap)
+    {
+        restartGap.record(gap);
+    }
+
+    /**
+     * Takes a snapshot of the latency histograms
+     *
+     * @return The latency metrics snapshot
+     */
+    synchronized LatencyMetrics snapshot()
+    {
+        return new LatencyMetrics(this);
+    }
+
+    /**
+     * Gets the time from starting a session to the engine being ready for speech
+     *
+     * @return The time to ready histogram
+     */
+    public LatencyHistogram getTimeToReady()
+    {
+        return timeToReady;
+    }
+
+    /**
+     * Gets the time from starting a session to its first live result
+     *
+     * @return The time to first partial histogram
+     */
+    public LatencyHistogram getTimeToFirstPartial()
+    {
+        return timeToFirstPartial;
+    }
+
+    /**
+     * Gets the time from the end of speech reported by the engine to the final result
+     *
+     * @return The end of speech to final histogram
+     */
+    public LatencyHistogram getEndOfSpeechToFinal()
+    {
+        return endOfSpeechToFinal;
+    }
+
+    /**
+     * Gets the gap between a session ending and the next session being ready for speech
+     *
+     * @return The restart gap histogram
+     */
+    public LatencyHistogram getRestartGap()
+    {
+        return restartGap;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "LatencyMetrics{timeToReady=" + timeToReady + ", timeToFirstPartial=" + timeToFirstPartial
+                + ", endOfSpeechToFinal=" + endOfSpeechToFinal + ", restartGap=" + restartGap + "}";
+    }
+}
@@ -0,0 +1,339 @@
+package com.vikramezhil.droidspeech;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Droid Speech Listener Dispatcher
+ *
+ * Stands in for the droid speech listeners when a callback executor is set, queueing each callback
+ * as an event and delivering the events one after another on the executor, so the callbacks keep
+ * the order they were sent in. The queue is intrusive and drained by a single reused runnable, the
+ * event is the only allocation per callback
+ *
+ * @author Vikram Ezhil
+ */
+
+class ListenerDispatcher implements OnDSListener, OnDSResultListener, OnDSErrorListener, OnDSPartialDeltaListener,
+        OnDSWakePhraseListener, OnDSCommandListener, Runnable
+{
+    private static final int EVENT_SUPPORTED_LANGUAGES = 0;
+    private static final int EVENT_RMS_CHANGED = 1;
+    private static final int EVENT_LIVE_RESULT = 2;
+    private static final int EVENT_FINAL_RESULT = 3;
+    private static final int EVENT_CLOSED_BY_USER = 4;
+    private static final int EVENT_ERROR = 5;
+    private static final int EVENT_LIVE_SPEECH_RESULT = 6;
+    private static final int EVENT_FINAL_SPEECH_RESULT = 7;
+    private static final int EVENT_SPEECH_ERROR = 8;
+    private static final int EVENT_PARTIAL_DELTA = 9;
+    private static final int EVENT_WAKE_PHRASE = 10;
+    private static final int EVENT_COMMAND = 11;
+    private static final int EVENT_COMMAND_TIME_SAVED = 12;
+
+    private final Executor executor;
+
+    volatile OnDSListener droidSpeechListener;
+    volatile OnDSResultListener droidSpeechResultListener;
+    volatile OnDSErrorListener droidSpeechErrorListener;
+    volatile OnDSPartialDeltaListener droidSpeechPartialDeltaListener;
+    volatile OnDSWakePhraseListener droidSpeechWakePhraseListener;
+    volatile OnDSCommandListener droidSpeechCommandListener;
+
+    private Event head;
+    private Event tail;
+    private boolean draining = false;
+
+    ListenerDispatcher(Executor executor)
+    {
+        this.executor = executor;
+    }
+
+    /**
+     * Creates an executor posting to the looper
+     *
+     * @param looper The looper
+     *
+     * @return The looper executor
+     */
+    static Executor forLooper(Looper looper)
+    {
+        final Handler handler = new Handler(looper);
+
+        return new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+
+                handler.post(runnable);
+            }
+        };
+    }
+
+    @Override
+    public void onDroidSpeechSupportedLanguages(String currentSpeechLanguage, List<String> supportedSpeechLanguages)
+    {
+        enqueue(new Event(EVENT_SUPPORTED_LANGUAGES, currentSpeechLanguage, 0, supportedSpeechLanguages));
+    }
+
+    @Override
+    public void onDroidSpeechRmsChanged(float rmsChangedValue)
+    {
+        enqueue(new Event(EVENT_RMS_CHANGED, null, rmsChangedValue, null));
+    }
+
+    @Override
+    public void onDroidSpeechLiveResult(String liveSpeechResult)
+    {
+        enqueue(new Event(EVENT_LIVE_RESULT, liveSpeechResult, 0, null));
+    }
+
+    @Override
+    public void onDroidSpeechFinalResult(String finalSpeechResult)
+    {
+        enqueue(new Event(EVENT_FINAL_RESULT, finalSpeechResult, 0, null));
+    }
+
+    @Override
+    public void onDroidSpeechClosedByUser()
+    {
+        enqueue(new Event(EVENT_CLOSED_BY_USER, null, 0, null));
+    }
+
+    @Override
+    public void onDroidSpeechError(String errorMsg)
+    {
+        enqueue(new Event(EVENT_ERROR, errorMsg, 0, null));
+    }
+
+    @Override
+    public void onDroidSpeechLiveResult(DroidSpeechResult liveSpeechResult)
+    {
+        enqueue(new Event(EVENT_LIVE_SPEECH_RESULT, null, 0, liveSpeechResult));
+    }
+
+    @Override
+    public void onDroidSpeechFinalResult(DroidSpeechResult finalSpeechResult)
+    {
+        enqueue(new Event(EVENT_FINAL_SPEECH_RESULT, null, 0, finalSpeechResult));
+    }
+
+    @Override
+    public void onDroidSpeechError(DroidSpeechError error)
+    {
+        enqueue(new Event(EVENT_SPEECH_ERROR, null, 0, error));
+    }
+
+    @Override
+    public void onDroidSpeechPartialDelta(PartialDelta partialDelta)
+    {
+        enqueue(new Event(EVENT_PARTIAL_DELTA, null, 0, partialDelta));
+    }
+
+    @Override
+    public void onDroidSpeechWakePhrase(String wakePhrase)
+    {
+        enqueue(new Event(EVENT_WAKE_PHRASE, wakePhrase, 0, null));
+    }
+
+    @Override
+    public void onDroidSpeechCommand(DroidSpeechCommand command)
+    {
+        enqueue(new Event(EVENT_COMMAND, null, 0, command));
+    }
+
+    @Override
+    public void onDroidSpeechCommandTimeSaved(DroidSpeechCommand command, long timeSaved)
+    {
+        enqueue(new Event(EVENT_COMMAND_TIME_SAVED, timeSaved, command));
+    }
+
+    /**
+     * Drains the queued events on the executor, one drain runs at a time
+     */
+    @Override
+    public void run()
+    {
+        boolean drained = false;
+
+        try
+        {
+            while(true)
+            {
+                Event event;
+                synchronized(this)
+                {
+                    event = head;
+                    if(event == null)
+                    {
+                        tail = null;
+                        draining = false;
+                        drained = true;
+                        return;
+                    }
+
+                    head = event.next;
+                    event.next = null;
+                }
+
+                deliver(event);
+            }
+        }
+        finally
+        {
+            if(!drained)
+            {
+                // A listener threw, the events queued behind it are drained in a new run
+                boolean pending;
+                synchronized(this)
+                {
+                    pending = head != null;
+                    draining = pending;
+
+                    if(!pending)
+                    {
+                        tail = null;
+                    }
+                }
+
+                if(pending)
+                {
+                    schedule();
+                }
+            }
+        }
+    }
+
+    private void enqueue(Event event)
+    {
+        synchronized(this)
+        {
+            if(tail == null)
+            {
+                head = event;
+            }
+            else
+            {
+                tail.next = event;
+            }
+
+            tail = event;
+
+            if(draining) return;
+
+            draining = true;
+        }
+
+        schedule();
+    }
+
+    private void schedule()
+    {
+        try
+        {
+            executor.execute(this);
+        }
+        catch (RuntimeException e)
+        {
+            // Rejected (e.g. the executor was shut down), the queued events are drained by the next schedule
+            synchronized(this)
+            {
+                draining = false;
+            }
+
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void deliver(Event event)
+    {
+        switch(event.type)
+        {
+            case EVENT_SUPPORTED_LANGUAGES:
+                if(droidSpeechListener != null) droidSpeechListener.onDroidSpeechSupportedLanguages(event.text, (List<String>) event.payload);
+                break;
+
+            case EVENT_RMS_CHANGED:
+                if(droidSpeechListener != null) droidSpeechListener.onDroidSpeechRmsChanged(event.value);
+                break;
+
+            case EVENT_LIVE_RESULT:
+                if(droidSpeechListener != null) droidSpeechListener.onDroidSpeechLiveResult(event.text);
+                break;
+
+            case EVENT_FINAL_RESULT:
+                if(droidSpeechListener != null) droidSpeechListener.onDroidSpeechFinalResult(event.text);
+                break;
+
+            case EVENT_CLOSED_BY_USER:
+                if(droidSpeechListener != null) droidSpeechListener.onDroidSpeechClosedByUser();
+                break;
+
+            case EVENT_ERROR:
+                if(droidSpeechListener != null) droidSpeechListener.onDroidSpeechError(event.text);
+                break;
+
+            case EVENT_LIVE_SPEECH_RESULT:
+                if(droidSpeechResultListener != null) droidSpeechResultListener.onDroidSpeechLiveResult((DroidSpeechResult) event.payload);
+                break;
+
+            case EVENT_FINAL_SPEECH_RESULT:
+                if(droidSpeechResultListener != null) droidSpeechResultListener.onDroidSpeechFinalResult((DroidSpeechResult) event.payload);
+                break;
+
+            case EVENT_SPEECH_ERROR:
+                if(droidSpeechErrorListener != null) droidSpeechErrorListener.onDroidSpeechError((DroidSpeechError) event.payload);
+                break;
+
+            case EVENT_PARTIAL_DELTA:
+                if(droidSpeechPartialDeltaListener != null) droidSpeechPartialDeltaListener.onDroidSpeechPartialDelta((PartialDelta) event.payload);
+                break;
+
+            case EVENT_WAKE_PHRASE:
+                if(droidSpeechWakePhraseListener != null) droidSpeechWakePhraseListener.onDroidSpeechWakePhrase(event.text);
+                break;
+
+            case EVENT_COMMAND:
+                if(droidSpeechCommandListener != null) droidSpeechCommandListener.onDroidSpeechCommand((DroidSpeechCommand) event.payload);
+                break;
+
+            case EVENT_COMMAND_TIME_SAVED:
+                if(droidSpeechCommandListener != null) droidSpeechCommandListener.onDroidSpeechCommandTimeSaved((DroidSpeechCommand) event.payload, event.time);
+                break;
+        }
+    }
+
+    /**
+     * A queued listener callback, linked to the next queued callback
+     */
+    private static class Event
+    {
+        private final int type;
+        private final String text;
+        private final float value;
+        private final long time;
+        private final Object payload;
+        private Event next;
+
+        Event(int type, String text, float value, Object payload)
+        {
+            this.type = type;
+            this.text = text;
+            this.value = value;
+            this.time = 0;
+            this.payload = payload;
+        }
+
+        Event(int type, long time, Object payload)
+        {
+            this.type = type;
+            this.text = null;
+            this.value = 0;
+            this.time = time;
+            this.payload = payload;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.vikramezhil.droidspeech;
+
+/**
+ * Droid Speech Network Snapshot
+ *
+ * Immutable snapshot of the default network state kept by the connectivity monitor
+ *
+ * @author Vikram Ezhil
+ */
+
+public class NetworkSnapshot
+{
+    /**
+     * The default network transports
+     */
+    public enum Transport
+    {
+        NONE,
+        WIFI,
+        CELLULAR,
+        ETHERNET,
+        VPN,
+        BLUETOOTH,
+        OTHER
+    }
+
+    final static NetworkSnapshot OFFLINE = new NetworkSnapshot(Transport.NONE, false, false, false);
+
+    private final Transport transport;
+    private final boolean connected;
+    private final boolean metered;
+    private final boolean validated;
+
+    NetworkSnapshot(Transport transport, boolean connected, boolean metered, boolean validated)
+    {
+        this.transport = transport;
+        this.connected = connected;
+        this.metered = metered;
+        this.validated = validated;
+    }
+
+    /**
+     * Gets the default network transport
+     *
+     * @return The network transport
+     */
+    public Transport getTransport()
+    {
+        return transport;
+    }
+
+    /**
+     * Gets the connected status, any transport with internet capability (Wifi, Cellular, Ethernet, VPN etc)
+     * is considered as connected
+     *
+     * @return The connected status
+     */
+    public boolean isConnected()
+    {
+        return connected;
+    }
+
+    /**
+     * Gets the metered status
+     *
+     * @return The metered status
+     */
+    public boolean isMetered()
+    {
+        return metered;
+    }
+
+    /**
+     * Gets the validated status
+     *
+     * NOTE: Always true below API 23 when connected, as the validation is not reported there
+     *
+     * @return True - the network was validated to reach the internet, False - if otherwise
+     */
+    public boolean isValidated()
+    {
+        return validated;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "NetworkSnapshot{transport=" + transport + ", connected=" + connected + ", metered=" + metered
+                + ", validated=" + validated + "}";
+    }
+}
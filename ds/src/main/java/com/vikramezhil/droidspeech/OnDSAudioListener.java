@@ -0,0 +1,23 @@
+package com.vikramezhil.droidspeech;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Droid Speech Audio Listener
+ *
+ * @author Vikram Ezhil
+ */
+
+public interface OnDSAudioListener
+{
+    /**
+     * The droid speech captured audio
+     *
+     * NOTE: Called on the capture thread, the audio view is read only and is valid only during the call
+     *
+     * @param audio The read only view of the captured PCM audio
+     *
+     * @param position The absolute position of the audio in the capture ring buffer
+     */
+    void onDroidSpeechAudio(ByteBuffer audio, long position);
+}
@@ -0,0 +1,28 @@
+package com.vikramezhil.droidspeech;
+
+/**
+ * Droid Speech Command Listener
+ *
+ * @author Vikram Ezhil
+ */
+
+public interface OnDSCommandListener
+{
+    /**
+     * The droid speech command, sent once per session as soon as the speech matches a single
+     * registered command (from a live result if no longer command can follow, else from the final result)
+     *
+     * @param command The matched command
+     */
+    void onDroidSpeechCommand(DroidSpeechCommand command);
+
+    /**
+     * The time the droid speech command was sent ahead of the final result, sent when the final
+     * result of the session is delivered
+     *
+     * @param command The matched command
+     *
+     * @param timeSaved The time saved in milliseconds, 0 if the command was matched in the final result
+     */
+    void onDroidSpeechCommandTimeSaved(DroidSpeechCommand command, long timeSaved);
+}
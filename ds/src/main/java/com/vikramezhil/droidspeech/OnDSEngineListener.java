@@ -0,0 +1,63 @@
+package com.vikramezhil.droidspeech;
+
+/**
+ * Droid Speech Engine Listener
+ *
+ * The recognition events a speech engine delivers to droid speech, the results are passed as parsed
+ * droid speech results instead of the recognizer results bundle
+ *
+ * @author Vikram Ezhil
+ */
+
+public interface OnDSEngineListener
+{
+    /**
+     * The engine is ready for the user to start speaking
+     */
+    void onReadyForSpeech();
+
+    /**
+     * The user has started to speak
+     */
+    void onBeginningOfSpeech();
+
+    /**
+     * The sound level of the audio stream has changed
+     *
+     * @param rmsdB The new rms dB value
+     */
+    void onRmsChanged(float rmsdB);
+
+    /**
+     * More sound has been received
+     *
+     * @param buffer The audio buffer
+     */
+    void onBufferReceived(byte[] buffer);
+
+    /**
+     * The user has stopped speaking
+     */
+    void onEndOfSpeech();
+
+    /**
+     * The session ended with an error
+     *
+     * @param error The speech recognizer error code
+     */
+    void onError(int error);
+
+    /**
+     * The partial results of the session
+     *
+     * @param partialResult The partial result, null if there is no non empty best alternative
+     */
+    void onPartialResults(DroidSpeechResult partialResult);
+
+    /**
+     * The final results of the session
+     *
+     * @param finalResult The final result, null if there is no non empty best alternative
+     */
+    void onResults(DroidSpeechResult finalResult);
+}
@@ -0,0 +1,17 @@
+package com.vikramezhil.droidspeech;
+
+/**
+ * Droid Speech Error Listener
+ *
+ * @author Vikram Ezhil
+ */
+
+public interface OnDSErrorListener
+{
+    /**
+     * The droid speech structured error update, sent along with onDroidSpeechError(String)
+     *
+     * @param error The droid speech error
+     */
+    void onDroidSpeechError(DroidSpeechError error);
+}
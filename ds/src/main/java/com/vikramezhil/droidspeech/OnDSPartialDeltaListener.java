@@ -0,0 +1,17 @@
+package com.vikramezhil.droidspeech;
+
+/**
+ * Droid Speech Partial Delta Listener
+ *
+ * @author Vikram Ezhil
+ */
+
+public interface OnDSPartialDeltaListener
+{
+    /**
+     * The droid speech live result delta, only sent when the hypothesis words have changed
+     *
+     * @param partialDelta The changed region since the previous hypothesis
+     */
+    void onDroidSpeechPartialDelta(PartialDelta partialDelta);
+}
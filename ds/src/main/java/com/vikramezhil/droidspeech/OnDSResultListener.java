@@ -0,0 +1,26 @@
+package com.vikramezhil.droidspeech;
+
+/**
+ * Droid Speech Result Listener
+ *
+ * @author Vikram Ezhil
+ */
+
+public interface OnDSResultListener
+{
+    /**
+     * The droid speech recognizer live result with all the alternatives, sent along with
+     * onDroidSpeechLiveResult(String)
+     *
+     * @param liveSpeechResult The live speech result
+     */
+    void onDroidSpeechLiveResult(DroidSpeechResult liveSpeechResult);
+
+    /**
+     * The droid speech recognizer final result with all the alternatives, sent along with
+     * onDroidSpeechFinalResult(String)
+     *
+     * @param finalSpeechResult The final speech result
+     */
+    void onDroidSpeechFinalResult(DroidSpeechResult finalSpeechResult);
+}
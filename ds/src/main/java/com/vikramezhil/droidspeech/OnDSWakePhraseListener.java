@@ -0,0 +1,18 @@
+package com.vikramezhil.droidspeech;
+
+/**
+ * Droid Speech Wake Phrase Listener
+ *
+ * @author Vikram Ezhil
+ */
+
+public interface OnDSWakePhraseListener
+{
+    /**
+     * The droid speech wake phrase, sent once per session as soon as a live result contains it. The
+     * speech after the wake phrase follows as the droid speech live and final results
+     *
+     * @param wakePhrase The wake phrase as it was set
+     */
+    void onDroidSpeechWakePhrase(String wakePhrase);
+}
@@ -0,0 +1,102 @@
+package com.vikramezhil.droidspeech;
+
+import java.util.List;
+
+/**
+ * Droid Speech Partial Delta
+ *
+ * The changed region between two consecutive hypotheses of a session, in words. Applying a delta
+ * to the previous words means keeping the first getReplaceFrom() words, dropping the next
+ * getReplacedCount() words and appending getNewWords()
+ *
+ * @author Vikram Ezhil
+ */
+
+public class PartialDelta
+{
+    private final int replaceFrom;
+    private final int replacedCount;
+    private final List<String> newWords;
+    private final List<String> committedWords;
+    private final int committedCount;
+    private final boolean finalDelta;
+
+    PartialDelta(int replaceFrom, int replacedCount, List<String> newWords, List<String> committedWords,
+                 int committedCount, boolean finalDelta)
+    {
+        this.replaceFrom = replaceFrom;
+        this.replacedCount = replacedCount;
+        this.newWords = newWords;
+        this.committedWords = committedWords;
+        this.committedCount = committedCount;
+        this.finalDelta = finalDelta;
+    }
+
+    /**
+     * Gets the index of the first changed word, the words before it are unchanged
+     *
+     * @return The index of the first changed word
+     */
+    public int getReplaceFrom()
+    {
+        return replaceFrom;
+    }
+
+    /**
+     * Gets the number of previous words revised by this delta
+     *
+     * @return The number of replaced words
+     */
+    public int getReplacedCount()
+    {
+        return replacedCount;
+    }
+
+    /**
+     * Gets the words replacing the revised words, starting at getReplaceFrom()
+     *
+     * @return The new words
+     */
+    public List<String> getNewWords()
+    {
+        return newWords;
+    }
+
+    /**
+     * Gets the words committed by this delta, appended after the previously committed words
+     *
+     * @return The newly committed words
+     */
+    public List<String> getCommittedWords()
+    {
+        return committedWords;
+    }
+
+    /**
+     * Gets the total number of committed words of the session, if the recognizer revises a committed
+     * word this drops back to getReplaceFrom() and the words are committed again later
+     *
+     * @return The committed words count
+     */
+    public int getCommittedCount()
+    {
+        return committedCount;
+    }
+
+    /**
+     * Gets the final delta status
+     *
+     * @return True - the delta is from the final result and commits every word, False - if otherwise
+     */
+    public boolean isFinal()
+    {
+        return finalDelta;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "PartialDelta{replaceFrom=" + replaceFrom + ", replacedCount=" + replacedCount + ", newWords=" + newWords
+                + ", committedWords=" + committedWords + ", committedCount=" + committedCount + ", final=" + finalDelta + "}";
+    }
+}
@@ -0,0 +1,132 @@
+package com.vikramezhil.droidspeech;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Droid Speech Partial Differ
+ *
+ * Keeps the previous hypothesis of the session and turns each new hypothesis into a delta of the
+ * changed words. A word is committed once it stayed unchanged over the last
+ * Extensions.PARTIAL_COMMIT_STABILITY hypotheses
+ *
+ * @author Vikram Ezhil
+ */
+
+class PartialDiffer
+{
+    private ArrayList<String> previousWords = new ArrayList<>();
+    private ArrayList<String> currentWords = new ArrayList<>();
+    private final int[] stablePrefixes = new int[Extensions.PARTIAL_COMMIT_STABILITY];
+    private int hypothesisCount;
+    private int committedCount;
+
+    /**
+     * Resets the differ for a new session
+     */
+    void reset()
+    {
+        previousWords.clear();
+        hypothesisCount = 0;
+        committedCount = 0;
+    }
+
+    /**
+     * Diffs the hypothesis against the previous one
+     *
+     * @param hypothesis The hypothesis
+     *
+     * @param isFinal True - the hypothesis is the final result and all the words are committed, False - if otherwise
+     *
+     * @return The partial delta, null if the words didn't change (and nothing was committed)
+     */
+    PartialDelta diff(String hypothesis, boolean isFinal)
+    {
+        tokenize(hypothesis, currentWords);
+
+        int previousSize = previousWords.size();
+        int currentSize = currentWords.size();
+
+        // Finding the unchanged words prefix
+        int stablePrefix = 0;
+        int limit = Math.min(previousSize, currentSize);
+        while(stablePrefix < limit && previousWords.get(stablePrefix).equals(currentWords.get(stablePrefix)))
+        {
+            stablePrefix++;
+        }
+
+        // Words revised by the recognizer are no longer committed
+        committedCount = Math.min(committedCount, stablePrefix);
+        int previousCommittedCount = committedCount;
+
+        if(isFinal)
+        {
+            committedCount = currentSize;
+        }
+        else
+        {
+            // Remembering the stable prefix of the latest hypotheses, the commit point is the shortest of them
+            stablePrefixes[hypothesisCount % stablePrefixes.length] = stablePrefix;
+            hypothesisCount++;
+
+            if(hypothesisCount >= stablePrefixes.length)
+            {
+                int commitPoint = stablePrefix;
+                for(int prefix : stablePrefixes)
+                {
+                    commitPoint = Math.min(commitPoint, prefix);
+                }
+
+                committedCount = Math.max(committedCount, commitPoint);
+            }
+        }
+
+        boolean changed = stablePrefix != previousSize || stablePrefix != currentSize;
+
+        // Swapping the word lists, the current words become the previous words of the next hypothesis
+        ArrayList<String> words = previousWords;
+        previousWords = currentWords;
+        currentWords = words;
+
+        if(!changed && committedCount == previousCommittedCount && !isFinal) return null;
+
+        List<String> newWords = stablePrefix == currentSize ? Collections.<String>emptyList()
+                : Collections.unmodifiableList(new ArrayList<>(previousWords.subList(stablePrefix, currentSize)));
+        List<String> committedWords = committedCount == previousCommittedCount ? Collections.<String>emptyList()
+                : Collections.unmodifiableList(new ArrayList<>(previousWords.subList(previousCommittedCount, committedCount)));
+
+        return new PartialDelta(stablePrefix, previousSize - stablePrefix, newWords, committedWords, committedCount, isFinal);
+    }
+
+    /**
+     * Splits the hypothesis into words on whitespace
+     */
+    private static void tokenize(String hypothesis, List<String> words)
+    {
+        words.clear();
+
+        int length = hypothesis.length();
+        int start = -1;
+        for(int i = 0; i < length; i++)
+        {
+            if(Character.isWhitespace(hypothesis.charAt(i)))
+            {
+                if(start >= 0)
+                {
+                    words.add(hypothesis.substring(start, i));
+                    start = -1;
+                }
+            }
+            else if(start < 0)
+            {
+                start = i;
+            }
+        }
+
+        if(start >= 0)
+        {
+            words.add(hypothesis.substring(start));
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.vikramezhil.droidspeech;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Droid Speech Pre-Roll Buffer
+ *
+ * Keeps the microphone captured into a bounded ring buffer while a session is restarting, so the
+ * speech during the restart gap can be handed to the next session
+ *
+ * @author Vikram Ezhil
+ */
+
+class PreRollBuffer
+{
+    private AudioCapture audioCapture;
+    private ByteBuffer handOverView;
+    private boolean gapOpen;
+    private int gap;
+    private long gapStartPosition;
+    private long capturedBytes = -1;
+    private long lastRecovered = -1;
+    private long lastDropped = -1;
+
+    /**
+     * Sets the pre-roll duration, the newest audio of this length is kept from each gap
+     *
+     * @param duration The duration in milliseconds, 0 disables the pre-roll
+     */
+    void setDuration(long duration)
+    {
+        cancel();
+
+        int frameCount = (int) (duration * Extensions.CAPTURE_SAMPLE_RATE * 2 / 1000 / Extensions.CAPTURE_FRAME_SIZE);
+
+        if(frameCount <= 0)
+        {
+            audioCapture = null;
+            handOverView = null;
+        }
+        else
+        {
+            audioCapture = new AudioCapture(frameCount);
+            audioCapture.setSource(AudioCaptureSource.AUDIO_RECORD);
+            handOverView = audioCapture.getRingBuffer().newView();
+        }
+    }
+
+    /**
+     * Begins capturing the restart gap
+     */
+    void beginGap()
+    {
+        if(audioCapture == null || gapOpen) return;
+
+        gapStartPosition = audioCapture.getRingBuffer().getWritePosition();
+        capturedBytes = -1;
+
+        gapOpen = audioCapture.start();
+    }
+
+    /**
+     * Ends capturing the restart gap, releasing the microphone for the next session without blocking
+     *
+     * @param onReleased Run on the droid speech scheduler (the main thread by default) once the microphone
+     * is released (right away if no gap is being captured), not run if the pre-roll is canceled in the mean time
+     */
+    void endGap(final Runnable onReleased)
+    {
+        if(!gapOpen)
+        {
+            onReleased.run();
+            return;
+        }
+
+        gapOpen = false;
+
+        final int endedGap = gap;
+        final AudioRingBuffer ringBuffer = audioCapture.getRingBuffer();
+
+        // The capture thread may have stopped on its own already (e.g. a read error), the audio up to
+        // then is handed over all the same
+        audioCapture.stop(new Runnable() {
+
+            @Override
+            public void run()
+            {
+                Clocks.scheduler().schedule(new Runnable() {
+
+                    @Override
+                    public void run()
+                    {
+                        if(endedGap != gap) return;
+
+                        // The writer is gone, so the ring is stable from here on
+                        capturedBytes = ringBuffer.getWritePosition() - gapStartPosition;
+
+                        onReleased.run();
+                    }
+                }, 0);
+            }
+        });
+    }
+
+    /**
+     * Hands the audio of the last gap to the speech engine if it accepts audio input
+     *
+     * @param speechEngine The speech engine running the next session
+     */
+    void handOver(SpeechEngine speechEngine)
+    {
+        if(capturedBytes < 0) return;
+
+        AudioRingBuffer ringBuffer = audioCapture.getRingBuffer();
+        long heldBytes = Math.min(capturedBytes, ringBuffer.getCapacity());
+        long recoveredBytes = 0;
+
+        if(speechEngine instanceof AudioInputEngine)
+        {
+            long position = ringBuffer.getWritePosition() - heldBytes;
+            long end = ringBuffer.getWritePosition();
+
+            while(position < end)
+            {
+                if(!ringBuffer.view(position, (int) (end - position), handOverView) || !handOverView.hasRemaining()) break;
+
+                int remaining = handOverView.remaining();
+                ((AudioInputEngine) speechEngine).writeAudio(handOverView);
+                position += remaining;
+                recoveredBytes += remaining;
+            }
+        }
+
+        lastRecovered = toMillis(recoveredBytes);
+        lastDropped = toMillis(capturedBytes - recoveredBytes);
+        capturedBytes = -1;
+    }
+
+    /**
+     * Stops capturing without handing the audio over and without waiting for the microphone release,
+     * used when droid speech is closed
+     */
+    void cancel()
+    {
+        // Dropping the pending release of the ended gap (if any)
+        gap++;
+        gapOpen = false;
+
+        if(audioCapture != null)
+        {
+            audioCapture.stop(null);
+        }
+
+        capturedBytes = -1;
+    }
+
+    long getLastRecovered()
+    {
+        return lastRecovered;
+    }
+
+    long getLastDropped()
+    {
+        return lastDropped;
+    }
+
+    private static long toMillis(long bytes)
+    {
+        return bytes * 1000 / (Extensions.CAPTURE_SAMPLE_RATE * 2);
+    }
+}
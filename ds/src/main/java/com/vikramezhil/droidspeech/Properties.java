@@ -17,11 +17,53 @@ class Properties
     
     String listeningMsg;
 
-    String oneStepVerifySpeechResult;
+    String spottedWakePhrase;
+
+    DroidSpeechCommand dispatchedCommand;
+
+    DroidSpeechResult oneStepVerifySpeechResult;
+
+    DroidSpeechResult liveSpeechResult;
+
+    Runnable liveResultCommit;
+
+    String oneStepVerifyConfirmText;
+
+    String oneStepVerifyRetryText;
+
+    int[] recognitionProgressViewColors;
+
+    Integer recognitionProgressMsgColor;
+
+    Integer oneStepVerifyConfirmTextColor;
+
+    Integer oneStepVerifyRetryTextColor;
 
     long startListeningTime;
     
     long pauseAndSpeakTime;
+
+    long lastSpeechTime;
+
+    long sessionId;
+
+    long sessionEndTime = -1;
+
+    long commandDispatchTime;
+
+    long lastRestartGap = -1;
+
+    int executedRestarts;
+
+    int suppressedRestarts;
+
+    int traceCookie;
+
+    int sessionGeneration;
+
+    int restartGeneration;
+
+    int fuzzyMatchDistance = Extensions.FUZZY_MATCH_DISTANCE;
     
     boolean offlineSpeechRecognition = false;
     
@@ -30,10 +72,22 @@ class Properties
     boolean showRecognitionProgressView = false;
     
     boolean oneStepResultVerify = false;
-    
-    boolean onReadyForSpeech = false;
-    
-    boolean speechResultFound = false;
-    
-    boolean closedByUser = false;
+
+    boolean voiceActivityEndpointing = true;
+
+    boolean languageDetailsReceived = false;
+
+    boolean pausedForNetwork = false;
+
+    boolean restartScheduled = false;
+
+    boolean frameAlignedDispatch = false;
+
+    boolean journalPartials = false;
+
+    boolean wakePhraseEarlyCancel = false;
+
+    boolean wakePhraseArmed = false;
+
+    boolean wakePhraseSessionArmed = false;
 }
@@ -98,6 +98,8 @@ class RecognitionProgressView extends View
             return;
         }
 
+        DroidSpeechTrace.beginSection("DroidSpeech:RecognitionProgressView.onDraw");
+
         if(animating)
         {
             animator.animate();
@@ -123,6 +125,8 @@ class RecognitionProgressView extends View
         {
             invalidate();
         }
+
+        DroidSpeechTrace.endSection();
     }
 
     /**
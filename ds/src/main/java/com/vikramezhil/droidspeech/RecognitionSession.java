@@ -0,0 +1,172 @@
+package com.vikramezhil.droidspeech;
+
+import android.util.Log;
+
+import java.util.Arrays;
+
+/**
+ * Droid Speech Recognition Session
+ *
+ * State machine for a recognition session, illegal transitions are rejected and every accepted
+ * transition is timestamped
+ *
+ * @author Vikram Ezhil
+ */
+
+class RecognitionSession
+{
+    private final String TAG = "RecognitionSession";
+
+    private static final SessionState[] STATES = SessionState.values();
+
+    // A virtual clock starts at 0, so 0 is a valid entry time
+    private static final long NOT_ENTERED = -1;
+    private static final boolean[][] TRANSITIONS = new boolean[STATES.length][STATES.length];
+
+    static
+    {
+        // A session only starts once the previous one ended, never on top of a running one
+        allow(SessionState.IDLE, SessionState.STARTING, SessionState.CLOSED);
+
+        allow(SessionState.STARTING, SessionState.READY, SessionState.SPEAKING, SessionState.FINALIZING,
+                SessionState.RESTARTING, SessionState.IDLE, SessionState.CLOSED);
+
+        allow(SessionState.READY, SessionState.SPEAKING, SessionState.FINALIZING, SessionState.RESTARTING,
+                SessionState.IDLE, SessionState.CLOSED);
+
+        allow(SessionState.SPEAKING, SessionState.FINALIZING, SessionState.RESTARTING, SessionState.IDLE,
+                SessionState.CLOSED);
+
+        allow(SessionState.FINALIZING, SessionState.RESTARTING, SessionState.IDLE, SessionState.CLOSED);
+
+        allow(SessionState.RESTARTING, SessionState.STARTING, SessionState.IDLE, SessionState.CLOSED);
+
+        allow(SessionState.CLOSED, SessionState.STARTING);
+    }
+
+    private volatile SessionState state = SessionState.IDLE;
+    private final long[] enteredTimes = new long[STATES.length];
+    private long lastTransitionTime;
+
+    RecognitionSession()
+    {
+        Arrays.fill(enteredTimes, NOT_ENTERED);
+
+        lastTransitionTime = Clocks.millis();
+        enteredTimes[SessionState.IDLE.ordinal()] = lastTransitionTime;
+    }
+
+    private static void allow(SessionState from, SessionState... to)
+    {
+        for(SessionState state : to)
+        {
+            TRANSITIONS[from.ordinal()][state.ordinal()] = true;
+        }
+    }
+
+    /**
+     * Moves the session to the given state
+     *
+     * NOTE: Transitioning to the current state is treated as illegal, so only the first of several
+     * competing callbacks wins the transition
+     *
+     * @param to The new session state
+     *
+     * @return True - if the transition was accepted, False - if it was rejected
+     */
+    synchronized boolean transition(SessionState to)
+    {
+        SessionState from = state;
+
+        if(!TRANSITIONS[from.ordinal()][to.ordinal()])
+        {
+            if(from != to)
+            {
+                Log.w(TAG, "Illegal session transition " + from + " -> " + to);
+            }
+
+            return false;
+        }
+
+        lastTransitionTime = Clocks.millis();
+
+        if(to == SessionState.STARTING)
+        {
+            // A new session begins, clearing the timestamps of the previous session
+            Arrays.fill(enteredTimes, NOT_ENTERED);
+        }
+
+        enteredTimes[to.ordinal()] = lastTransitionTime;
+        state = to;
+
+        return true;
+    }
+
+    /**
+     * Gets the current session state
+     *
+     * @return The session state
+     */
+    SessionState getState()
+    {
+        return state;
+    }
+
+    /**
+     * Checks if the session is in the given state
+     *
+     * @param state The session state
+     *
+     * @return True - if the session is in the given state, False - if otherwise
+     */
+    boolean is(SessionState state)
+    {
+        return this.state == state;
+    }
+
+    /**
+     * Checks if the session is listening to the user, i.e. starting, ready or speaking
+     *
+     * @return The listening status
+     */
+    boolean isListening()
+    {
+        SessionState state = this.state;
+
+        return state == SessionState.STARTING || state == SessionState.READY || state == SessionState.SPEAKING;
+    }
+
+    /**
+     * Checks if the given state was entered during the current session
+     *
+     * @param state The session state
+     *
+     * @return True - if the state was entered since the session started, False - if otherwise
+     */
+    synchronized boolean hasEntered(SessionState state)
+    {
+        return enteredTimes[state.ordinal()] != NOT_ENTERED;
+    }
+
+    /**
+     * Gets the time the given state was entered during the current session
+     *
+     * @param state The session state
+     *
+     * @return The time in milliseconds, -1 if the state wasn't entered in the current session
+     */
+    synchronized long getEnteredTime(SessionState state)
+    {
+        return enteredTimes[state.ordinal()];
+    }
+
+    /**
+     * Gets the time of the last accepted transition
+     *
+     * @return The time in milliseconds
+     */
+    synchronized long getLastTransitionTime()
+    {
+        return lastTransitionTime;
+    }
+}
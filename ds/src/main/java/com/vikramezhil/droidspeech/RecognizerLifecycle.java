@@ -0,0 +1,268 @@
+package com.vikramezhil.droidspeech;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.Bundle;
+import android.speech.RecognitionListener;
+import android.speech.SpeechRecognizer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Droid Speech Recognizer Lifecycle
+ *
+ * Keeps a single bound speech recognizer (and optionally a pre-created standby) alive across
+ * continuous recognition restarts, so each session is started with cancel() / startListening()
+ * on the same service connection instead of a destroy / create cycle
+ *
+ * @author Vikram Ezhil
+ */
+
+class RecognizerLifecycle implements SpeechEngine
+{
+    // Recognizers created and not yet destroyed across the process, for leak diagnostics
+    private static final AtomicInteger liveRecognizers = new AtomicInteger();
+
+    final static RecognizerFactory SYSTEM = new RecognizerFactory() {
+        @Override
+        public SpeechRecognizer createSpeechRecognizer(Context context) {
+
+            return SpeechRecognizer.createSpeechRecognizer(context);
+        }
+    };
+
+    private static volatile RecognizerFactory recognizerFactory = SYSTEM;
+
+    private final Context context;
+    private SpeechRecognizer activeRecognizer;
+    private SpeechRecognizer standbyRecognizer;
+    private OnDSEngineListener engineListener;
+    private boolean standbyEnabled = false;
+
+    RecognizerLifecycle(Context context)
+    {
+        this.context = context;
+    }
+
+    /**
+     * Creates the speech recognizers
+     */
+    interface RecognizerFactory
+    {
+        /**
+         * Creates a speech recognizer
+         *
+         * @param context The context instance
+         *
+         * @return The speech recognizer
+         */
+        SpeechRecognizer createSpeechRecognizer(Context context);
+    }
+
+    /**
+     * Sets the process wide recognizer factory (e.g. to run droid speech in the JVM tests)
+     *
+     * @param factory The recognizer factory, null restores the android speech recognizer
+     */
+    static void setRecognizerFactory(RecognizerFactory factory)
+    {
+        recognizerFactory = factory == null ? SYSTEM : factory;
+    }
+
+    /**
+     * Creates the active recognizer if it doesn't exist yet, the existing recognizer is reused otherwise
+     */
+    void bind()
+    {
+        if(activeRecognizer == null)
+        {
+            activeRecognizer = create();
+            activeRecognizer.setRecognitionListener(recognitionListener);
+        }
+
+        if(standbyEnabled && standbyRecognizer == null)
+        {
+            standbyRecognizer = create();
+        }
+    }
+
+    /**
+     * Sets the engine listener, the recognizers deliver to it through the shared recognition listener
+     *
+     * @param engineListener The engine listener
+     */
+    @Override
+    public void setEngineListener(OnDSEngineListener engineListener)
+    {
+        this.engineListener = engineListener;
+    }
+
+    /**
+     * Sets the standby recognizer status
+     *
+     * @param standbyEnabled True - a standby recognizer is kept ready, False - if otherwise
+     */
+    void setStandbyEnabled(boolean standbyEnabled)
+    {
+        this.standbyEnabled = standbyEnabled;
+
+        if(!standbyEnabled && standbyRecognizer != null)
+        {
+            release(standbyRecognizer);
+            standbyRecognizer = null;
+        }
+        else if(standbyEnabled && activeRecognizer != null)
+        {
+            bind();
+        }
+    }
+
+    /**
+     * Starts listening on the active recognizer, cancelling any running session on it first
+     *
+     * @param speechIntent The speech intent
+     */
+    @Override
+    public void startListening(Intent speechIntent)
+    {
+        bind();
+
+        activeRecognizer.cancel();
+        activeRecognizer.startListening(speechIntent);
+    }
+
+    /**
+     * Cancels the running session while keeping the recognizer bound
+     */
+    @Override
+    public void cancel()
+    {
+        if(activeRecognizer != null)
+        {
+            activeRecognizer.cancel();
+        }
+    }
+
+    /**
+     * Replaces the active recognizer with the standby one (or drops it when there is no standby),
+     * used when the active recognizer reports it is stuck
+     */
+    void recycle()
+    {
+        if(activeRecognizer != null)
+        {
+            release(activeRecognizer);
+        }
+
+        activeRecognizer = standbyRecognizer;
+        standbyRecognizer = null;
+
+        if(activeRecognizer != null)
+        {
+            activeRecognizer.setRecognitionListener(recognitionListener);
+        }
+    }
+
+    /**
+     * Destroys the active and standby recognizers
+     */
+    @Override
+    public void destroy()
+    {
+        if(activeRecognizer != null)
+        {
+            release(activeRecognizer);
+            activeRecognizer = null;
+        }
+
+        if(standbyRecognizer != null)
+        {
+            release(standbyRecognizer);
+            standbyRecognizer = null;
+        }
+    }
+
+    /**
+     * Gets the number of recognizers created and not yet destroyed across all the droid speech instances
+     *
+     * @return The live recognizer count
+     */
+    static int getLiveRecognizerCount()
+    {
+        return liveRecognizers.get();
+    }
+
+    private SpeechRecognizer create()
+    {
+        SpeechRecognizer speechRecognizer = recognizerFactory.createSpeechRecognizer(context);
+        liveRecognizers.incrementAndGet();
+
+        return speechRecognizer;
+    }
+
+    private static void release(SpeechRecognizer speechRecognizer)
+    {
+        speechRecognizer.destroy();
+        liveRecognizers.decrementAndGet();
+    }
+
+    /**
+     * The recognition listener of the recognizers, parsing the results bundles for the engine listener
+     */
+    private final RecognitionListener recognitionListener = new RecognitionListener() {
+
+        @Override
+        public void onReadyForSpeech(Bundle bundle)
+        {
+            if(engineListener != null) engineListener.onReadyForSpeech();
+        }
+
+        @Override
+        public void onBeginningOfSpeech()
+        {
+            if(engineListener != null) engineListener.onBeginningOfSpeech();
+        }
+
+        @Override
+        public void onRmsChanged(float rmsdB)
+        {
+            if(engineListener != null) engineListener.onRmsChanged(rmsdB);
+        }
+
+        @Override
+        public void onBufferReceived(byte[] bytes)
+        {
+            if(engineListener != null) engineListener.onBufferReceived(bytes);
+        }
+
+        @Override
+        public void onEndOfSpeech()
+        {
+            if(engineListener != null) engineListener.onEndOfSpeech();
+        }
+
+        @Override
+        public void onError(int error)
+        {
+            if(engineListener != null) engineListener.onError(error);
+        }
+
+        @Override
+        public void onResults(Bundle results)
+        {
+            if(engineListener != null) engineListener.onResults(DroidSpeechResult.fromBundle(results));
+        }
+
+        @Override
+        public void onPartialResults(Bundle partialResults)
+        {
+            if(engineListener != null) engineListener.onPartialResults(DroidSpeechResult.fromBundle(partialResults));
+        }
+
+        @Override
+        public void onEvent(int i, Bundle bundle)
+        {
+            // NA
+        }
+    };
+}
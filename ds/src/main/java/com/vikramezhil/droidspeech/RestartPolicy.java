@@ -0,0 +1,38 @@
+package com.vikramezhil.droidspeech;
+
+/**
+ * Droid Speech Restart Policy
+ *
+ * Decides how long droid speech waits before restarting a session that ended without a result
+ *
+ * @author Vikram Ezhil
+ */
+
+public interface RestartPolicy
+{
+    /**
+     * Returned by {@link #getRestartDelay(int, long)} when the restart should be suppressed
+     */
+    long NO_RESTART = -1;
+
+    /**
+     * Gets the delay before the next restart
+     *
+     * @param error The speech recognizer error code which ended the session
+     *
+     * @param idleTime The time since speech was last detected in milliseconds
+     *
+     * @return The restart delay in milliseconds, {@link #NO_RESTART} to suppress the restart
+     */
+    long getRestartDelay(int error, long idleTime);
+
+    /**
+     * Sends an update that speech was detected in the current session
+     */
+    void onSpeechDetected();
+
+    /**
+     * Resets the policy, called when droid speech recognition is started afresh
+     */
+    void reset();
+}
@@ -0,0 +1,45 @@
+package com.vikramezhil.droidspeech;
+
+/**
+ * Droid Speech Session State
+ *
+ * @author Vikram Ezhil
+ */
+
+public enum SessionState
+{
+    /**
+     * No session is running
+     */
+    IDLE,
+
+    /**
+     * The recognizer was asked to start listening
+     */
+    STARTING,
+
+    /**
+     * The recognizer is ready for the user to speak
+     */
+    READY,
+
+    /**
+     * The user is speaking, live results are being received
+     */
+    SPEAKING,
+
+    /**
+     * A final result was found and is being delivered (or verified with the user)
+     */
+    FINALIZING,
+
+    /**
+     * The session ended without a result and a restart is scheduled
+     */
+    RESTARTING,
+
+    /**
+     * The session was closed, no restart will happen until recognition is started again
+     */
+    CLOSED
+}
@@ -0,0 +1,39 @@
+package com.vikramezhil.droidspeech;
+
+import android.content.Intent;
+
+/**
+ * Droid Speech Engine
+ *
+ * The recognition backend droid speech runs its sessions on, the default engine is backed by the
+ * android speech recognizer
+ *
+ * @author Vikram Ezhil
+ */
+
+public interface SpeechEngine
+{
+    /**
+     * Sets the listener the engine delivers its recognition events to
+     *
+     * @param engineListener The engine listener
+     */
+    void setEngineListener(OnDSEngineListener engineListener);
+
+    /**
+     * Starts listening for a new session, any running session is canceled first
+     *
+     * @param speechIntent The speech intent
+     */
+    void startListening(Intent speechIntent);
+
+    /**
+     * Cancels the running session, the engine stays usable for the next session
+     */
+    void cancel();
+
+    /**
+     * Destroys the engine and releases its resources, the engine may be started again afterwards
+     */
+    void destroy();
+}
@@ -0,0 +1,76 @@
+package com.vikramezhil.droidspeech;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import android.speech.RecognizerIntent;
+
+import java.util.HashMap;
+
+/**
+ * Droid Speech Intent Cache
+ *
+ * Keeps one prebuilt speech intent per language and offline status, so switching between them only
+ * swaps the intent the next session is started with
+ *
+ * @author Vikram Ezhil
+ */
+
+class SpeechIntentCache
+{
+    private final Context context;
+    private final HashMap<String, Intent> speechIntents = new HashMap<>();
+
+    SpeechIntentCache(Context context)
+    {
+        this.context = context;
+    }
+
+    /**
+     * Gets the speech intent, built on first use
+     *
+     * @param language The speech language, null for the recognizer default
+     *
+     * @param offlineSpeechRecognition The offline speech recognition status
+     *
+     * @return The speech intent
+     */
+    Intent get(String language, boolean offlineSpeechRecognition)
+    {
+        // Offline recognition is only requested on API 23 and above, keeping a single intent below it
+        boolean preferOffline = offlineSpeechRecognition && Build.VERSION.SDK_INT >= Build.VERSION_CODES.M;
+        String key = (preferOffline ? "offline:" : "online:") + (language == null ? "" : language);
+
+        Intent speechIntent = speechIntents.get(key);
+        if(speechIntent == null)
+        {
+            speechIntent = build(language, preferOffline);
+            speechIntents.put(key, speechIntent);
+        }
+
+        return speechIntent;
+    }
+
+    private Intent build(String language, boolean preferOffline)
+    {
+        Intent speechIntent = new Intent(RecognizerIntent.ACTION_RECOGNIZE_SPEECH);
+        speechIntent.putExtra(RecognizerIntent.EXTRA_LANGUAGE_MODEL, RecognizerIntent.LANGUAGE_MODEL_FREE_FORM);
+        speechIntent.putExtra(RecognizerIntent.EXTRA_CALLING_PACKAGE, context.getPackageName());
+        speechIntent.putExtra(RecognizerIntent.EXTRA_PARTIAL_RESULTS, true);
+        speechIntent.putExtra(RecognizerIntent.EXTRA_MAX_RESULTS, Extensions.MAX_VOICE_RESULTS);
+        if(language != null)
+        {
+            // Setting the speech language
+            speechIntent.putExtra(RecognizerIntent.EXTRA_LANGUAGE, language);
+            speechIntent.putExtra(RecognizerIntent.EXTRA_LANGUAGE_PREFERENCE, language);
+        }
+
+        if(preferOffline)
+        {
+            // Setting offline speech recognition to true
+            speechIntent.putExtra(RecognizerIntent.EXTRA_PREFER_OFFLINE, true);
+        }
+
+        return speechIntent;
+    }
+}
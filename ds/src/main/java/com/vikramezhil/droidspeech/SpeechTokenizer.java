@@ -0,0 +1,93 @@
+package com.vikramezhil.droidspeech;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Droid Speech Tokenizer
+ *
+ * Splits the speech into normalized words for the phrase matching, the words are lower cased with
+ * the punctuation (other than apostrophes) removed
+ *
+ * @author Vikram Ezhil
+ */
+
+final class SpeechTokenizer
+{
+    private SpeechTokenizer()
+    {
+    }
+
+    /**
+     * Splits the text into normalized words on whitespace, words left empty by the normalization are skipped
+     *
+     * @param text The text
+     *
+     * @param words The list the words are added to, cleared first
+     *
+     * @param wordStarts The list the start offset of each word in the text is added to, cleared first (can be null)
+     *
+     * @param wordEnds The list the end offset of each word in the text is added to, cleared first (can be null)
+     */
+    static void tokenize(String text, List<String> words, List<Integer> wordStarts, List<Integer> wordEnds)
+    {
+        words.clear();
+        if(wordStarts != null) wordStarts.clear();
+        if(wordEnds != null) wordEnds.clear();
+
+        int length = text.length();
+        int start = -1;
+        for(int i = 0; i <= length; i++)
+        {
+            if(i == length || Character.isWhitespace(text.charAt(i)))
+            {
+                if(start < 0) continue;
+
+                String word = normalize(text.substring(start, i));
+                if(!word.isEmpty())
+                {
+                    words.add(word);
+                    if(wordStarts != null) wordStarts.add(start);
+                    if(wordEnds != null) wordEnds.add(i);
+                }
+
+                start = -1;
+            }
+            else if(start < 0)
+            {
+                start = i;
+            }
+        }
+    }
+
+    /**
+     * Normalizes a single word
+     *
+     * @param word The word
+     *
+     * @return The lower cased word without punctuation, empty if nothing is left
+     */
+    static String normalize(String word)
+    {
+        StringBuilder normalized = null;
+        int length = word.length();
+        for(int i = 0; i < length; i++)
+        {
+            char c = word.charAt(i);
+            boolean keep = Character.isLetterOrDigit(c) || c == '\'';
+
+            // Copying only once a character has to be dropped
+            if(!keep && normalized == null)
+            {
+                normalized = new StringBuilder(length);
+                normalized.append(word, 0, i);
+            }
+            else if(keep && normalized != null)
+            {
+                normalized.append(c);
+            }
+        }
+
+        return (normalized == null ? word : normalized.toString()).toLowerCase(Locale.ROOT);
+    }
+}
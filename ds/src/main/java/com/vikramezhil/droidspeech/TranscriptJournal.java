@@ -0,0 +1,369 @@
+package com.vikramezhil.droidspeech;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Droid Speech Transcript Journal
+ *
+ * Append only log of the recognition results, written into memory mapped segment files so an
+ * appended record survives the process dying right after the append. The segments are forced to
+ * the storage in batches on a background thread, a record torn by a power loss is detected by its
+ * checksum and dropped when the journal is opened again
+ *
+ * Record layout: length (int) | crc32 (int) | type (byte) | session id (long) | timestamp (long) | utf-8 text
+ *
+ * NOTE: Appends should come from a single thread, readers may run on any thread
+ *
+ * @author Vikram Ezhil
+ */
+
+public class TranscriptJournal
+{
+    private final static String TAG = "DroidSpeechJournal";
+
+    final static String SEGMENT_PREFIX = "transcript-";
+    final static String SEGMENT_SUFFIX = ".log";
+    final static int HEADER_SIZE = 4 + 4 + 1 + 8 + 8;
+    final static Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final File directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final CRC32 crc32 = new CRC32();
+    private final HandlerThread forceThread;
+    private final Handler forceHandler;
+
+    private int segmentIndex;
+    private FileChannel segmentChannel;
+    private MappedByteBuffer segment;
+    private volatile boolean forcePending = false;
+    private boolean closed = false;
+
+    private TranscriptJournal(File directory, int segmentSize, int maxSegments) throws IOException
+    {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = Math.max(1, maxSegments);
+
+        if(!directory.isDirectory() && !directory.mkdirs())
+        {
+            throw new IOException("Unable to create the journal directory " + directory);
+        }
+
+        int[] segmentIndexes = listSegments(directory);
+        segmentIndex = segmentIndexes.length == 0 ? 0 : segmentIndexes[segmentIndexes.length - 1];
+
+        // Opening the latest segment, recovering the write position from its valid records
+        openSegment(segmentIndex);
+        recover();
+
+        forceThread = new HandlerThread(TAG, android.os.Process.THREAD_PRIORITY_BACKGROUND);
+        forceThread.start();
+        forceHandler = new Handler(forceThread.getLooper());
+    }
+
+    /**
+     * Opens the transcript journal with the default segment size and count
+     *
+     * @param directory The journal directory, created if it doesn't exist
+     *
+     * @return The transcript journal
+     *
+     * @throws IOException If the journal couldn't be opened
+     */
+    public static TranscriptJournal open(File directory) throws IOException
+    {
+        return open(directory, Extensions.JOURNAL_SEGMENT_SIZE, Extensions.JOURNAL_MAX_SEGMENTS);
+    }
+
+    /**
+     * Opens the transcript journal
+     *
+     * @param directory The journal directory, created if it doesn't exist
+     *
+     * @param segmentSize The segment file size in bytes
+     *
+     * @param maxSegments The number of segments kept, the oldest segment is deleted beyond this
+     *
+     * @return The transcript journal
+     *
+     * @throws IOException If the journal couldn't be opened
+     */
+    public static TranscriptJournal open(File directory, int segmentSize, int maxSegments) throws IOException
+    {
+        return new TranscriptJournal(directory, Math.max(segmentSize, HEADER_SIZE * 16), maxSegments);
+    }
+
+    /**
+     * Opens a streaming reader over the journal, starting at the oldest kept record
+     *
+     * @return The transcript reader
+     */
+    public TranscriptReader openReader()
+    {
+        return new TranscriptReader(directory);
+    }
+
+    /**
+     * Appends a record, the text is copied into the mapped segment and the force to the storage is
+     * batched on the background thread
+     *
+     * @param type The record type
+     *
+     * @param sessionId The session id
+     *
+     * @param timestamp The timestamp in milliseconds
+     *
+     * @param text The text
+     *
+     * @return True - the record was appended, False - if otherwise
+     */
+    public boolean append(int type, long sessionId, long timestamp, String text)
+    {
+        if(closed) return false;
+
+        byte[] payload = text.getBytes(UTF_8);
+        int recordSize = HEADER_SIZE + payload.length;
+
+        if(recordSize > segmentSize)
+        {
+            Log.w(TAG, "Transcript record too large for a segment, dropped");
+            return false;
+        }
+
+        try
+        {
+            if(segment.remaining() < recordSize)
+            {
+                // Rolling over to the next segment, the rest of the current segment stays zeroed
+                rollOver();
+            }
+        }
+        catch(IOException e)
+        {
+            Log.e(TAG, "Unable to roll over the transcript journal", e);
+            return false;
+        }
+
+        crc32.reset();
+        crc32.update(type);
+        updateLong(crc32, sessionId);
+        updateLong(crc32, timestamp);
+        crc32.update(payload, 0, payload.length);
+
+        // Writing the body before the length, a record is only visible once its length is set
+        int position = segment.position();
+        segment.position(position + 4);
+        segment.putInt((int) crc32.getValue());
+        segment.put((byte) type);
+        segment.putLong(sessionId);
+        segment.putLong(timestamp);
+        segment.put(payload);
+        segment.putInt(position, payload.length + 1);
+
+        scheduleForce();
+
+        return true;
+    }
+
+    /**
+     * Forces the appended records to the storage right away
+     */
+    public synchronized void sync()
+    {
+        if(segment != null)
+        {
+            segment.force();
+        }
+    }
+
+    /**
+     * Closes the journal, the appended records are forced to the storage first
+     */
+    public void close()
+    {
+        if(closed) return;
+
+        closed = true;
+        forceThread.quit();
+
+        synchronized(this)
+        {
+            segment.force();
+            closeSegment();
+        }
+    }
+
+    private void openSegment(int index) throws IOException
+    {
+        RandomAccessFile segmentFile = new RandomAccessFile(segmentFile(directory, index), "rw");
+        segmentChannel = segmentFile.getChannel();
+        segment = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    private void closeSegment()
+    {
+        try
+        {
+            segmentChannel.close();
+        }
+        catch(IOException e)
+        {
+            Log.w(TAG, "Unable to close the transcript segment", e);
+        }
+    }
+
+    /**
+     * Finds the end of the valid records of the current segment and clears anything after it
+     */
+    private void recover()
+    {
+        int position = 0;
+        while(true)
+        {
+            int recordLength = readRecordLength(segment, position, crc32);
+            if(recordLength <= 0) break;
+
+            position += recordLength;
+        }
+
+        if(position + 4 <= segmentSize && segment.getInt(position) != 0)
+        {
+            Log.w(TAG, "Torn transcript record found at " + position + ", dropped");
+        }
+
+        // Clearing the torn record (if any), so it can't be mistaken for a record later
+        byte[] zeros = new byte[Math.min(4096, segmentSize)];
+        segment.position(position);
+        while(segment.hasRemaining())
+        {
+            segment.put(zeros, 0, Math.min(zeros.length, segment.remaining()));
+        }
+
+        segment.position(position);
+    }
+
+    private synchronized void rollOver() throws IOException
+    {
+        segment.force();
+        closeSegment();
+
+        segmentIndex++;
+        openSegment(segmentIndex);
+
+        // Deleting the oldest segments beyond the kept count
+        int[] segmentIndexes = listSegments(directory);
+        for(int i = 0; i < segmentIndexes.length - maxSegments; i++)
+        {
+            if(!segmentFile(directory, segmentIndexes[i]).delete())
+            {
+                Log.w(TAG, "Unable to delete the transcript segment " + segmentIndexes[i]);
+            }
+        }
+    }
+
+    private void scheduleForce()
+    {
+        if(forcePending) return;
+
+        forcePending = true;
+        forceHandler.postDelayed(forceRunnable, Extensions.JOURNAL_FORCE_INTERVAL);
+    }
+
+    private final Runnable forceRunnable = new Runnable() {
+        @Override
+        public void run() {
+
+            forcePending = false;
+
+            synchronized(TranscriptJournal.this)
+            {
+                if(!closed)
+                {
+                    segment.force();
+                }
+            }
+        }
+    };
+
+    /**
+     * Validates the record at the position
+     *
+     * @return The total record size, 0 at the end of the records, -1 if the record is torn
+     */
+    static int readRecordLength(ByteBuffer segment, int position, CRC32 crc32)
+    {
+        int limit = segment.limit();
+        if(position + HEADER_SIZE > limit) return 0;
+
+        int length = segment.getInt(position);
+        if(length == 0) return 0;
+
+        int payloadLength = length - 1;
+        if(payloadLength < 0 || position + HEADER_SIZE + payloadLength > limit) return -1;
+
+        crc32.reset();
+        crc32.update(segment.get(position + 8));
+        updateLong(crc32, segment.getLong(position + 9));
+        updateLong(crc32, segment.getLong(position + 17));
+        for(int i = 0; i < payloadLength; i++)
+        {
+            crc32.update(segment.get(position + HEADER_SIZE + i));
+        }
+
+        return (int) crc32.getValue() == segment.getInt(position + 4) ? HEADER_SIZE + payloadLength : -1;
+    }
+
+    static File segmentFile(File directory, int index)
+    {
+        return new File(directory, SEGMENT_PREFIX + String.format(java.util.Locale.US, "%010d", index) + SEGMENT_SUFFIX);
+    }
+
+    static int[] listSegments(File directory)
+    {
+        String[] names = directory.list();
+        if(names == null) return new int[0];
+
+        int[] indexes = new int[names.length];
+        int count = 0;
+        for(String name : names)
+        {
+            if(name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+            {
+                try
+                {
+                    indexes[count++] = Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                }
+                catch(NumberFormatException e)
+                {
+                    // Not a segment file, ignoring
+                }
+            }
+        }
+
+        int[] segmentIndexes = Arrays.copyOf(indexes, count);
+        Arrays.sort(segmentIndexes);
+
+        return segmentIndexes;
+    }
+
+    private static void updateLong(CRC32 crc32, long value)
+    {
+        for(int shift = 56; shift >= 0; shift -= 8)
+        {
+            crc32.update((int) (value >>> shift));
+        }
+    }
+}
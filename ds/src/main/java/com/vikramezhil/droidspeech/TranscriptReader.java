@@ -0,0 +1,134 @@
+package com.vikramezhil.droidspeech;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * Droid Speech Transcript Reader
+ *
+ * Streams the records of a transcript journal in the order they were appended. When the reader
+ * catches up with the writer next() returns null, calling it again later returns the records
+ * appended in the mean time
+ *
+ * @author Vikram Ezhil
+ */
+
+public class TranscriptReader implements Closeable
+{
+    private final File directory;
+    private final CRC32 crc32 = new CRC32();
+    private int segmentIndex = -1;
+    private FileChannel segmentChannel;
+    private MappedByteBuffer segment;
+    private int position;
+
+    TranscriptReader(File directory)
+    {
+        this.directory = directory;
+    }
+
+    /**
+     * Reads the next record
+     *
+     * @return The next record, null if no further record was appended yet
+     *
+     * @throws IOException If a segment couldn't be read
+     */
+    public TranscriptRecord next() throws IOException
+    {
+        while(true)
+        {
+            if(segment == null && !openNextSegment()) return null;
+
+            int recordLength = TranscriptJournal.readRecordLength(segment, position, crc32);
+            if(recordLength > 0)
+            {
+                int type = segment.get(position + 8);
+                long sessionId = segment.getLong(position + 9);
+                long timestamp = segment.getLong(position + 17);
+
+                byte[] payload = new byte[recordLength - TranscriptJournal.HEADER_SIZE];
+                segment.position(position + TranscriptJournal.HEADER_SIZE);
+                segment.get(payload);
+
+                position += recordLength;
+
+                return new TranscriptRecord(type, sessionId, timestamp, new String(payload, TranscriptJournal.UTF_8));
+            }
+
+            // End of the records of this segment, moving on only if the writer rolled over already
+            if(nextSegmentIndex() < 0) return null;
+
+            closeSegment();
+        }
+    }
+
+    /**
+     * Closes the reader
+     */
+    @Override
+    public void close()
+    {
+        closeSegment();
+    }
+
+    private boolean openNextSegment() throws IOException
+    {
+        while(true)
+        {
+            int index = nextSegmentIndex();
+            if(index < 0) return false;
+
+            segmentIndex = index;
+            position = 0;
+
+            try
+            {
+                RandomAccessFile segmentFile = new RandomAccessFile(TranscriptJournal.segmentFile(directory, index), "r");
+                segmentChannel = segmentFile.getChannel();
+                segment = segmentChannel.map(FileChannel.MapMode.READ_ONLY, 0, segmentChannel.size());
+
+                return true;
+            }
+            catch(FileNotFoundException e)
+            {
+                // The segment was deleted by the journal retention, skipping to the next one
+            }
+        }
+    }
+
+    private int nextSegmentIndex()
+    {
+        for(int index : TranscriptJournal.listSegments(directory))
+        {
+            if(index > segmentIndex) return index;
+        }
+
+        return -1;
+    }
+
+    private void closeSegment()
+    {
+        segment = null;
+
+        if(segmentChannel != null)
+        {
+            try
+            {
+                segmentChannel.close();
+            }
+            catch(IOException e)
+            {
+                // Ignoring, the segment is read only
+            }
+
+            segmentChannel = null;
+        }
+    }
+}
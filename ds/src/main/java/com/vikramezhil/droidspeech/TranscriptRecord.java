@@ -0,0 +1,79 @@
+package com.vikramezhil.droidspeech;
+
+/**
+ * Droid Speech Transcript Record
+ *
+ * @author Vikram Ezhil
+ */
+
+public class TranscriptRecord
+{
+    /**
+     * Record type of a final result
+     */
+    public final static int TYPE_FINAL = 1;
+
+    /**
+     * Record type of a live result
+     */
+    public final static int TYPE_PARTIAL = 2;
+
+    private final int type;
+    private final long sessionId;
+    private final long timestamp;
+    private final String text;
+
+    TranscriptRecord(int type, long sessionId, long timestamp, String text)
+    {
+        this.type = type;
+        this.sessionId = sessionId;
+        this.timestamp = timestamp;
+        this.text = text;
+    }
+
+    /**
+     * Gets the record type
+     *
+     * @return TYPE_FINAL or TYPE_PARTIAL
+     */
+    public int getType()
+    {
+        return type;
+    }
+
+    /**
+     * Gets the session id, the wall clock time droid speech recognition was started at
+     *
+     * @return The session id
+     */
+    public long getSessionId()
+    {
+        return sessionId;
+    }
+
+    /**
+     * Gets the wall clock time the result was received at
+     *
+     * @return The timestamp in milliseconds
+     */
+    public long getTimestamp()
+    {
+        return timestamp;
+    }
+
+    /**
+     * Gets the result text
+     *
+     * @return The text
+     */
+    public String getText()
+    {
+        return text;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TranscriptRecord{type=" + type + ", sessionId=" + sessionId + ", timestamp=" + timestamp + ", text=" + text + "}";
+    }
+}
@@ -0,0 +1,134 @@
+package com.vikramezhil.droidspeech;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Droid Speech Virtual Clock
+ *
+ * Clock which only moves when it is advanced, used with DroidSpeech.setClock(DroidSpeechClock) for
+ * deterministic timing tests. It is also the droid speech scheduler while set, the scheduled work
+ * runs in order as the clock is advanced past it
+ *
+ * @author Vikram Ezhil
+ */
+
+public class VirtualClock implements DroidSpeechClock, DroidSpeechScheduler
+{
+    private volatile long nanoTime;
+
+    // Ordered by due time, work due at the same time keeps its scheduling order
+    private final List<ScheduledRunnable> scheduled = new ArrayList<>();
+
+    /**
+     * A runnable due at a virtual time
+     */
+    private static class ScheduledRunnable
+    {
+        private final Runnable runnable;
+        private final long dueTime;
+
+        private ScheduledRunnable(Runnable runnable, long dueTime)
+        {
+            this.runnable = runnable;
+            this.dueTime = dueTime;
+        }
+    }
+
+    @Override
+    public long nanoTime()
+    {
+        return nanoTime;
+    }
+
+    /**
+     * Gets the virtual time
+     *
+     * @return The time in milliseconds
+     */
+    public long millis()
+    {
+        return nanoTime / Clocks.NANOS_PER_MILLI;
+    }
+
+    /**
+     * Advances the virtual time, running the work due until then in order
+     *
+     * @param millis The milliseconds to advance by
+     */
+    public void advanceBy(long millis)
+    {
+        advanceByNanos(millis * Clocks.NANOS_PER_MILLI);
+    }
+
+    /**
+     * Advances the virtual time, running the work due until then in order. The clock is at the due
+     * time of the work while it runs, and work it schedules is run in the same call if it is due
+     *
+     * @param nanos The nanoseconds to advance by, negative values are ignored
+     */
+    public void advanceByNanos(long nanos)
+    {
+        long target;
+        synchronized(this)
+        {
+            target = nanoTime + Math.max(0, nanos);
+        }
+
+        while(true)
+        {
+            Runnable runnable;
+            synchronized(this)
+            {
+                if(scheduled.isEmpty() || scheduled.get(0).dueTime > target)
+                {
+                    nanoTime = Math.max(nanoTime, target);
+                    return;
+                }
+
+                ScheduledRunnable next = scheduled.remove(0);
+                nanoTime = Math.max(nanoTime, next.dueTime);
+                runnable = next.runnable;
+            }
+
+            // Running outside the lock, the work may schedule or cancel more work
+            runnable.run();
+        }
+    }
+
+    @Override
+    public synchronized void schedule(Runnable runnable, long delayMillis)
+    {
+        long dueTime = nanoTime + Math.max(0, delayMillis) * Clocks.NANOS_PER_MILLI;
+
+        int index = scheduled.size();
+        while(index > 0 && scheduled.get(index - 1).dueTime > dueTime)
+        {
+            index--;
+        }
+
+        scheduled.add(index, new ScheduledRunnable(runnable, dueTime));
+    }
+
+    @Override
+    public synchronized void cancel(Runnable runnable)
+    {
+        for(int i = scheduled.size() - 1; i >= 0; i--)
+        {
+            if(scheduled.get(i).runnable == runnable)
+            {
+                scheduled.remove(i);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of scheduled runs not run yet
+     *
+     * @return The scheduled count
+     */
+    public synchronized int getScheduledCount()
+    {
+        return scheduled.size();
+    }
+}
@@ -0,0 +1,253 @@
+package com.vikramezhil.droidspeech;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Droid Speech Vocabulary Matcher
+ *
+ * Finds the vocabulary entry closest to the speech by edit distance. The entries are kept in a
+ * character trie which is walked with one Levenshtein row per trie level (a Levenshtein automaton
+ * run over the trie), so a branch is dropped as soon as its prefix is too far from the speech and
+ * entries sharing a prefix share its rows. Entries and speech are compared as normalized by the
+ * speech tokenizer, words joined by single spaces
+ *
+ * @author Vikram Ezhil
+ */
+
+class VocabularyMatcher
+{
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private Node root = new Node();
+    private int size;
+
+    private final ArrayList<String> words = new ArrayList<>();
+    private final StringBuilder normalized = new StringBuilder();
+    private int[][] rows = new int[0][];
+
+    private String query;
+    private int threshold;
+    private String bestEntry;
+    private int bestDistance;
+
+    /**
+     * A trie node, holding the entry ending at it (if any)
+     */
+    private static class Node
+    {
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private String entry;
+
+        private Node getOrAddChild(char label)
+        {
+            for(int i = 0; i < labels.length; i++)
+            {
+                if(labels[i] == label) return children[i];
+            }
+
+            int count = labels.length;
+            labels = Arrays.copyOf(labels, count + 1);
+            children = Arrays.copyOf(children, count + 1);
+            labels[count] = label;
+            children[count] = new Node();
+
+            return children[count];
+        }
+    }
+
+    /**
+     * Adds an entry to the vocabulary, entries normalizing to the same text are kept once
+     *
+     * @param entry The vocabulary entry
+     */
+    void add(String entry)
+    {
+        if(entry == null) return;
+
+        String key = normalize(entry);
+        if(key.isEmpty()) return;
+
+        Node node = root;
+        for(int i = 0; i < key.length(); i++)
+        {
+            node = node.getOrAddChild(key.charAt(i));
+        }
+
+        if(node.entry == null)
+        {
+            node.entry = entry;
+            size++;
+        }
+    }
+
+    /**
+     * Removes all the entries
+     */
+    void clear()
+    {
+        root = new Node();
+        size = 0;
+    }
+
+    /**
+     * Gets the number of entries
+     *
+     * @return The vocabulary size
+     */
+    int size()
+    {
+        return size;
+    }
+
+    /**
+     * Finds the closest entry within the distance, the closest entry of the earlier queries since
+     * the last reset is kept unless this one is strictly closer
+     *
+     * @param text The text
+     *
+     * @param maxDistance The max edit distance
+     *
+     * @return True - if a closer entry was found, False - if otherwise
+     */
+    boolean match(String text, int maxDistance)
+    {
+        if(size == 0 || text == null) return false;
+
+        threshold = bestEntry == null ? maxDistance : Math.min(maxDistance, bestDistance - 1);
+        if(threshold < 0) return false;
+
+        query = normalize(text);
+        int length = query.length();
+
+        // Reusing one row per trie level, the first row is the distance from the empty prefix
+        if(rows.length == 0 || rows[0].length < length + 1)
+        {
+            rows = new int[Math.max(rows.length, 16)][length + 1];
+        }
+
+        for(int j = 0; j <= length; j++)
+        {
+            rows[0][j] = j;
+        }
+
+        int previousDistance = getBestDistance();
+        walk(root, 0);
+
+        return getBestDistance() != previousDistance;
+    }
+
+    /**
+     * Resets the closest entry kept across the queries
+     */
+    void reset()
+    {
+        bestEntry = null;
+        bestDistance = -1;
+    }
+
+    /**
+     * Gets the closest entry found since the last reset
+     *
+     * @return The vocabulary entry as it was added, null if none was found
+     */
+    String getBestEntry()
+    {
+        return bestEntry;
+    }
+
+    /**
+     * Gets the distance of the closest entry found since the last reset
+     *
+     * @return The edit distance, -1 if none was found
+     */
+    int getBestDistance()
+    {
+        return bestEntry == null ? -1 : bestDistance;
+    }
+
+    /**
+     * Walks the children of the node, the row of the node is at the given depth
+     */
+    private void walk(Node node, int depth)
+    {
+        int length = query.length();
+
+        if(rows.length <= depth + 1)
+        {
+            int[][] grown = Arrays.copyOf(rows, rows.length * 2);
+            for(int i = rows.length; i < grown.length; i++)
+            {
+                grown[i] = new int[rows[0].length];
+            }
+
+            rows = grown;
+        }
+
+        int[] previousRow = rows[depth];
+        int[] row = rows[depth + 1];
+
+        // Only the cells within threshold of the diagonal can stay within threshold, the cells
+        // outside the band are set just above it
+        int level = depth + 1;
+        int from = Math.max(1, level - threshold);
+        int to = Math.min(length, level + threshold);
+        int outside = threshold + 1;
+
+        for(int c = 0; c < node.labels.length; c++)
+        {
+            char label = node.labels[c];
+
+            row[0] = level <= threshold ? level : outside;
+            int rowMin = row[0];
+
+            if(from > 1) row[from - 1] = outside;
+
+            for(int j = from; j <= to; j++)
+            {
+                int cost = query.charAt(j - 1) == label ? 0 : 1;
+                int value = Math.min(Math.min(row[j - 1] + 1, previousRow[j] + 1), previousRow[j - 1] + cost);
+                row[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+
+            if(to < length) row[to + 1] = outside;
+            if(to + 1 < length) row[length] = outside;
+
+            Node child = node.children[c];
+
+            if(child.entry != null && row[length] <= threshold)
+            {
+                bestEntry = child.entry;
+                bestDistance = row[length];
+
+                // Only strictly closer entries are of interest from now on
+                threshold = bestDistance - 1;
+                if(threshold < 0) return;
+            }
+
+            // Every longer prefix is at least as far as the closest cell of this row
+            if(rowMin <= threshold)
+            {
+                walk(child, depth + 1);
+                if(threshold < 0) return;
+            }
+        }
+    }
+
+    private String normalize(String text)
+    {
+        SpeechTokenizer.tokenize(text, words, null, null);
+
+        normalized.setLength(0);
+        for(int i = 0; i < words.size(); i++)
+        {
+            if(i > 0) normalized.append(' ');
+            normalized.append(words.get(i));
+        }
+
+        return normalized.toString();
+    }
+}
@@ -0,0 +1,213 @@
+package com.vikramezhil.droidspeech;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Droid Speech Wake Phrase Spotter
+ *
+ * Matches the configured wake phrases against the live results with a word level Aho-Corasick
+ * automaton, so every hypothesis is scanned once regardless of the number of wake phrases. Words are
+ * compared as normalized by the speech tokenizer
+ *
+ * @author Vikram Ezhil
+ */
+
+class WakePhraseSpotter
+{
+    final static int SPOT_PENDING = 0;
+    final static int SPOT_MATCHED = 1;
+    final static int SPOT_RULED_OUT = 2;
+
+    private static final int ROOT = 0;
+
+    private final List<HashMap<String, Integer>> transitions = new ArrayList<>();
+    private final List<String> phrases = new ArrayList<>();
+    private final List<Integer> phraseLengths = new ArrayList<>();
+    private int[] failures = new int[0];
+    private int[] depths = new int[0];
+    private int[] outputs = new int[0];
+
+    private final ArrayList<String> words = new ArrayList<>();
+    private final ArrayList<Integer> wordEnds = new ArrayList<>();
+
+    private String wakePhrase;
+    private String remainder;
+
+    /**
+     * Builds the automaton for the wake phrases
+     *
+     * @param wakePhrases The wake phrases, null (or) empty disables the spotting
+     */
+    void setPhrases(List<String> wakePhrases)
+    {
+        transitions.clear();
+        phrases.clear();
+        phraseLengths.clear();
+
+        transitions.add(new HashMap<String, Integer>());
+        List<Integer> phraseStates = new ArrayList<>();
+        List<Integer> stateDepths = new ArrayList<>();
+        stateDepths.add(0);
+
+        if(wakePhrases != null)
+        {
+            for(String wakePhrase : wakePhrases)
+            {
+                if(wakePhrase == null) continue;
+
+                SpeechTokenizer.tokenize(wakePhrase, words, null, null);
+                if(words.isEmpty()) continue;
+
+                // Adding the phrase words to the trie
+                int state = ROOT;
+                for(String word : words)
+                {
+                    Integer next = transitions.get(state).get(word);
+                    if(next == null)
+                    {
+                        next = transitions.size();
+                        transitions.add(new HashMap<String, Integer>());
+                        stateDepths.add(stateDepths.get(state) + 1);
+                        transitions.get(state).put(word, next);
+                    }
+
+                    state = next;
+                }
+
+                phrases.add(wakePhrase.trim());
+                phraseLengths.add(words.size());
+                phraseStates.add(state);
+            }
+        }
+
+        int stateCount = transitions.size();
+        failures = new int[stateCount];
+        depths = new int[stateCount];
+        outputs = new int[stateCount];
+
+        for(int state = 0; state < stateCount; state++)
+        {
+            depths[state] = stateDepths.get(state);
+            outputs[state] = -1;
+        }
+
+        for(int i = 0; i < phraseStates.size(); i++)
+        {
+            // Keeping the first of duplicate phrases
+            if(outputs[phraseStates.get(i)] < 0)
+            {
+                outputs[phraseStates.get(i)] = i;
+            }
+        }
+
+        // Linking the failure transitions breadth first, a state inherits the output of its failure state
+        // when it has none of its own, as a shorter phrase then ends at the same word
+        ArrayList<Integer> queue = new ArrayList<>();
+        queue.add(ROOT);
+        for(int head = 0; head < queue.size(); head++)
+        {
+            int state = queue.get(head);
+
+            for(Map.Entry<String, Integer> transition : transitions.get(state).entrySet())
+            {
+                int next = transition.getValue();
+                failures[next] = state == ROOT ? ROOT : step(failures[state], transition.getKey());
+
+                if(outputs[next] < 0)
+                {
+                    outputs[next] = outputs[failures[next]];
+                }
+
+                queue.add(next);
+            }
+        }
+    }
+
+    /**
+     * Gets the spotting status
+     *
+     * @return True - if wake phrases are set, False - if otherwise
+     */
+    boolean isEnabled()
+    {
+        return !phrases.isEmpty();
+    }
+
+    /**
+     * Spots a wake phrase in the hypothesis, the first phrase to end wins
+     *
+     * @param hypothesis The hypothesis
+     *
+     * @param anchored True - the wake phrase has to start the hypothesis, False - it can be anywhere
+     *
+     * @return SPOT_MATCHED if a wake phrase was found, SPOT_RULED_OUT if the anchored hypothesis left every
+     * wake phrase before its last word (which may still be revised), SPOT_PENDING otherwise
+     */
+    int spot(String hypothesis, boolean anchored)
+    {
+        wakePhrase = null;
+        remainder = null;
+
+        SpeechTokenizer.tokenize(hypothesis, words, null, wordEnds);
+
+        int state = ROOT;
+        int wordCount = words.size();
+        for(int i = 0; i < wordCount; i++)
+        {
+            state = step(state, words.get(i));
+
+            // Off the anchored path once the state is shallower than the words read, it can't get back on it
+            boolean offPath = depths[state] < i + 1;
+
+            if(outputs[state] >= 0 && (!anchored || phraseLengths.get(outputs[state]) == i + 1))
+            {
+                wakePhrase = phrases.get(outputs[state]);
+                remainder = hypothesis.substring(wordEnds.get(i)).trim();
+
+                return SPOT_MATCHED;
+            }
+
+            if(anchored && offPath)
+            {
+                return i < wordCount - 1 ? SPOT_RULED_OUT : SPOT_PENDING;
+            }
+        }
+
+        return SPOT_PENDING;
+    }
+
+    /**
+     * Gets the wake phrase found by the last spot
+     *
+     * @return The wake phrase, null if none was found
+     */
+    String getWakePhrase()
+    {
+        return wakePhrase;
+    }
+
+    /**
+     * Gets the hypothesis text after the wake phrase found by the last spot
+     *
+     * @return The remainder, null if no wake phrase was found
+     */
+    String getRemainder()
+    {
+        return remainder;
+    }
+
+    private int step(int state, String word)
+    {
+        while(true)
+        {
+            Integer next = transitions.get(state).get(word);
+            if(next != null) return next;
+            if(state == ROOT) return ROOT;
+
+            state = failures[state];
+        }
+    }
+}
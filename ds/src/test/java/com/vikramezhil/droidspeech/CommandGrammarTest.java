@@ -0,0 +1,88 @@
+package com.vikramezhil.droidspeech;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Droid Speech Command Grammar Test
+ *
+ * @author Vikram Ezhil
+ */
+
+public class CommandGrammarTest
+{
+    private CommandGrammar commandGrammar;
+
+    @Before
+    public void setUp()
+    {
+        commandGrammar = new CommandGrammar();
+        commandGrammar.add("call", "call {name} on speaker");
+        commandGrammar.add("lights", "turn on the lights");
+        commandGrammar.add("room_lights", "turn on the lights in {room}");
+    }
+
+    @Test
+    public void finalHypothesisMatchesACommand()
+    {
+        DroidSpeechCommand command = commandGrammar.match("Turn on the lights", true);
+
+        assertEquals("lights", command.getId());
+        assertFalse(command.isEarly());
+    }
+
+    @Test
+    public void slotKeepsTheSpokenWords()
+    {
+        DroidSpeechCommand command = commandGrammar.match("call Mr. O'Neil on speaker", true);
+
+        assertEquals("call", command.getId());
+        assertEquals("Mr. O'Neil", command.getSlot("name"));
+
+        command = commandGrammar.match("turn on the lights in the living room", true);
+        assertEquals("room_lights", command.getId());
+        assertEquals("the living room", command.getSlot("room"));
+    }
+
+    @Test
+    public void unambiguousPartialMatchesEarly()
+    {
+        DroidSpeechCommand command = commandGrammar.match("call John Smith on speaker", false);
+
+        assertEquals("call", command.getId());
+        assertEquals("John Smith", command.getSlot("name"));
+        assertTrue(command.isEarly());
+    }
+
+    @Test
+    public void ambiguousPartialWaits()
+    {
+        // More words could still turn it into the room lights command
+        assertNull(commandGrammar.match("turn on the lights", false));
+        assertNull(commandGrammar.match("call John", false));
+    }
+
+    @Test
+    public void unknownHypothesisMatchesNothing()
+    {
+        assertNull(commandGrammar.match("open the door", true));
+        assertNull(commandGrammar.match("", true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void adjacentSlotsAreRejected()
+    {
+        commandGrammar.add("play", "play {artist} {album}");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void phraseWithoutWordsIsRejected()
+    {
+        commandGrammar.add("empty", " ?! ");
+    }
+}
@@ -0,0 +1,265 @@
+package com.vikramezhil.droidspeech;
+
+import android.content.Context;
+import android.speech.SpeechRecognizer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Droid Speech Session Test
+ *
+ * Runs the droid speech sessions on the fake speech engine, every event, restart and timeout follows
+ * the virtual clock
+ *
+ * @author Vikram Ezhil
+ */
+
+public class DroidSpeechSessionTest
+{
+    private VirtualClock clock;
+    private FakeSpeechEngine engine;
+    private DroidSpeech droidSpeech;
+    private final RecordingListener listener = new RecordingListener();
+
+    @Before
+    public void setUp()
+    {
+        Context context = TestEnvironment.createContext();
+        clock = TestEnvironment.install(context);
+
+        engine = new FakeSpeechEngine(clock);
+
+        droidSpeech = new DroidSpeech(context, null);
+        droidSpeech.setSpeechEngine(engine);
+        droidSpeech.setOnDroidSpeechListener(listener);
+    }
+
+    @After
+    public void tearDown()
+    {
+        droidSpeech.closeDroidSpeechOperations();
+
+        TestEnvironment.uninstall();
+    }
+
+    @Test
+    public void continuousSessionsRunBackToBack()
+    {
+        final int sessions = 5000;
+
+        engine.setDefaultUtterance(new FakeSpeechEngine.Utterance()
+                .ready(0)
+                .beginningOfSpeech(50)
+                .partial(100, "hello")
+                .endOfSpeech(250)
+                .results(300, "hello world"));
+
+        droidSpeech.setContinuousSpeechRecognition(true);
+        droidSpeech.startDroidSpeechRecognition();
+
+        clock.advanceBy(300L * sessions);
+
+        assertEquals(sessions, listener.finalResults.size());
+        assertEquals("hello world", listener.finalResults.get(sessions - 1));
+        assertEquals(sessions, listener.liveResults.size());
+        assertEquals(0, listener.errors.size());
+
+        // The next session was started right after the last result
+        assertEquals(sessions + 1, engine.getStartCount());
+        assertTrue(engine.isListening());
+    }
+
+    @Test
+    public void restartsFollowTheRestartPolicy()
+    {
+        BackoffRestartPolicy restartPolicy = new BackoffRestartPolicy();
+        restartPolicy.setInitialDelay(1000);
+        restartPolicy.setMaxDelay(4000);
+        restartPolicy.setJitter(0);
+        droidSpeech.setRestartPolicy(restartPolicy);
+
+        // Every session times out without speech
+        droidSpeech.startDroidSpeechRecognition();
+
+        long timeout = FakeSpeechEngine.TIMEOUT;
+        long[] restartDelays = {1000, 2000, 4000, 4000};
+        long startTime = 0;
+
+        for(long restartDelay : restartDelays)
+        {
+            int startCount = engine.getStartCount();
+            startTime += timeout + restartDelay;
+
+            clock.advanceBy(startTime - 1 - clock.millis());
+            assertEquals(startCount, engine.getStartCount());
+
+            clock.advanceBy(1);
+            assertEquals(startCount + 1, engine.getStartCount());
+        }
+
+        assertEquals(restartDelays.length, droidSpeech.getExecutedRestartCount());
+        assertEquals(0, listener.errors.size());
+    }
+
+    @Test
+    public void closedSessionDropsItsScheduledRestart()
+    {
+        droidSpeech.startDroidSpeechRecognition();
+
+        // The restart is pending once the session timed out
+        clock.advanceBy(FakeSpeechEngine.TIMEOUT);
+        assertEquals(1, clock.getScheduledCount());
+
+        droidSpeech.closeDroidSpeechOperations();
+        assertEquals(0, clock.getScheduledCount());
+
+        // Starting again before the dropped restart was due, it must not start another session
+        droidSpeech.startDroidSpeechRecognition();
+        clock.advanceBy(FakeSpeechEngine.TIMEOUT - 1);
+
+        assertEquals(2, engine.getStartCount());
+        assertEquals(1, droidSpeech.getSuppressedRestartCount());
+    }
+
+    @Test
+    public void startWhileRunningIsIgnored()
+    {
+        droidSpeech.startDroidSpeechRecognition();
+        droidSpeech.startDroidSpeechRecognition();
+        clock.advanceBy(0);
+
+        assertEquals(1, engine.getStartCount());
+    }
+
+    @Test
+    public void pausedLiveResultIsTakenAsFinal()
+    {
+        droidSpeech.setVoiceActivityEndpointing(false);
+
+        long pauseTime = 100 + Extensions.MAX_PAUSE_TIME + 1;
+        engine.enqueue(new FakeSpeechEngine.Utterance()
+                .ready(0)
+                .partial(100, "turn on")
+                .partial(pauseTime, "turn on the lights")
+                .results(pauseTime + 2 * Extensions.PARTIAL_DELAY_TIME, "turn on the lights please"));
+
+        droidSpeech.startDroidSpeechRecognition();
+
+        clock.advanceBy(pauseTime + Extensions.PARTIAL_DELAY_TIME - 1);
+        assertEquals(0, listener.finalResults.size());
+
+        clock.advanceBy(1);
+        assertEquals(1, listener.finalResults.size());
+        assertEquals("turn on the lights", listener.finalResults.get(0));
+
+        // The recognizer session was closed with the live result, its own final result never arrives
+        clock.advanceBy(Extensions.PARTIAL_DELAY_TIME);
+        assertEquals(1, listener.finalResults.size());
+        assertEquals(1, engine.getCancelCount());
+    }
+
+    @Test
+    public void earlyNoMatchIsIgnored()
+    {
+        // The recognizer gave up before it was ready for speech, droid speech keeps waiting
+        engine.enqueue(new FakeSpeechEngine.Utterance().error(100, SpeechRecognizer.ERROR_NO_MATCH));
+
+        droidSpeech.startDroidSpeechRecognition();
+        clock.advanceBy(Extensions.ERROR_TIMEOUT);
+
+        assertEquals(1, engine.getStartCount());
+        assertEquals(0, droidSpeech.getExecutedRestartCount());
+        assertEquals(0, listener.errors.size());
+    }
+
+    @Test
+    public void wakePhraseIsStrippedFromEveryAlternative()
+    {
+        final List<DroidSpeechResult> results = new ArrayList<>();
+        droidSpeech.setOnDroidSpeechResultListener(new OnDSResultListener() {
+            @Override
+            public void onDroidSpeechLiveResult(DroidSpeechResult liveSpeechResult) {
+
+                // NA
+            }
+
+            @Override
+            public void onDroidSpeechFinalResult(DroidSpeechResult finalSpeechResult) {
+
+                results.add(finalSpeechResult);
+            }
+        });
+
+        droidSpeech.setWakePhrases(Arrays.asList("ok droid"));
+
+        engine.enqueue(new FakeSpeechEngine.Utterance()
+                .ready(0)
+                .results(300, new String[] {"ok droid lights off", "ok droid", "ok droid lights of", "lights off"},
+                        new float[] {0.9f, 0.7f, 0.5f, 0.3f}));
+
+        droidSpeech.startDroidSpeechRecognition();
+        clock.advanceBy(300);
+
+        // The alternative with nothing after the wake phrase is dropped along with its confidence
+        DroidSpeechResult result = results.get(0);
+        assertEquals(Arrays.asList("lights off", "lights of", "lights off"), result.getAlternatives());
+        assertEquals(0.9f, result.getConfidence(0), 0);
+        assertEquals(0.5f, result.getConfidence(1), 0);
+        assertEquals(0.3f, result.getConfidence(2), 0);
+    }
+
+    /**
+     * Records the droid speech callbacks
+     */
+    private static class RecordingListener implements OnDSListener
+    {
+        private final List<String> liveResults = new ArrayList<>();
+        private final List<String> finalResults = new ArrayList<>();
+        private final List<String> errors = new ArrayList<>();
+
+        @Override
+        public void onDroidSpeechSupportedLanguages(String currentSpeechLanguage, List<String> supportedSpeechLanguages)
+        {
+            // NA
+        }
+
+        @Override
+        public void onDroidSpeechRmsChanged(float rmsChangedValue)
+        {
+            // NA
+        }
+
+        @Override
+        public void onDroidSpeechLiveResult(String liveSpeechResult)
+        {
+            liveResults.add(liveSpeechResult);
+        }
+
+        @Override
+        public void onDroidSpeechFinalResult(String finalSpeechResult)
+        {
+            finalResults.add(finalSpeechResult);
+        }
+
+        @Override
+        public void onDroidSpeechClosedByUser()
+        {
+            // NA
+        }
+
+        @Override
+        public void onDroidSpeechError(String errorMsg)
+        {
+            errors.add(errorMsg);
+        }
+    }
+}
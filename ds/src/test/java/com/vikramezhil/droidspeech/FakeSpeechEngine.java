@@ -0,0 +1,435 @@
+package com.vikramezhil.droidspeech;
+
+import android.content.Intent;
+import android.speech.SpeechRecognizer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Droid Speech Fake Engine
+ *
+ * Deterministic in-process speech engine, every session plays a scripted utterance scheduled on a
+ * virtual clock which only moves when it is advanced, so the droid speech pipeline can be exercised
+ * on the JVM without a device recognizer or network
+ *
+ * NOTE: Pass the same virtual clock to DroidSpeech.setClock(DroidSpeechClock) so the droid speech
+ * timing and scheduling follow the scripted events
+ *
+ * @author Vikram Ezhil
+ */
+
+class FakeSpeechEngine implements AudioInputEngine
+{
+    final static int TIMEOUT = 5000;
+
+    private static final int EVENT_READY = 0;
+    private static final int EVENT_BEGINNING_OF_SPEECH = 1;
+    private static final int EVENT_RMS = 2;
+    private static final int EVENT_PARTIAL = 3;
+    private static final int EVENT_END_OF_SPEECH = 4;
+    private static final int EVENT_RESULTS = 5;
+    private static final int EVENT_ERROR = 6;
+
+    private final ArrayDeque<Utterance> utterances = new ArrayDeque<>();
+    private Utterance defaultUtterance = new Utterance().ready(0).error(TIMEOUT, SpeechRecognizer.ERROR_SPEECH_TIMEOUT);
+    private OnDSEngineListener engineListener;
+
+    private final VirtualClock clock;
+
+    private Session session;
+    private int startCount;
+    private int cancelCount;
+    private int destroyCount;
+    private long audioInputBytes;
+
+    FakeSpeechEngine()
+    {
+        this(new VirtualClock());
+    }
+
+    /**
+     * Creates a fake engine playing its events on the given virtual clock
+     *
+     * @param clock The virtual clock
+     */
+    FakeSpeechEngine(VirtualClock clock)
+    {
+        this.clock = clock;
+    }
+
+    /**
+     * A scripted utterance, events are given as offsets in milliseconds from the session start
+     */
+    static class Utterance
+    {
+        private final List<long[]> timings = new ArrayList<>();
+        private final List<Object> payloads = new ArrayList<>();
+
+        /**
+         * Adds a ready for speech event
+         *
+         * @param at The offset from the session start in milliseconds
+         *
+         * @return The utterance
+         */
+        Utterance ready(long at)
+        {
+            return add(at, EVENT_READY, null);
+        }
+
+        /**
+         * Adds a beginning of speech event
+         *
+         * @param at The offset from the session start in milliseconds
+         *
+         * @return The utterance
+         */
+        Utterance beginningOfSpeech(long at)
+        {
+            return add(at, EVENT_BEGINNING_OF_SPEECH, null);
+        }
+
+        /**
+         * Adds an rms changed event
+         *
+         * @param at The offset from the session start in milliseconds
+         *
+         * @param rmsdB The rms value
+         *
+         * @return The utterance
+         */
+        Utterance rms(long at, float rmsdB)
+        {
+            return add(at, EVENT_RMS, rmsdB);
+        }
+
+        /**
+         * Adds a partial results event
+         *
+         * @param at The offset from the session start in milliseconds
+         *
+         * @param hypotheses The hypotheses, best first
+         *
+         * @return The utterance
+         */
+        Utterance partial(long at, String... hypotheses)
+        {
+            return add(at, EVENT_PARTIAL, new Object[] {hypotheses, null});
+        }
+
+        /**
+         * Adds an end of speech event
+         *
+         * @param at The offset from the session start in milliseconds
+         *
+         * @return The utterance
+         */
+        Utterance endOfSpeech(long at)
+        {
+            return add(at, EVENT_END_OF_SPEECH, null);
+        }
+
+        /**
+         * Adds a final results event
+         *
+         * @param at The offset from the session start in milliseconds
+         *
+         * @param hypotheses The hypotheses, best first
+         *
+         * @return The utterance
+         */
+        Utterance results(long at, String... hypotheses)
+        {
+            return add(at, EVENT_RESULTS, new Object[] {hypotheses, null});
+        }
+
+        /**
+         * Adds a final results event with confidence scores
+         *
+         * @param at The offset from the session start in milliseconds
+         *
+         * @param hypotheses The hypotheses, best first
+         *
+         * @param confidences The confidence scores of the hypotheses
+         *
+         * @return The utterance
+         */
+        Utterance results(long at, String[] hypotheses, float[] confidences)
+        {
+            return add(at, EVENT_RESULTS, new Object[] {hypotheses, confidences});
+        }
+
+        /**
+         * Adds an error event
+         *
+         * @param at The offset from the session start in milliseconds
+         *
+         * @param error The speech recognizer error code
+         *
+         * @return The utterance
+         */
+        Utterance error(long at, int error)
+        {
+            return add(at, EVENT_ERROR, error);
+        }
+
+        private Utterance add(long at, int type, Object payload)
+        {
+            // Keeping the events ordered by offset, events with equal offsets keep their order
+            int index = timings.size();
+            while(index > 0 && timings.get(index - 1)[0] > at)
+            {
+                index--;
+            }
+
+            timings.add(index, new long[] {at, type});
+            payloads.add(index, payload);
+
+            return this;
+        }
+    }
+
+    /**
+     * Queues an utterance, each session plays the next queued utterance
+     *
+     * @param utterance The utterance
+     */
+    void enqueue(Utterance utterance)
+    {
+        utterances.add(utterance);
+    }
+
+    /**
+     * Sets the utterance played when no queued utterance is left
+     *
+     * NOTE: Default is a speech timeout error
+     *
+     * @param utterance The default utterance
+     */
+    void setDefaultUtterance(Utterance utterance)
+    {
+        if(utterance != null)
+        {
+            defaultUtterance = utterance;
+        }
+    }
+
+    /**
+     * Advances the virtual clock, delivering every event due until then in order
+     *
+     * NOTE: Sessions started from within a delivered event are played in the same call
+     *
+     * @param millis The time to advance by in milliseconds
+     */
+    void advanceBy(long millis)
+    {
+        clock.advanceBy(millis);
+    }
+
+    /**
+     * Gets the running session status
+     *
+     * @return True - if a session is playing its utterance, False - if otherwise
+     */
+    boolean isListening()
+    {
+        return session != null;
+    }
+
+    /**
+     * Gets the virtual clock time
+     *
+     * @return The virtual time in milliseconds
+     */
+    long now()
+    {
+        return clock.millis();
+    }
+
+    /**
+     * Gets the virtual clock the events are played on
+     *
+     * @return The virtual clock
+     */
+    VirtualClock getClock()
+    {
+        return clock;
+    }
+
+    /**
+     * Gets the number of sessions started
+     *
+     * @return The start count
+     */
+    int getStartCount()
+    {
+        return startCount;
+    }
+
+    /**
+     * Gets the number of sessions canceled
+     *
+     * @return The cancel count
+     */
+    int getCancelCount()
+    {
+        return cancelCount;
+    }
+
+    /**
+     * Gets the number of times the engine was destroyed
+     *
+     * @return The destroy count
+     */
+    int getDestroyCount()
+    {
+        return destroyCount;
+    }
+
+    /**
+     * Gets the number of audio bytes written into the engine
+     *
+     * @return The audio input bytes
+     */
+    long getAudioInputBytes()
+    {
+        return audioInputBytes;
+    }
+
+    /**
+     * A started session, playing its utterance one scheduled event at a time
+     */
+    private class Session implements Runnable
+    {
+        private final Utterance utterance;
+        private int nextEvent;
+
+        private Session(Utterance utterance)
+        {
+            this.utterance = utterance;
+        }
+
+        private void scheduleNext(long previousOffset)
+        {
+            if(nextEvent >= utterance.timings.size())
+            {
+                // The recognizer stops after its last event until it is started again
+                session = null;
+                return;
+            }
+
+            clock.schedule(this, utterance.timings.get(nextEvent)[0] - previousOffset);
+        }
+
+        @Override
+        public void run()
+        {
+            long[] timing = utterance.timings.get(nextEvent);
+            Object payload = utterance.payloads.get(nextEvent);
+            nextEvent++;
+
+            deliver((int) timing[1], payload);
+
+            // Canceled (or restarted) from within the event
+            if(session != this) return;
+
+            scheduleNext(timing[0]);
+        }
+    }
+
+    private void deliver(int type, Object payload)
+    {
+        if(engineListener == null) return;
+
+        switch (type)
+        {
+            case EVENT_READY:
+                engineListener.onReadyForSpeech();
+                break;
+
+            case EVENT_BEGINNING_OF_SPEECH:
+                engineListener.onBeginningOfSpeech();
+                break;
+
+            case EVENT_RMS:
+                engineListener.onRmsChanged((Float) payload);
+                break;
+
+            case EVENT_PARTIAL:
+                engineListener.onPartialResults(toResult((Object[]) payload));
+                break;
+
+            case EVENT_END_OF_SPEECH:
+                engineListener.onEndOfSpeech();
+                break;
+
+            case EVENT_RESULTS:
+                engineListener.onResults(toResult((Object[]) payload));
+                break;
+
+            case EVENT_ERROR:
+                engineListener.onError((Integer) payload);
+                break;
+        }
+    }
+
+    private DroidSpeechResult toResult(Object[] payload)
+    {
+        return DroidSpeechResult.fromAlternatives(Arrays.asList((String[]) payload[0]), (float[]) payload[1]);
+    }
+
+    @Override
+    public void setEngineListener(OnDSEngineListener engineListener)
+    {
+        this.engineListener = engineListener;
+    }
+
+    @Override
+    public void startListening(Intent speechIntent)
+    {
+        startCount++;
+
+        stopSession();
+
+        session = new Session(utterances.isEmpty() ? defaultUtterance : utterances.poll());
+        session.scheduleNext(0);
+    }
+
+    @Override
+    public void writeAudio(ByteBuffer audio)
+    {
+        audioInputBytes += audio.remaining();
+    }
+
+    @Override
+    public void cancel()
+    {
+        if(session != null)
+        {
+            cancelCount++;
+        }
+
+        stopSession();
+    }
+
+    private void stopSession()
+    {
+        if(session != null)
+        {
+            clock.cancel(session);
+            session = null;
+        }
+    }
+
+    @Override
+    public void destroy()
+    {
+        destroyCount++;
+
+        cancel();
+    }
+}
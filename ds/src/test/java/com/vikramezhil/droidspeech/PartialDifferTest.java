@@ -0,0 +1,125 @@
+package com.vikramezhil.droidspeech;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Droid Speech Partial Differ Test
+ *
+ * @author Vikram Ezhil
+ */
+
+public class PartialDifferTest
+{
+    private PartialDiffer partialDiffer;
+
+    @Before
+    public void setUp()
+    {
+        partialDiffer = new PartialDiffer();
+    }
+
+    @Test
+    public void growingHypothesisAppendsWords()
+    {
+        PartialDelta partialDelta = partialDiffer.diff("turn", false);
+        assertEquals(0, partialDelta.getReplaceFrom());
+        assertEquals(0, partialDelta.getReplacedCount());
+        assertEquals(Collections.singletonList("turn"), partialDelta.getNewWords());
+
+        partialDelta = partialDiffer.diff("turn on", false);
+        assertEquals(1, partialDelta.getReplaceFrom());
+        assertEquals(0, partialDelta.getReplacedCount());
+        assertEquals(Collections.singletonList("on"), partialDelta.getNewWords());
+    }
+
+    @Test
+    public void revisedWordsAreReplaced()
+    {
+        partialDiffer.diff("turn on the light", false);
+
+        PartialDelta partialDelta = partialDiffer.diff("turn on the lights", false);
+        assertEquals(3, partialDelta.getReplaceFrom());
+        assertEquals(1, partialDelta.getReplacedCount());
+        assertEquals(Collections.singletonList("lights"), partialDelta.getNewWords());
+    }
+
+    @Test
+    public void unchangedHypothesisHasNoDelta()
+    {
+        partialDiffer.diff("turn on", false);
+
+        assertNull(partialDiffer.diff("turn  on ", false));
+    }
+
+    @Test
+    public void stableWordsAreCommitted()
+    {
+        partialDiffer.diff("turn", false);
+
+        // A word is committed once it stayed unchanged over the last Extensions.PARTIAL_COMMIT_STABILITY hypotheses
+        PartialDelta partialDelta = partialDiffer.diff("turn on", false);
+        assertEquals(0, partialDelta.getCommittedCount());
+        assertTrue(partialDelta.getCommittedWords().isEmpty());
+
+        partialDelta = partialDiffer.diff("turn on the", false);
+        assertEquals(1, partialDelta.getCommittedCount());
+        assertEquals(Collections.singletonList("turn"), partialDelta.getCommittedWords());
+
+        // Only the newly committed words are reported, the count covers all of them
+        partialDelta = partialDiffer.diff("turn on the lights", false);
+        assertEquals(2, partialDelta.getCommittedCount());
+        assertEquals(Collections.singletonList("on"), partialDelta.getCommittedWords());
+    }
+
+    @Test
+    public void revisionPullsBackTheCommitPoint()
+    {
+        partialDiffer.diff("turn on the", false);
+        partialDiffer.diff("turn on the", false);
+        assertEquals(3, partialDiffer.diff("turn on the", false).getCommittedCount());
+
+        PartialDelta partialDelta = partialDiffer.diff("turn off", false);
+        assertEquals(1, partialDelta.getReplaceFrom());
+        assertEquals(2, partialDelta.getReplacedCount());
+        assertEquals(1, partialDelta.getCommittedCount());
+    }
+
+    @Test
+    public void finalHypothesisCommitsEveryWord()
+    {
+        partialDiffer.diff("turn on", false);
+
+        PartialDelta partialDelta = partialDiffer.diff("turn on the lights", true);
+        assertTrue(partialDelta.isFinal());
+        assertEquals(4, partialDelta.getCommittedCount());
+        assertEquals(Arrays.asList("turn", "on", "the", "lights"), partialDelta.getCommittedWords());
+
+        // The final delta is reported even when the words didn't change
+        partialDiffer.reset();
+        partialDiffer.diff("stop", false);
+        partialDelta = partialDiffer.diff("stop", true);
+        assertTrue(partialDelta.isFinal());
+        assertTrue(partialDelta.getNewWords().isEmpty());
+        assertEquals(Collections.singletonList("stop"), partialDelta.getCommittedWords());
+    }
+
+    @Test
+    public void resetStartsANewSession()
+    {
+        partialDiffer.diff("turn on", false);
+        partialDiffer.reset();
+
+        PartialDelta partialDelta = partialDiffer.diff("turn on", false);
+        assertEquals(0, partialDelta.getReplaceFrom());
+        assertEquals(Arrays.asList("turn", "on"), partialDelta.getNewWords());
+        assertEquals(0, partialDelta.getCommittedCount());
+    }
+}
@@ -0,0 +1,128 @@
+package com.vikramezhil.droidspeech;
+
+import android.content.Context;
+import android.content.Intent;
+import android.speech.RecognitionListener;
+import android.speech.SpeechRecognizer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Droid Speech Recognizer Leak Test
+ *
+ * Switches the language and the offline status between the continuous recognition sessions, the bound
+ * recognizer has to be reused throughout and destroyed once droid speech is closed
+ *
+ * @author Vikram Ezhil
+ */
+
+public class RecognizerLeakTest
+{
+    private static final List<String> LANGUAGES = Arrays.asList("en-US", "fr-FR");
+
+    private VirtualClock clock;
+    private DroidSpeech droidSpeech;
+    private final List<SpeechRecognizer> recognizers = new ArrayList<>();
+    private int baseline;
+
+    @Before
+    public void setUp()
+    {
+        Context context = TestEnvironment.createContext();
+        clock = TestEnvironment.install(context);
+
+        RecognizerLifecycle.setRecognizerFactory(new RecognizerLifecycle.RecognizerFactory() {
+            @Override
+            public SpeechRecognizer createSpeechRecognizer(Context context) {
+
+                SpeechRecognizer speechRecognizer = mock(SpeechRecognizer.class);
+                recognizers.add(speechRecognizer);
+
+                return speechRecognizer;
+            }
+        });
+
+        // Seeding the supported languages, served from the cache on the virtual clock
+        LanguageCache.update(context, 0, LANGUAGES.get(0), LANGUAGES);
+
+        baseline = DroidSpeech.getLiveRecognizerCount();
+
+        droidSpeech = new DroidSpeech(context, null);
+        clock.advanceBy(0);
+
+        BackoffRestartPolicy restartPolicy = new BackoffRestartPolicy();
+        restartPolicy.setInitialDelay(100);
+        restartPolicy.setMaxDelay(100);
+        restartPolicy.setJitter(0);
+        droidSpeech.setRestartPolicy(restartPolicy);
+        droidSpeech.setContinuousSpeechRecognition(true);
+    }
+
+    @After
+    public void tearDown()
+    {
+        droidSpeech.closeDroidSpeechOperations();
+
+        TestEnvironment.uninstall();
+    }
+
+    @Test
+    public void switchesKeepASingleRecognizer()
+    {
+        final int sessions = 50;
+
+        assertEquals(baseline + 1, DroidSpeech.getLiveRecognizerCount());
+
+        droidSpeech.startDroidSpeechRecognition();
+        clock.advanceBy(0);
+
+        assertEquals(1, recognizers.size());
+        SpeechRecognizer speechRecognizer = recognizers.get(0);
+
+        ArgumentCaptor<RecognitionListener> listenerCaptor = ArgumentCaptor.forClass(RecognitionListener.class);
+        verify(speechRecognizer).setRecognitionListener(listenerCaptor.capture());
+        RecognitionListener recognitionListener = listenerCaptor.getValue();
+
+        for(int session = 1; session <= sessions; session++)
+        {
+            // Switching between the sessions, the offline status only applies on API 23 and above
+            droidSpeech.setPreferredLanguage(LANGUAGES.get(session % LANGUAGES.size()));
+            droidSpeech.setOfflineSpeechRecognition(session % 3 == 0);
+
+            recognitionListener.onReadyForSpeech(null);
+            recognitionListener.onError(SpeechRecognizer.ERROR_SPEECH_TIMEOUT);
+            clock.advanceBy(100);
+
+            assertEquals(baseline + 1, DroidSpeech.getLiveRecognizerCount());
+        }
+
+        assertEquals(1, recognizers.size());
+
+        // Each language kept its prebuilt speech intent
+        ArgumentCaptor<Intent> intentCaptor = ArgumentCaptor.forClass(Intent.class);
+        verify(speechRecognizer, times(sessions + 1)).startListening(intentCaptor.capture());
+
+        List<Intent> speechIntents = intentCaptor.getAllValues();
+        assertNotSame(speechIntents.get(1), speechIntents.get(2));
+        assertSame(speechIntents.get(1), speechIntents.get(3));
+
+        droidSpeech.closeDroidSpeechOperations();
+
+        assertEquals(baseline, DroidSpeech.getLiveRecognizerCount());
+        verify(speechRecognizer).destroy();
+    }
+}
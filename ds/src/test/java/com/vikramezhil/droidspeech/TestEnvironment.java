@@ -0,0 +1,84 @@
+package com.vikramezhil.droidspeech;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.speech.SpeechRecognizer;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Droid Speech Test Environment
+ *
+ * Runs droid speech on the JVM against the mockable android jar, the context and the speech recognizers
+ * are mocked, the network is reported as connected and the timing follows a virtual clock
+ *
+ * @author Vikram Ezhil
+ */
+
+class TestEnvironment
+{
+    private static final NetworkSnapshot CONNECTED = new NetworkSnapshot(NetworkSnapshot.Transport.WIFI, true, false, true);
+
+    private TestEnvironment()
+    {
+    }
+
+    /**
+     * Creates a mocked application context
+     *
+     * @return The context
+     */
+    static Context createContext()
+    {
+        Resources resources = mock(Resources.class);
+        when(resources.getConfiguration()).thenReturn(new Configuration());
+        when(resources.getStringArray(anyInt())).thenReturn(new String[0]);
+
+        Context context = mock(Context.class);
+        when(context.getApplicationContext()).thenReturn(context);
+        when(context.getResources()).thenReturn(resources);
+        when(context.getSharedPreferences(anyString(), anyInt())).thenReturn(mock(SharedPreferences.class, RETURNS_DEEP_STUBS));
+
+        return context;
+    }
+
+    /**
+     * Installs the virtual clock, the mocked speech recognizers and the connected network
+     *
+     * @param context The context the connectivity monitor is started with
+     *
+     * @return The virtual clock droid speech runs on
+     */
+    static VirtualClock install(Context context)
+    {
+        VirtualClock clock = new VirtualClock();
+        DroidSpeech.setClock(clock);
+
+        RecognizerLifecycle.setRecognizerFactory(new RecognizerLifecycle.RecognizerFactory() {
+            @Override
+            public SpeechRecognizer createSpeechRecognizer(Context context) {
+
+                return mock(SpeechRecognizer.class);
+            }
+        });
+
+        ConnectivityMonitor.getInstance(context).update(CONNECTED);
+
+        return clock;
+    }
+
+    /**
+     * Restores the system clock and the android speech recognizers
+     */
+    static void uninstall()
+    {
+        DroidSpeech.setClock(null);
+        RecognizerLifecycle.setRecognizerFactory(null);
+    }
+}
@@ -0,0 +1,137 @@
+package com.vikramezhil.droidspeech;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Droid Speech Transcript Journal Test
+ *
+ * @author Vikram Ezhil
+ */
+
+public class TranscriptJournalTest
+{
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void appendedRecordsAreReadBack() throws IOException
+    {
+        File directory = temporaryFolder.newFolder();
+        TranscriptJournal journal = TranscriptJournal.open(directory);
+
+        journal.append(TranscriptRecord.TYPE_PARTIAL, 1, 100, "turn on");
+        journal.append(TranscriptRecord.TYPE_FINAL, 1, 200, "turn on the lights");
+
+        TranscriptReader reader = journal.openReader();
+
+        TranscriptRecord record = reader.next();
+        assertEquals(TranscriptRecord.TYPE_PARTIAL, record.getType());
+        assertEquals(1, record.getSessionId());
+        assertEquals(100, record.getTimestamp());
+        assertEquals("turn on", record.getText());
+
+        record = reader.next();
+        assertEquals(TranscriptRecord.TYPE_FINAL, record.getType());
+        assertEquals("turn on the lights", record.getText());
+
+        // Caught up with the writer, the next append is read once it lands
+        assertNull(reader.next());
+
+        journal.append(TranscriptRecord.TYPE_FINAL, 2, 300, "café");
+        assertEquals("café", reader.next().getText());
+
+        reader.close();
+        journal.close();
+
+        assertFalse(journal.append(TranscriptRecord.TYPE_FINAL, 3, 400, "closed"));
+    }
+
+    @Test
+    public void tornRecordIsDroppedOnRecovery() throws IOException
+    {
+        File directory = temporaryFolder.newFolder();
+        TranscriptJournal journal = TranscriptJournal.open(directory);
+
+        journal.append(TranscriptRecord.TYPE_FINAL, 1, 100, "first");
+        journal.append(TranscriptRecord.TYPE_FINAL, 2, 200, "second");
+        journal.close();
+
+        // Writing a record whose length landed but whose body didn't, as a power loss mid append leaves it
+        int end = 2 * TranscriptJournal.HEADER_SIZE + "first".length() + "second".length();
+        RandomAccessFile segmentFile = new RandomAccessFile(TranscriptJournal.segmentFile(directory, 0), "rw");
+        segmentFile.seek(end);
+        segmentFile.writeInt("torn".length() + 1);
+        segmentFile.writeInt(0xBADC0DE);
+        segmentFile.writeByte(TranscriptRecord.TYPE_FINAL);
+        segmentFile.close();
+
+        journal = TranscriptJournal.open(directory);
+        journal.append(TranscriptRecord.TYPE_FINAL, 3, 300, "third");
+
+        // The torn record was cleared and overwritten, the reader goes past it
+        assertEquals(Arrays.asList("first", "second", "third"), listTexts(journal.openReader()));
+
+        journal.close();
+    }
+
+    @Test
+    public void oldestSegmentsAreDeletedOnRollOver() throws IOException
+    {
+        File directory = temporaryFolder.newFolder();
+
+        // Segments holding three records of a hundred characters each
+        int recordSize = TranscriptJournal.HEADER_SIZE + 100;
+        TranscriptJournal journal = TranscriptJournal.open(directory, 3 * recordSize + 10, 2);
+
+        StringBuilder text = new StringBuilder();
+        for(int i = 0; i < 100; i++)
+        {
+            text.append('x');
+        }
+
+        for(int sessionId = 0; sessionId < 10; sessionId++)
+        {
+            journal.append(TranscriptRecord.TYPE_FINAL, sessionId, 0, text.toString());
+        }
+
+        assertEquals(2, TranscriptJournal.listSegments(directory).length);
+
+        // The records of the kept segments are read in order
+        TranscriptReader reader = journal.openReader();
+        for(int sessionId = 6; sessionId < 10; sessionId++)
+        {
+            assertEquals(sessionId, reader.next().getSessionId());
+        }
+
+        assertNull(reader.next());
+
+        reader.close();
+        journal.close();
+    }
+
+    private static List<String> listTexts(TranscriptReader reader) throws IOException
+    {
+        List<String> texts = new ArrayList<>();
+        for(TranscriptRecord record = reader.next(); record != null; record = reader.next())
+        {
+            texts.add(record.getText());
+        }
+
+        reader.close();
+
+        return texts;
+    }
+}
@@ -0,0 +1,84 @@
+package com.vikramezhil.droidspeech;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Droid Speech Vocabulary Matcher Test
+ *
+ * @author Vikram Ezhil
+ */
+
+public class VocabularyMatcherTest
+{
+    private VocabularyMatcher vocabularyMatcher;
+
+    @Before
+    public void setUp()
+    {
+        vocabularyMatcher = new VocabularyMatcher();
+        vocabularyMatcher.add("Kitchen");
+        vocabularyMatcher.add("Living Room");
+        vocabularyMatcher.add("Bedroom");
+    }
+
+    @Test
+    public void closestEntryIsFound()
+    {
+        assertTrue(vocabularyMatcher.match("kitchn", 2));
+        assertEquals("Kitchen", vocabularyMatcher.getBestEntry());
+        assertEquals(1, vocabularyMatcher.getBestDistance());
+    }
+
+    @Test
+    public void entriesAreComparedNormalized()
+    {
+        assertTrue(vocabularyMatcher.match("LIVING,  ROOM", 0));
+        assertEquals("Living Room", vocabularyMatcher.getBestEntry());
+        assertEquals(0, vocabularyMatcher.getBestDistance());
+    }
+
+    @Test
+    public void entryBeyondTheDistanceIsNotFound()
+    {
+        assertFalse(vocabularyMatcher.match("garage", 2));
+        assertNull(vocabularyMatcher.getBestEntry());
+        assertEquals(-1, vocabularyMatcher.getBestDistance());
+    }
+
+    @Test
+    public void closestEntryIsKeptAcrossQueries()
+    {
+        assertTrue(vocabularyMatcher.match("living rom", 2));
+
+        // Only a strictly closer entry replaces it
+        assertFalse(vocabularyMatcher.match("bedrooms", 2));
+        assertEquals("Living Room", vocabularyMatcher.getBestEntry());
+
+        assertTrue(vocabularyMatcher.match("bedroom", 2));
+        assertEquals("Bedroom", vocabularyMatcher.getBestEntry());
+        assertEquals(0, vocabularyMatcher.getBestDistance());
+
+        vocabularyMatcher.reset();
+        assertNull(vocabularyMatcher.getBestEntry());
+        assertTrue(vocabularyMatcher.match("bedrooms", 2));
+    }
+
+    @Test
+    public void duplicateEntriesAreKeptOnce()
+    {
+        vocabularyMatcher.add("kitchen!");
+        vocabularyMatcher.add(null);
+
+        assertEquals(3, vocabularyMatcher.size());
+
+        vocabularyMatcher.clear();
+        assertEquals(0, vocabularyMatcher.size());
+        assertFalse(vocabularyMatcher.match("kitchen", 2));
+    }
+}
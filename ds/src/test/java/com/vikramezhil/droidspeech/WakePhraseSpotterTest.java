@@ -0,0 +1,78 @@
+package com.vikramezhil.droidspeech;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Droid Speech Wake Phrase Spotter Test
+ *
+ * @author Vikram Ezhil
+ */
+
+public class WakePhraseSpotterTest
+{
+    private WakePhraseSpotter wakePhraseSpotter;
+
+    @Before
+    public void setUp()
+    {
+        wakePhraseSpotter = new WakePhraseSpotter();
+        wakePhraseSpotter.setPhrases(Arrays.asList("ok droid", "hey droid", "droid"));
+    }
+
+    @Test
+    public void anchoredPhraseIsSpotted()
+    {
+        assertEquals(WakePhraseSpotter.SPOT_MATCHED, wakePhraseSpotter.spot("Hey, Droid! play some music", true));
+        assertEquals("hey droid", wakePhraseSpotter.getWakePhrase());
+        assertEquals("play some music", wakePhraseSpotter.getRemainder());
+    }
+
+    @Test
+    public void unanchoredPhraseIsSpottedAnywhere()
+    {
+        assertEquals(WakePhraseSpotter.SPOT_MATCHED, wakePhraseSpotter.spot("well ok droid stop", false));
+        assertEquals("ok droid", wakePhraseSpotter.getWakePhrase());
+        assertEquals("stop", wakePhraseSpotter.getRemainder());
+    }
+
+    @Test
+    public void shorterPhraseIsFoundThroughTheFailureLinks()
+    {
+        assertEquals(WakePhraseSpotter.SPOT_MATCHED, wakePhraseSpotter.spot("say droid go", false));
+        assertEquals("droid", wakePhraseSpotter.getWakePhrase());
+        assertEquals("go", wakePhraseSpotter.getRemainder());
+    }
+
+    @Test
+    public void anchoredSpotIsPendingOnAPrefix()
+    {
+        assertEquals(WakePhraseSpotter.SPOT_PENDING, wakePhraseSpotter.spot("hey", true));
+        assertNull(wakePhraseSpotter.getWakePhrase());
+    }
+
+    @Test
+    public void anchoredSpotIsRuledOutOffThePath()
+    {
+        assertEquals(WakePhraseSpotter.SPOT_RULED_OUT, wakePhraseSpotter.spot("well ok droid stop", true));
+        assertNull(wakePhraseSpotter.getRemainder());
+
+        // The last word may still be revised by the recognizer
+        assertEquals(WakePhraseSpotter.SPOT_PENDING, wakePhraseSpotter.spot("hey there", true));
+    }
+
+    @Test
+    public void noPhrasesDisableTheSpotting()
+    {
+        wakePhraseSpotter.setPhrases(null);
+
+        assertFalse(wakePhraseSpotter.isEnabled());
+        assertEquals(WakePhraseSpotter.SPOT_PENDING, wakePhraseSpotter.spot("ok droid", false));
+    }
+}